@@ -0,0 +1,90 @@
+package com.phasezero.catalog.cache;
+
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.event.ProductChangedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of the catalog as a whole and of each category, bumped after every committed
+ * product write. Read endpoints derive strong ETags from it and can answer {@code If-None-Match}
+ * without touching the repository; the listing caches use it in their keys.
+ * <p>
+ * Versions are in-memory, so ETags carry a per-process boot id: after a restart every tag changes
+ * rather than a reset counter matching a tag from before the restart. Callers must read the
+ * version before the data it describes, so a write racing with a read can only make the data
+ * newer than its tag, never older.
+ * <p>
+ * Buffered stock deltas are counted apart from committed writes: they move the ETags, since reads
+ * include them, but not the versions the listing caches are keyed by, since those entries hold
+ * committed rows that readers lay the deltas over.
+ */
+@Component
+public class CatalogVersion {
+
+    private final String bootId = Long.toString(UUID.randomUUID().getMostSignificantBits() & Long.MAX_VALUE, 36);
+    private final AtomicLong catalog = new AtomicLong();
+    private final Map<String, AtomicLong> categories = new ConcurrentHashMap<>();
+    private final AtomicLong buffered = new AtomicLong();
+    private final Map<String, AtomicLong> bufferedCategories = new ConcurrentHashMap<>();
+
+    /** Runs after the other listeners have updated their read models, so a new tag never meets old data. */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onProductChanged(ProductChangedEvent event) {
+        bumpCategory(event.getPrevious());
+        bumpCategory(event.getProduct());
+        catalog.incrementAndGet();
+    }
+
+    /**
+     * Moves the ETags of the catalog and {@code category} on for a change that reads already include
+     * but that is not committed, and so not published as an event, yet (a buffered stock delta).
+     * The versions below stay as they are.
+     */
+    public void changed(String category) {
+        if (category != null) {
+            bufferedCategories.computeIfAbsent(category.trim(), c -> new AtomicLong()).incrementAndGet();
+        }
+        buffered.incrementAndGet();
+    }
+
+    /** Version of the committed catalog. */
+    public long catalogVersion() {
+        return catalog.get();
+    }
+
+    /** Version of the committed rows of {@code category}. */
+    public long categoryVersion(String category) {
+        AtomicLong version = categories.get(category.trim());
+        return version != null ? version.get() : 0;
+    }
+
+    public String catalogEtag() {
+        return "\"" + bootId + "-" + catalogVersion() + "." + buffered.get() + "\"";
+    }
+
+    public String categoryEtag(String category) {
+        AtomicLong deltas = bufferedCategories.get(category.trim());
+        return "\"" + bootId + "-c" + categoryVersion(category) + "." + (deltas != null ? deltas.get() : 0) + "\"";
+    }
+
+    private void bumpCategory(Product product) {
+        if (product != null) {
+            bumpCategory(product.getCategory());
+        }
+    }
+
+    private void bumpCategory(String category) {
+        if (category != null) {
+            categories.computeIfAbsent(category.trim(), c -> new AtomicLong()).incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.phasezero.catalog.cache;
+
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.event.ProductChangedEvent;
+import com.phasezero.catalog.responsedto.ProductResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Keys and invalidation for the cached category and price-sorted listings.
+ * <p>
+ * Entries hold committed rows only; buffered stock deltas are laid over a copy by the reader, so
+ * they leave the entries in place.
+ * <p>
+ * Keys carry the {@link CatalogVersion} of what they list, so a write makes the old entries
+ * unreachable as soon as the version moves. This includes an entry put back by a read that
+ * started before the write committed, which would otherwise be served until it expired. A write
+ * also evicts the entries it superseded: only the categories it touched (old and new for
+ * updates) and the price-sorted listing, which every product is part of.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductQueryCache {
+
+    public static final String BY_CATEGORY = "productsByCategory";
+    public static final String BY_PRICE = "productsByPrice";
+
+    private final CacheManager cacheManager;
+    private final CatalogVersion catalogVersion;
+
+    // Categories are stored trimmed, so the trimmed request parameter identifies the listing
+    public String categoryKey(String category) {
+        String trimmed = category.trim();
+        return trimmed + "@" + catalogVersion.categoryVersion(trimmed);
+    }
+
+    public String priceKey() {
+        return "all@" + catalogVersion.catalogVersion();
+    }
+
+    /**
+     * The cached listing of {@code category}, or the one {@code loader} returns, which is then
+     * cached. Nothing is cached when the loader throws.
+     */
+    public List<ProductResponse> byCategory(String category, Supplier<List<ProductResponse>> loader) {
+        return get(BY_CATEGORY, categoryKey(category), loader);
+    }
+
+    /** The cached price-sorted listing, or the one {@code loader} returns, which is then cached. */
+    public List<ProductResponse> byPrice(Supplier<List<ProductResponse>> loader) {
+        return get(BY_PRICE, priceKey(), loader);
+    }
+
+    /** Runs before {@link CatalogVersion} moves on, while the keys still name the superseded entries. */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onProductChanged(ProductChangedEvent event) {
+        Cache byCategory = cacheManager.getCache(BY_CATEGORY);
+        if (byCategory != null) {
+            evictCategory(byCategory, event.getProduct());
+            evictCategory(byCategory, event.getPrevious());
+        }
+
+        Cache byPrice = cacheManager.getCache(BY_PRICE);
+        if (byPrice != null) {
+            byPrice.evict(priceKey());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ProductResponse> get(String name, String key, Supplier<List<ProductResponse>> loader) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            return loader.get();
+        }
+        Cache.ValueWrapper cached = cache.get(key);
+        if (cached != null) {
+            return (List<ProductResponse>) cached.get();
+        }
+        List<ProductResponse> listing = loader.get();
+        cache.put(key, listing);
+        return listing;
+    }
+
+    private void evictCategory(Cache cache, Product product) {
+        if (product == null || product.getCategory() == null) {
+            return;
+        }
+        String key = categoryKey(product.getCategory());
+        cache.evict(key);
+        log.debug("Evicted cached listing '{}'", key);
+    }
+}
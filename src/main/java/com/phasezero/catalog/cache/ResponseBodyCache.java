@@ -0,0 +1,213 @@
+package com.phasezero.catalog.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.event.ProductChangedEvent;
+import com.phasezero.catalog.responsedto.RestApiResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Already-encoded JSON for the hot listing responses, so repeated reads skip Jackson entirely.
+ * <p>
+ * The {@link RestApiResponse} envelope is serialized once without its timestamp; each response is
+ * that prefix followed by the current timestamp and the closing brace. When compression is on and
+ * the body is large enough, the prefix is also kept as a gzip member: a compressed response is that
+ * member followed by a tiny stored (uncompressed) member for the timestamp, which gzip decoders read
+ * as one stream (RFC 1952, section 2.2). Nothing is deflated on the request path.
+ * <p>
+ * Keys carry the ETag of the listing, so like {@link ProductQueryCache} a write makes the old
+ * entries unreachable, and the entries it superseded are evicted right away.
+ */
+@Component
+public class ResponseBodyCache {
+
+    public static final String NAME = "productResponseBodies";
+
+    private static final byte[] TIMESTAMP_FIELD = ",\"timestamp\":".getBytes(StandardCharsets.UTF_8);
+    // Fixed gzip member header: deflate, no flags, no mtime, unknown OS
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter timestampWriter;
+    private final CatalogVersion catalogVersion;
+    private final boolean gzip;
+    private final int gzipMinSize;
+    private final Cache<String, EncodedBody> bodies;
+
+    public ResponseBodyCache(ObjectMapper objectMapper, CatalogVersion catalogVersion, MeterRegistry meterRegistry,
+                             @Value("${catalog.response-cache.max-bytes:33554432}") long maxBytes,
+                             @Value("${catalog.response-cache.gzip:true}") boolean gzip,
+                             @Value("${catalog.response-cache.gzip-min-size:1024}") int gzipMinSize) {
+        this.objectMapper = objectMapper;
+        this.timestampWriter = objectMapper.writerFor(LocalDateTime.class);
+        this.catalogVersion = catalogVersion;
+        this.gzip = gzip;
+        this.gzipMinSize = gzipMinSize;
+        // Entries filled by a read that raced a write are never evicted by key; let them age out
+        this.bodies = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, EncodedBody body) -> body.size())
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, bodies, NAME);
+        Gauge.builder("catalog.response_cache.size", bodies, c -> c.policy().eviction()
+                        .map(eviction -> eviction.weightedSize().orElse(0))
+                        .orElse(0L))
+                .description("Encoded response bytes held, identity and gzip together")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public static String categoryKey(String category, String etag) {
+        return "category:" + category.trim() + etag;
+    }
+
+    public static String priceKey(String etag) {
+        return "price:" + etag;
+    }
+
+    /**
+     * Encoded body for {@code key}, building and encoding the envelope on a miss. Concurrent misses
+     * for the same key wait for one load rather than each querying and serializing.
+     */
+    public EncodedBody get(String key, Supplier<RestApiResponse<?>> envelope) {
+        return bodies.get(key, k -> encode(envelope.get()));
+    }
+
+    /** The complete response: the cached prefix with the current timestamp spliced in. */
+    public byte[] render(EncodedBody body, boolean compressed) {
+        byte[] tail = tail(body.prefix);
+        byte[] head = compressed ? body.gzipPrefix : body.prefix;
+        if (compressed) {
+            tail = storedGzipMember(tail);
+        }
+
+        byte[] response = new byte[head.length + tail.length];
+        System.arraycopy(head, 0, response, 0, head.length);
+        System.arraycopy(tail, 0, response, head.length, tail.length);
+        return response;
+    }
+
+    /** Runs before {@link CatalogVersion} moves on, while the keys still name the superseded entries. */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onProductChanged(ProductChangedEvent event) {
+        evictCategory(event.getProduct());
+        evictCategory(event.getPrevious());
+        bodies.invalidate(priceKey(catalogVersion.catalogEtag()));
+    }
+
+    private void evictCategory(Product product) {
+        if (product != null && product.getCategory() != null) {
+            bodies.invalidate(categoryKey(product.getCategory(), catalogVersion.categoryEtag(product.getCategory())));
+        }
+    }
+
+    private EncodedBody encode(RestApiResponse<?> envelope) {
+        try {
+            envelope.setTimestamp(null);
+            byte[] json = objectMapper.writeValueAsBytes(envelope);
+            // Drop the closing brace; the timestamp field and brace are appended per response
+            byte[] prefix = new byte[json.length - 1];
+            System.arraycopy(json, 0, prefix, 0, prefix.length);
+
+            byte[] gzipPrefix = null;
+            if (gzip && prefix.length >= gzipMinSize) {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream(prefix.length / 4);
+                try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+                    out.write(prefix);
+                }
+                gzipPrefix = buffer.toByteArray();
+            }
+            return new EncodedBody(prefix, gzipPrefix);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode cached response", e);
+        }
+    }
+
+    private byte[] tail(byte[] prefix) {
+        byte[] timestamp;
+        try {
+            timestamp = timestampWriter.writeValueAsBytes(LocalDateTime.now());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // An envelope with no other fields would leave just "{", which takes no separator
+        int separator = prefix.length > 1 ? 0 : 1;
+        byte[] tail = new byte[TIMESTAMP_FIELD.length - separator + timestamp.length + 1];
+        System.arraycopy(TIMESTAMP_FIELD, separator, tail, 0, TIMESTAMP_FIELD.length - separator);
+        System.arraycopy(timestamp, 0, tail, TIMESTAMP_FIELD.length - separator, timestamp.length);
+        tail[tail.length - 1] = '}';
+        return tail;
+    }
+
+    // One gzip member holding a single stored deflate block: no compressor needed for a few bytes
+    static byte[] storedGzipMember(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        int length = data.length;
+
+        byte[] member = new byte[GZIP_HEADER.length + 5 + length + 8];
+        System.arraycopy(GZIP_HEADER, 0, member, 0, GZIP_HEADER.length);
+        int i = GZIP_HEADER.length;
+        member[i++] = 1; // final block, stored
+        member[i++] = (byte) length;
+        member[i++] = (byte) (length >>> 8);
+        member[i++] = (byte) ~length;
+        member[i++] = (byte) (~length >>> 8);
+        System.arraycopy(data, 0, member, i, length);
+        i += length;
+        writeIntLe(member, i, (int) crc.getValue());
+        writeIntLe(member, i + 4, length);
+        return member;
+    }
+
+    private static void writeIntLe(byte[] target, int offset, int value) {
+        target[offset] = (byte) value;
+        target[offset + 1] = (byte) (value >>> 8);
+        target[offset + 2] = (byte) (value >>> 16);
+        target[offset + 3] = (byte) (value >>> 24);
+    }
+
+    /** An envelope serialized up to, but not including, its timestamp and closing brace. */
+    public static final class EncodedBody {
+        private final byte[] prefix;
+        private final byte[] gzipPrefix;
+
+        EncodedBody(byte[] prefix, byte[] gzipPrefix) {
+            this.prefix = prefix;
+            this.gzipPrefix = gzipPrefix;
+        }
+
+        public boolean isCompressible() {
+            return gzipPrefix != null;
+        }
+
+        int size() {
+            return prefix.length + (gzipPrefix != null ? gzipPrefix.length : 0);
+        }
+    }
+}
@@ -1,27 +1,26 @@
 package com.phasezero.catalog.config;
 
 import com.phasezero.catalog.entity.Product;
-import com.phasezero.catalog.repository.ProductRepository;
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import com.phasezero.catalog.seed.CatalogSeeder;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 @Configuration
-@Slf4j
-@RequiredArgsConstructor
 public class DataInitializer {
 
     @Bean
-    public CommandLineRunner initData(ProductRepository productRepository) {
-        return args -> {
-            if (productRepository.count() == 0) {
-                log.info("Initializing sample product data...");
+    public CommandLineRunner initData(CatalogSeeder catalogSeeder) {
+        // Bulk-loads catalog.seed.source into an empty catalog; these are the "sample" source
+        return args -> catalogSeeder.seedIfEmpty(sampleProducts());
+    }
 
-                Product product1 = Product.builder()
+    static List<Product> sampleProducts() {
+        return List.of(
+                Product.builder()
                         .partNumber("PN-1001")
                         .partName("hydraulic filter")
                         .category("Filters")
@@ -29,9 +28,9 @@ public class DataInitializer {
                         .stock(100)
                         .brand("Bosch")
                         .description("High-quality hydraulic filter for industrial use")
-                        .build();
+                        .build(),
 
-                Product product2 = Product.builder()
+                Product.builder()
                         .partNumber("PN-1002")
                         .partName("engine oil")
                         .category("Lubricants")
@@ -39,9 +38,9 @@ public class DataInitializer {
                         .stock(200)
                         .brand("Mobil")
                         .description("Synthetic engine oil 5W-30")
-                        .build();
+                        .build(),
 
-                Product product3 = Product.builder()
+                Product.builder()
                         .partNumber("PN-1003")
                         .partName("brake pads")
                         .category("Brakes")
@@ -49,9 +48,9 @@ public class DataInitializer {
                         .stock(50)
                         .brand("Brembo")
                         .description("Ceramic brake pads for passenger cars")
-                        .build();
+                        .build(),
 
-                Product product4 = Product.builder()
+                Product.builder()
                         .partNumber("PN-1004")
                         .partName("air filter")
                         .category("Filters")
@@ -59,9 +58,9 @@ public class DataInitializer {
                         .stock(150)
                         .brand("MANN")
                         .description("Premium air filter for improved engine performance")
-                        .build();
+                        .build(),
 
-                Product product5 = Product.builder()
+                Product.builder()
                         .partNumber("PN-1005")
                         .partName("spark plug")
                         .category("Ignition")
@@ -69,17 +68,7 @@ public class DataInitializer {
                         .stock(300)
                         .brand("NGK")
                         .description("Iridium spark plug for better fuel efficiency")
-                        .build();
-
-                productRepository.save(product1);
-                productRepository.save(product2);
-                productRepository.save(product3);
-                productRepository.save(product4);
-                productRepository.save(product5);
-
-                log.info("Sample data initialized with {} products", productRepository.count());
-            }
-        };
+                        .build());
     }
 }
 
@@ -0,0 +1,34 @@
+package com.phasezero.catalog.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs whether requests are served on virtual or platform threads. Spring Boot silently ignores
+ * {@code spring.threads.virtual.enabled} below Java 21, so that case is called out explicitly.
+ */
+@Component
+@Slf4j
+public class ExecutionModeReporter {
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report(ApplicationReadyEvent event) {
+        Environment environment = event.getApplicationContext().getEnvironment();
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        String poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", "10");
+
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Serving requests on virtual threads (JDBC pool size {})", poolSize);
+        } else if (requested) {
+            log.warn("Virtual threads requested but not available on Java {}; serving requests on platform threads",
+                    Runtime.version().feature());
+        } else {
+            log.info("Serving requests on platform threads (max {}, JDBC pool size {})",
+                    environment.getProperty("server.tomcat.threads.max", "200"), poolSize);
+        }
+    }
+}
@@ -1,9 +1,22 @@
 package com.phasezero.catalog.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.phasezero.catalog.cache.CatalogVersion;
+import com.phasezero.catalog.cache.ResponseBodyCache;
+import com.phasezero.catalog.cache.ResponseBodyCache.EncodedBody;
+import com.phasezero.catalog.event.ProductChangeStreams;
+import com.phasezero.catalog.requestdto.ExportSort;
+import com.phasezero.catalog.requestdto.PriceRange;
 import com.phasezero.catalog.requestdto.ProductRequest;
+import com.phasezero.catalog.requestdto.StockAdjustmentRequest;
+import com.phasezero.catalog.responsedto.BatchCreateResponse;
+import com.phasezero.catalog.responsedto.CursorPageResponse;
+import com.phasezero.catalog.responsedto.FacetedSearchResponse;
 import com.phasezero.catalog.responsedto.RestApiResponse;
 import com.phasezero.catalog.responsedto.InventoryValueResponse;
 import com.phasezero.catalog.responsedto.ProductResponse;
+import com.phasezero.catalog.responsedto.SuggestionResponse;
 import com.phasezero.catalog.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -16,10 +29,21 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
 import java.util.List;
 
 @RestController
@@ -28,7 +52,14 @@ import java.util.List;
 @Tag(name = "Product Catalog", description = "APIs for managing product catalog")
 public class ProductController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final CatalogVersion catalogVersion;
+    private final ResponseBodyCache responseBodyCache;
+    private final ProductChangeStreams productChangeStreams;
 
     // 1. Add new product
     @PostMapping
@@ -53,13 +84,70 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(apiResponse);
     }
 
+    // 1b. Add products in bulk
+    @PostMapping("/batch")
+    @Operation(summary = "Create products in bulk",
+            description = "Create many products in one request. Duplicates are checked with a single set-based "
+                    + "query and rows are inserted with JDBC batching; the response reports the outcome per row")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "All products created"),
+            @ApiResponse(responseCode = "207", description = "Some rows were rejected, see the per-row results"),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized batch")
+    })
+    public ResponseEntity<RestApiResponse<BatchCreateResponse>> createProducts(
+            @RequestBody List<ProductRequest> requests) {
+        BatchCreateResponse response = productService.createProducts(requests);
+
+        RestApiResponse<BatchCreateResponse> apiResponse = RestApiResponse.<BatchCreateResponse>builder()
+                .status(response.getRejected() == 0 ? "created" : "partial")
+                .message(response.getCreated() + " of " + response.getRequested() + " products created")
+                .data(response)
+                .path("/api/v1/products/batch")
+                .build();
+
+        HttpStatus status = response.getRejected() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(apiResponse);
+    }
+
+    // 1c. Adjust stock
+    @PatchMapping("/{id}/stock")
+    @Operation(summary = "Adjust stock",
+            description = "Add delta to the product's stock (negative to take stock for an order) in one atomic, "
+                    + "conditional update. Fails without changing anything when the stock would go below zero")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stock adjusted"),
+            @ApiResponse(responseCode = "400", description = "Invalid delta"),
+            @ApiResponse(responseCode = "404", description = "Product not found"),
+            @ApiResponse(responseCode = "409", description = "Insufficient stock")
+    })
+    public ResponseEntity<RestApiResponse<ProductResponse>> adjustStock(
+            @Parameter(description = "Product id", required = true)
+            @PathVariable Long id,
+            @Valid @RequestBody StockAdjustmentRequest request) {
+        ProductResponse response = productService.adjustStock(id, request.getDelta());
+
+        RestApiResponse<ProductResponse> apiResponse = RestApiResponse.<ProductResponse>builder()
+                .status("success")
+                .message("Stock adjusted")
+                .data(response)
+                .path("/api/v1/products/" + id + "/stock")
+                .build();
+
+        return ResponseEntity.ok(apiResponse);
+    }
+
     // 2. List all products (WITH PAGINATION)
     @GetMapping
     @Operation(summary = "Get all products with pagination",
             description = "Retrieve all products with pagination support")
     public ResponseEntity<RestApiResponse<Page<ProductResponse>>> getAllProducts(
             @Parameter(description = "Pagination parameters (page, size, sort)")
-            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+            WebRequest webRequest) {
+        String etag = catalogVersion.catalogEtag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         Page<ProductResponse> products = productService.getAllProducts(pageable);
 
         RestApiResponse<Page<ProductResponse>> apiResponse = RestApiResponse.<Page<ProductResponse>>builder()
@@ -69,7 +157,73 @@ public class ProductController {
                 .path("/api/v1/products")
                 .build();
 
-        return ResponseEntity.ok(apiResponse);
+        return okWithEtag(etag).body(apiResponse);
+    }
+
+    // 2b. List products with a cursor (keyset pagination)
+    @GetMapping("/cursor")
+    @Operation(summary = "Get products with cursor pagination",
+            description = "List products newest first. Pass the returned nextCursor to get the following page; "
+                    + "every page costs the same regardless of depth and no total count is computed")
+    public ResponseEntity<RestApiResponse<CursorPageResponse<ProductResponse>>> getProductsByCursor(
+            @Parameter(description = "Opaque cursor from the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-100)")
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest webRequest) {
+        String etag = catalogVersion.catalogEtag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        CursorPageResponse<ProductResponse> products = productService.getProductsByCursor(cursor, size);
+
+        RestApiResponse<CursorPageResponse<ProductResponse>> apiResponse =
+                RestApiResponse.<CursorPageResponse<ProductResponse>>builder()
+                        .status("success")
+                        .message("Products retrieved successfully")
+                        .data(products)
+                        .path("/api/v1/products/cursor")
+                        .build();
+
+        return okWithEtag(etag).body(apiResponse);
+    }
+
+    // 2c. Products in a price range, cheapest first
+    @GetMapping("/price-range")
+    @Operation(summary = "Get products in a price range",
+            description = "List products priced between minPrice and maxPrice (inclusive, either may be omitted), "
+                    + "optionally in one category, cheapest first. Served from an in-memory price index; pass the "
+                    + "returned nextCursor to continue. Without bounds this is the cheapest-N listing")
+    public ResponseEntity<RestApiResponse<CursorPageResponse<ProductResponse>>> getProductsByPriceRange(
+            @Parameter(description = "Lowest price, inclusive")
+            @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Highest price, inclusive")
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Only products in this category")
+            @RequestParam(required = false) String category,
+            @Parameter(description = "Opaque cursor from the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-100)")
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest webRequest) {
+        String etag = category == null || category.isBlank()
+                ? catalogVersion.catalogEtag()
+                : catalogVersion.categoryEtag(category);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        CursorPageResponse<ProductResponse> products =
+                productService.getProductsByPriceRange(minPrice, maxPrice, category, cursor, size);
+
+        RestApiResponse<CursorPageResponse<ProductResponse>> apiResponse =
+                RestApiResponse.<CursorPageResponse<ProductResponse>>builder()
+                        .status("success")
+                        .message("Products retrieved successfully")
+                        .data(products)
+                        .path("/api/v1/products/price-range")
+                        .build();
+
+        return okWithEtag(etag).body(apiResponse);
     }
 
     // 3. Search by name
@@ -78,7 +232,12 @@ public class ProductController {
             description = "Search products whose name contains the given text (case-insensitive)")
     public ResponseEntity<RestApiResponse<List<ProductResponse>>> searchProductsByName(
             @Parameter(description = "Search term for product name", required = true)
-            @RequestParam String name) {
+            @RequestParam String name,
+            WebRequest webRequest) {
+        String etag = catalogVersion.catalogEtag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         List<ProductResponse> products = productService.searchProductsByName(name);
 
         RestApiResponse<List<ProductResponse>> apiResponse = RestApiResponse.<List<ProductResponse>>builder()
@@ -88,50 +247,185 @@ public class ProductController {
                 .path("/api/v1/products/search")
                 .build();
 
-        return ResponseEntity.ok(apiResponse);
+        return okWithEtag(etag).body(apiResponse);
     }
 
-    // 4. Filter by category
-    @GetMapping("/filter")
-    @Operation(summary = "Filter products by category",
-            description = "Get all products belonging to a specific category")
-    public ResponseEntity<RestApiResponse<List<ProductResponse>>> filterProductsByCategory(
-            @Parameter(description = "Category name", required = true)
-            @RequestParam String category) {
-        List<ProductResponse> products = productService.filterProductsByCategory(category);
+    // 3a. Ranked full-text search
+    @GetMapping("/search/ranked")
+    @Operation(summary = "Ranked full-text search",
+            description = "Search part name, brand and description for any word of the query and return the best "
+                    + "matches first, scored with BM25 (name matches weigh most, then brand, then description)")
+    public ResponseEntity<RestApiResponse<List<ProductResponse>>> searchFullText(
+            @Parameter(description = "Words to search for, e.g. 'iridium spark plug'", required = true)
+            @RequestParam String q,
+            @Parameter(description = "Maximum number of results (1-100)")
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest webRequest) {
+        String etag = catalogVersion.catalogEtag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        List<ProductResponse> products = productService.searchFullText(q, limit);
 
         RestApiResponse<List<ProductResponse>> apiResponse = RestApiResponse.<List<ProductResponse>>builder()
                 .status("success")
                 .message("Products found")
                 .data(products)
-                .path("/api/v1/products/filter")
+                .path("/api/v1/products/search/ranked")
                 .build();
 
-        return ResponseEntity.ok(apiResponse);
+        return okWithEtag(etag).body(apiResponse);
+    }
+
+    // 3c. Autocomplete
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest part numbers and names",
+            description = "Part numbers and part names starting with the typed prefix (case-insensitive), in "
+                    + "alphabetical order, for autocomplete. Served from memory on every keystroke")
+    public ResponseEntity<RestApiResponse<List<SuggestionResponse>>> suggest(
+            @Parameter(description = "Text typed so far, e.g. 'PN-10'", required = true)
+            @RequestParam String prefix,
+            @Parameter(description = "Maximum number of suggestions (1-50)")
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest webRequest) {
+        String etag = catalogVersion.catalogEtag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        List<SuggestionResponse> suggestions = productService.suggest(prefix, limit);
+
+        RestApiResponse<List<SuggestionResponse>> apiResponse = RestApiResponse.<List<SuggestionResponse>>builder()
+                .status("success")
+                .message(suggestions.size() + " suggestions")
+                .data(suggestions)
+                .path("/api/v1/products/suggest")
+                .build();
+
+        return okWithEtag(etag).body(apiResponse);
+    }
+
+    // 3b. Faceted search
+    @GetMapping("/facets")
+    @Operation(summary = "Faceted product search",
+            description = "Search products by name, category and brand, and get category, brand and price-range "
+                    + "counts for the same query in one response. Category counts ignore the category filter and "
+                    + "brand counts ignore the brand filter; all facets are counted in a single pass")
+    public ResponseEntity<RestApiResponse<FacetedSearchResponse>> facetedSearch(
+            @Parameter(description = "Text the product name must contain; omit to match every product")
+            @RequestParam(required = false) String name,
+            @Parameter(description = "Only products in this category")
+            @RequestParam(required = false) String category,
+            @Parameter(description = "Only products of this brand")
+            @RequestParam(required = false) String brand,
+            @Parameter(description = "Price ranges to count, as from-to pairs (upper bound exclusive, either end "
+                    + "may be empty), e.g. 0-25,25-100,100-")
+            @RequestParam(defaultValue = "${catalog.facets.price-ranges:0-25,25-100,100-500,500-}") String priceRanges,
+            @Parameter(description = "Zero-based page of matching products")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size (1-100)")
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest webRequest) {
+        List<PriceRange> ranges = PriceRange.parseList(priceRanges);
+        String etag = catalogVersion.catalogEtag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        FacetedSearchResponse response = productService.facetedSearch(name, category, brand, ranges, page, size);
+
+        RestApiResponse<FacetedSearchResponse> apiResponse = RestApiResponse.<FacetedSearchResponse>builder()
+                .status("success")
+                .message(response.getTotalMatches() + " products found")
+                .data(response)
+                .path("/api/v1/products/facets")
+                .build();
+
+        return okWithEtag(etag).body(apiResponse);
+    }
+
+    // 4. Filter by category
+    @GetMapping("/filter")
+    @Operation(summary = "Filter products by category",
+            description = "Get all products belonging to a specific category")
+    public ResponseEntity<byte[]> filterProductsByCategory(
+            @Parameter(description = "Category name", required = true)
+            @RequestParam String category,
+            WebRequest webRequest) {
+        // Only writes to this category change the listing
+        String etag = catalogVersion.categoryEtag(category);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        EncodedBody body = responseBodyCache.get(ResponseBodyCache.categoryKey(category, etag), () ->
+                RestApiResponse.<List<ProductResponse>>builder()
+                        .status("success")
+                        .message("Products found")
+                        .data(productService.filterProductsByCategory(category))
+                        .path("/api/v1/products/filter")
+                        .build());
+
+        return encoded(etag, body, webRequest);
     }
 
     // 5. Sort products by price
     @GetMapping("/sort")
     @Operation(summary = "Sort products by price ascending",
             description = "Get all products sorted by price in ascending order")
-    public ResponseEntity<RestApiResponse<List<ProductResponse>>> sortProductsByPrice() {
-        List<ProductResponse> products = productService.sortProductsByPriceAsc();
+    public ResponseEntity<byte[]> sortProductsByPrice(WebRequest webRequest) {
+        String etag = catalogVersion.catalogEtag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        EncodedBody body = responseBodyCache.get(ResponseBodyCache.priceKey(etag), () ->
+                RestApiResponse.<List<ProductResponse>>builder()
+                        .status("success")
+                        .message("Products sorted by price ascending")
+                        .data(productService.sortProductsByPriceAsc())
+                        .path("/api/v1/products/sort")
+                        .build());
 
-        RestApiResponse<List<ProductResponse>> apiResponse = RestApiResponse.<List<ProductResponse>>builder()
-                .status("success")
-                .message("Products sorted by price ascending")
-                .data(products)
-                .path("/api/v1/products/sort")
-                .build();
+        return encoded(etag, body, webRequest);
+    }
 
-        return ResponseEntity.ok(apiResponse);
+    // 5b. Stream the full catalog as NDJSON
+    @GetMapping(value = "/export", produces = NDJSON)
+    @Operation(summary = "Export the full catalog as NDJSON",
+            description = "Stream every product as one JSON object per line. Rows are written as they are read "
+                    + "from the database, so memory use does not grow with the catalog size")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @Parameter(description = "Ordering: id, price or createdAt")
+            @RequestParam(defaultValue = "id") String sort) {
+        ExportSort exportSort = ExportSort.from(sort);
+        ObjectWriter writer = objectMapper.writerFor(ProductResponse.class);
+
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream, EXPORT_BUFFER_SIZE);
+            productService.exportProducts(exportSort, product -> {
+                try {
+                    out.write(writer.writeValueAsBytes(product));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
     }
 
     // 6. Return total inventory value
     @GetMapping("/inventory/value")
     @Operation(summary = "Calculate total inventory value",
-            description = "Calculate the total inventory value (sum of price * stock for all products)")
-    public ResponseEntity<RestApiResponse<InventoryValueResponse>> calculateTotalInventoryValue() {
+            description = "Calculate the total inventory value (sum of price * stock for all products) "
+                    + "with per-category and per-brand breakdowns")
+    public ResponseEntity<RestApiResponse<InventoryValueResponse>> calculateTotalInventoryValue(
+            WebRequest webRequest) {
+        String etag = catalogVersion.catalogEtag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         InventoryValueResponse response = productService.calculateTotalInventoryValue();
 
         RestApiResponse<InventoryValueResponse> apiResponse = RestApiResponse.<InventoryValueResponse>builder()
@@ -141,6 +435,60 @@ public class ProductController {
                 .path("/api/v1/products/inventory/value")
                 .build();
 
-        return ResponseEntity.ok(apiResponse);
+        return okWithEtag(etag).body(apiResponse);
+    }
+
+    // 7. Stream catalog changes
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream catalog changes",
+            description = "Server-Sent Events for every committed create, update and stock change, in commit "
+                    + "order. Event ids are <boot id>-<sequence number>: resume with Last-Event-ID (or since) to get "
+                    + "the changes after that one, as long as they are still in the server's buffer. A RESET event "
+                    + "means changes were missed, e.g. across a restart, and the client should re-read the catalog")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream opened"),
+            @ApiResponse(responseCode = "400", description = "Negative sequence number"),
+            @ApiResponse(responseCode = "503", description = "Too many open streams")
+    })
+    public SseEmitter streamChanges(
+            @Parameter(description = "Event id or sequence number to resume after; omit for changes from now on, "
+                    + "0 for all buffered changes")
+            @RequestParam(required = false) String since,
+            @Parameter(hidden = true)
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        // The header is what EventSource sends on reconnect, so it wins over the URL it reconnects to
+        return productChangeStreams.subscribe(lastEventId != null ? lastEventId : since);
+    }
+
+    // Conditional GET: the ETag is the catalog version read above, before any data, so a 304 is answered
+    // without a repository call or serialization. no-cache makes caches revalidate on every use.
+    private static ResponseEntity.BodyBuilder okWithEtag(String etag) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache());
+    }
+
+    // Pre-encoded listings: the bytes go out as they are, gzip-encoded when the client accepts it
+    private ResponseEntity<byte[]> encoded(String etag, EncodedBody body, WebRequest webRequest) {
+        boolean compressed = body.isCompressible() && acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        ResponseEntity.BodyBuilder response = okWithEtag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (compressed) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(responseBodyCache.render(body, compressed));
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                // "gzip;q=0" explicitly refuses it
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
@@ -14,19 +14,34 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "products", uniqueConstraints = {
-        @UniqueConstraint(columnNames = "partNumber", name = "uk_product_part_number")
+        @UniqueConstraint(columnNames = "partNumber", name = Product.PART_NUMBER_CONSTRAINT)
+}, indexes = {
+        // (category, price) also serves category-only lookups, so there is no separate category index
+        @Index(name = "idx_product_category_price", columnList = "category, price"),
+        @Index(name = "idx_product_price", columnList = "price"),
+        @Index(name = "idx_product_created_at_id", columnList = "createdAt, id")
 })
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
 
+    // Creates rely on this constraint to reject duplicate part numbers, see ProductServiceImpl
+    public static final String PART_NUMBER_CONSTRAINT = "uk_product_part_number";
+
+    // Bulk loads that write ids themselves move the sequence past them, see ProductIdSequence
+    public static final String ID_SEQUENCE = "product_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
-    @Column(nullable = false, unique = true, length = 50)
+    // Uniqueness comes from the named table constraint above; unique = true here would add a second, unnamed one
+    @Column(nullable = false, length = 50)
     @NotBlank(message = "Part number is required")
     @Size(min = 3, max = 50, message = "Part number must be between 3 and 50 characters")
     private String partNumber;
@@ -0,0 +1,154 @@
+package com.phasezero.catalog.event;
+
+import com.phasezero.catalog.event.ProductChangedEvent.ChangeType;
+import com.phasezero.catalog.exception.ValidationException;
+import com.phasezero.catalog.mapper.ProductMapper;
+import com.phasezero.catalog.responsedto.ProductChange;
+import com.phasezero.catalog.responsedto.ProductResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The most recent committed product changes, numbered in commit order, for the
+ * {@code /changes} stream.
+ * <p>
+ * Changes go into a fixed-size ring: appending is O(1) under a short lock and never waits for
+ * readers, so a slow consumer cannot hold up writes. Each reader keeps its own position and reads
+ * at its own pace; one that falls more than the ring's capacity behind is told to resynchronize
+ * and continues from the oldest change still held.
+ * <p>
+ * Sequence numbers start over with the process, so the event ids handed to clients carry a
+ * per-process boot id, as {@code CatalogVersion}'s ETags do. A reader resuming from an id of
+ * another process (e.g. from before a restart), or from a sequence number this process never
+ * issued, is told to resynchronize and continues from the latest change.
+ */
+@Component
+public class ProductChangeFeed {
+
+    // Resume position for ids of another process: past any sequence number, so read() resets
+    private static final long FOREIGN_POSITION = Long.MAX_VALUE;
+
+    private final String bootId = Long.toString(UUID.randomUUID().getMostSignificantBits() & Long.MAX_VALUE, 36);
+    private final ProductMapper productMapper;
+    private final ProductChange[] ring;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private long lastSequence;
+
+    public ProductChangeFeed(ProductMapper productMapper,
+                             @Value("${catalog.changes.buffer-size:10000}") int bufferSize) {
+        this.productMapper = productMapper;
+        this.ring = new ProductChange[Math.max(1, bufferSize)];
+    }
+
+    // After the read models, so a consumer that reacts by querying the API sees the change
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onProductChanged(ProductChangedEvent event) {
+        append(event.getType(), productMapper.toResponse(event.getProduct()));
+    }
+
+    public long append(ChangeType type, ProductResponse product) {
+        ProductChange change = ProductChange.builder()
+                .type(type)
+                .product(product)
+                .committedAt(LocalDateTime.now())
+                .build();
+        lock.lock();
+        try {
+            change.setSequence(++lastSequence);
+            ring[(int) (lastSequence % ring.length)] = change;
+            appended.signalAll();
+            return lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long lastSequence() {
+        lock.lock();
+        try {
+            return lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** SSE event id of the change with this sequence number. */
+    public String eventId(long sequence) {
+        return bootId + "-" + sequence;
+    }
+
+    /**
+     * Sequence number to read after for a client's resume position: an event id, or a bare
+     * sequence number of this process (0 for every change still held). An event id from another
+     * process maps to a position that {@link #read} answers with a reset.
+     *
+     * @throws ValidationException if the position is neither
+     */
+    public long resumePosition(String position) {
+        String value = position.trim();
+        int dash = value.lastIndexOf('-');
+        long sequence;
+        try {
+            sequence = Long.parseLong(dash > 0 ? value.substring(dash + 1) : value);
+        } catch (NumberFormatException ex) {
+            throw new ValidationException("Not a change feed position: " + position);
+        }
+        if (sequence < 0) {
+            throw new ValidationException("Sequence number must not be negative");
+        }
+        return dash > 0 && !value.substring(0, dash).equals(bootId) ? FOREIGN_POSITION : sequence;
+    }
+
+    /**
+     * Up to {@code max} changes after sequence number {@code after}, oldest first, waiting up to
+     * {@code timeoutMillis} for one if there is none yet. An empty slice means the wait timed out.
+     */
+    public Slice read(long after, int max, long timeoutMillis) throws InterruptedException {
+        lock.lock();
+        try {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (after == lastSequence && nanos > 0) {
+                nanos = appended.awaitNanos(nanos);
+            }
+
+            long oldest = Math.max(1, lastSequence - ring.length + 1);
+            boolean reset = after > lastSequence || after < oldest - 1;
+            long from = reset ? (after > lastSequence ? lastSequence : oldest - 1) : after;
+
+            int count = (int) Math.min(max, lastSequence - from);
+            List<ProductChange> changes = new ArrayList<>(count);
+            for (long sequence = from + 1; sequence <= from + count; sequence++) {
+                changes.add(ring[(int) (sequence % ring.length)]);
+            }
+            return new Slice(reset, changes, from + count);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Slice {
+        // Changes between the requested position and the first one returned are no longer held
+        private final boolean reset;
+        private final List<ProductChange> changes;
+        // Sequence number to read after next
+        private final long position;
+    }
+}
@@ -0,0 +1,132 @@
+package com.phasezero.catalog.event;
+
+import com.phasezero.catalog.exception.ChangeFeedUnavailableException;
+import com.phasezero.catalog.responsedto.ProductChange;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves {@link ProductChangeFeed} as Server-Sent Events. Each subscriber gets its own sender
+ * task that reads the feed from the subscriber's position and writes to its connection, so a
+ * client that reads slowly only delays itself. Event ids are the feed's boot id and sequence
+ * number, which lets an {@code EventSource} resume with {@code Last-Event-ID} after a reconnect
+ * and get a reset rather than the wrong changes after a restart.
+ * <p>
+ * Sender tasks run on virtual threads when {@code spring.threads.virtual.enabled} is in effect,
+ * on one platform thread each otherwise, hence the cap on concurrent subscribers.
+ */
+@Component
+@Slf4j
+public class ProductChangeStreams {
+
+    static final String RESET_EVENT = "RESET";
+    private static final int MAX_BATCH = 256;
+
+    private final ProductChangeFeed feed;
+    private final int maxSubscribers;
+    private final long heartbeatMillis;
+    private final long timeoutMillis;
+    private final SimpleAsyncTaskExecutor executor;
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    public ProductChangeStreams(ProductChangeFeed feed, Environment environment, MeterRegistry meterRegistry,
+                                @Value("${catalog.changes.max-subscribers:200}") int maxSubscribers,
+                                @Value("${catalog.changes.heartbeat-ms:15000}") long heartbeatMillis,
+                                @Value("${catalog.changes.stream-timeout-ms:1800000}") long timeoutMillis) {
+        this.feed = feed;
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeatMillis = heartbeatMillis;
+        this.timeoutMillis = timeoutMillis;
+        this.executor = new SimpleAsyncTaskExecutor("change-stream-");
+        this.executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+        this.executor.setDaemon(true);
+        Gauge.builder("catalog.changes.subscribers", subscribers, AtomicInteger::get)
+                .description("Open change-feed streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of the changes after {@code after}, an event id or a sequence number (see
+     * {@link ProductChangeFeed#resumePosition}), or of changes from now on when it is null. The
+     * stream ends after {@code stream-timeout-ms}; clients reconnect with the last event id they saw.
+     */
+    public SseEmitter subscribe(String after) {
+        long start = after != null ? feed.resumePosition(after) : feed.lastSequence();
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            throw new ChangeFeedUnavailableException("Too many open change streams, retry later");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        AtomicBoolean open = new AtomicBoolean(true);
+        emitter.onCompletion(() -> open.set(false));
+        emitter.onTimeout(() -> open.set(false));
+        emitter.onError(ex -> open.set(false));
+
+        try {
+            executor.execute(() -> send(emitter, open, start, after));
+        } catch (RuntimeException ex) {
+            subscribers.decrementAndGet();
+            throw ex;
+        }
+        return emitter;
+    }
+
+    private void send(SseEmitter emitter, AtomicBoolean open, long after, String requested) {
+        try {
+            // Commits the response, so the client sees the stream open before the first change or heartbeat
+            emitter.send(SseEmitter.event().comment("open"));
+            long position = after;
+            while (open.get()) {
+                ProductChangeFeed.Slice slice = feed.read(position, MAX_BATCH, heartbeatMillis);
+                if (slice.isReset()) {
+                    // The client missed changes it can no longer get from here; it should re-read the catalog
+                    emitter.send(SseEmitter.event()
+                            .id(feed.eventId(slice.getPosition() - slice.getChanges().size()))
+                            .name(RESET_EVENT)
+                            .data(Map.of("requestedAfter", requested != null ? requested : feed.eventId(position)),
+                                    MediaType.APPLICATION_JSON));
+                }
+                requested = null;
+                if (slice.getChanges().isEmpty() && !slice.isReset()) {
+                    // Keeps proxies from closing an idle connection and finds clients that went away
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+                for (ProductChange change : slice.getChanges()) {
+                    emitter.send(SseEmitter.event()
+                            .id(feed.eventId(change.getSequence()))
+                            .name(change.getType().name())
+                            .data(change, MediaType.APPLICATION_JSON));
+                }
+                position = slice.getPosition();
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // Client disconnected, or the emitter completed or timed out while we were writing
+            log.debug("Change stream closed: {}", ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            emitter.complete();
+        } finally {
+            subscribers.decrementAndGet();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.close();
+    }
+}
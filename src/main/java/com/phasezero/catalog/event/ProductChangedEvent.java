@@ -0,0 +1,43 @@
+package com.phasezero.catalog.event;
+
+import com.phasezero.catalog.entity.Product;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by the service layer whenever a product is written, so that the in-process
+ * read structures (search indexes, aggregates, caches) can follow the database after commit.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        // Only the stock changed, through an atomic adjustment rather than a full update
+        STOCK_ADJUSTED,
+        DELETED
+    }
+
+    private final ChangeType type;
+    private final Product product;
+    // State before the write; only set for UPDATED and STOCK_ADJUSTED so listeners can retract the old values
+    private final Product previous;
+
+    public static ProductChangedEvent created(Product product) {
+        return new ProductChangedEvent(ChangeType.CREATED, product, null);
+    }
+
+    public static ProductChangedEvent updated(Product product, Product previous) {
+        return new ProductChangedEvent(ChangeType.UPDATED, product, previous);
+    }
+
+    public static ProductChangedEvent stockAdjusted(Product product, Product previous) {
+        return new ProductChangedEvent(ChangeType.STOCK_ADJUSTED, product, previous);
+    }
+
+    public static ProductChangedEvent deleted(Product product) {
+        return new ProductChangedEvent(ChangeType.DELETED, product, null);
+    }
+}
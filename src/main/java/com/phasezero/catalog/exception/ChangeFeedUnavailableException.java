@@ -0,0 +1,8 @@
+package com.phasezero.catalog.exception;
+
+public class ChangeFeedUnavailableException extends BaseException {
+
+    public ChangeFeedUnavailableException(String message) {
+        super(message, "CHANGE_FEED_UNAVAILABLE", 503);
+    }
+}
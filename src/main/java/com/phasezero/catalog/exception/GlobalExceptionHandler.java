@@ -10,6 +10,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -98,6 +99,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
+    @ExceptionHandler(BaseException.class)
+    public ResponseEntity<RestApiResponse<Void>> handleBaseException(BaseException ex, WebRequest request) {
+        String path = request.getDescription(false).replace("uri=", "");
+
+        RestApiResponse<Void> response = RestApiResponse.<Void>builder()
+                .status("error")
+                .message(ex.getMessage())
+                .data(null)
+                .path(path)
+                .build();
+
+        return ResponseEntity.status(ex.getStatusCode()).body(response);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<RestApiResponse<Void>> handleRuntimeException(RuntimeException ex, WebRequest request) {
         String path = request.getDescription(false).replace("uri=", "");
@@ -132,6 +147,11 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
 
+    // A streaming client (e.g. of /changes) went away; there is no one left to send an error body to
+    @ExceptionHandler(AsyncRequestNotUsableException.class)
+    public void handleClientDisconnected(AsyncRequestNotUsableException ex) {
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<RestApiResponse<Void>> handleGlobalException(Exception ex, WebRequest request) {
         String path = request.getDescription(false).replace("uri=", "");
@@ -0,0 +1,8 @@
+package com.phasezero.catalog.exception;
+
+public class InsufficientStockException extends BaseException {
+
+    public InsufficientStockException(String message) {
+        super(message, "INSUFFICIENT_STOCK", 409);
+    }
+}
@@ -0,0 +1,159 @@
+package com.phasezero.catalog.index;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings. Bits are set with CAS, so {@link #put} and
+ * {@link #mightContain} are safe to call concurrently without a lock.
+ * <p>
+ * The k probe positions come from double hashing ({@code h1 + i * h2}) of a single 128-bit
+ * MurmurHash3 of the UTF-8 bytes.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final long capacity;
+    private final AtomicLong entries = new AtomicLong();
+
+    private BloomFilter(long capacity, long bitCount, int hashCount) {
+        this.capacity = capacity;
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+        this.words = new AtomicLongArray(Math.toIntExact((bitCount + 63) / 64));
+    }
+
+    /**
+     * Sized for {@code capacity} entries at false-positive probability {@code fpp}:
+     * m = -n ln p / (ln 2)^2 bits and k = m/n ln 2 hash functions.
+     */
+    static BloomFilter create(long capacity, double fpp) {
+        long n = Math.max(1, capacity);
+        long bits = Math.max(64, (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2))));
+        int hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+        return new BloomFilter(n, bits, hashes);
+    }
+
+    void put(String value) {
+        long[] hash = murmur3(value.getBytes(StandardCharsets.UTF_8));
+        long combined = hash[0];
+        for (int i = 0; i < hashCount; i++) {
+            setBit(Long.remainderUnsigned(combined, bitCount));
+            combined += hash[1];
+        }
+        entries.incrementAndGet();
+    }
+
+    boolean mightContain(String value) {
+        long[] hash = murmur3(value.getBytes(StandardCharsets.UTF_8));
+        long combined = hash[0];
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(combined, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+            combined += hash[1];
+        }
+        return true;
+    }
+
+    /** Theoretical false-positive probability at the current number of entries: (1 - e^(-kn/m))^k. */
+    double expectedFpp() {
+        return Math.pow(1 - Math.exp(-hashCount * (double) entries.get() / bitCount), hashCount);
+    }
+
+    long entries() {
+        return entries.get();
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    long sizeInBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    private void setBit(long bit) {
+        int index = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long word;
+        do {
+            word = words.get(index);
+            if ((word & mask) != 0) {
+                return;
+            }
+        } while (!words.compareAndSet(index, word, word | mask));
+    }
+
+    // MurmurHash3 x64 128-bit, seed 0
+    private static long[] murmur3(byte[] data) {
+        final long c1 = 0x87c37b91114253d5L;
+        final long c2 = 0x4cf5ad432745937fL;
+        long h1 = 0;
+        long h2 = 0;
+        int blocks = data.length / 16;
+
+        for (int i = 0; i < blocks; i++) {
+            long k1 = getLong(data, i * 16);
+            long k2 = getLong(data, i * 16 + 8);
+            h1 ^= Long.rotateLeft(k1 * c1, 31) * c2;
+            h1 = (Long.rotateLeft(h1, 27) + h2) * 5 + 0x52dce729;
+            h2 ^= Long.rotateLeft(k2 * c2, 33) * c1;
+            h2 = (Long.rotateLeft(h2, 31) + h1) * 5 + 0x38495ab5;
+        }
+
+        long k1 = 0;
+        long k2 = 0;
+        int tail = blocks * 16;
+        int remaining = data.length & 15;
+        // The last 1-15 bytes, little-endian: the first eight into k1, the rest into k2
+        for (int i = remaining - 1; i >= 0; i--) {
+            long b = data[tail + i] & 0xffL;
+            if (i >= 8) {
+                k2 ^= b << ((i - 8) * 8);
+            } else {
+                k1 ^= b << (i * 8);
+            }
+        }
+        if (remaining > 8) {
+            h2 ^= Long.rotateLeft(k2 * c2, 33) * c1;
+        }
+        if (remaining > 0) {
+            h1 ^= Long.rotateLeft(k1 * c1, 31) * c2;
+        }
+
+        h1 ^= data.length;
+        h2 ^= data.length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        return new long[]{h1, h2};
+    }
+
+    private static long getLong(byte[] data, int offset) {
+        return (data[offset] & 0xffL)
+                | (data[offset + 1] & 0xffL) << 8
+                | (data[offset + 2] & 0xffL) << 16
+                | (data[offset + 3] & 0xffL) << 24
+                | (data[offset + 4] & 0xffL) << 32
+                | (data[offset + 5] & 0xffL) << 40
+                | (data[offset + 6] & 0xffL) << 48
+                | (data[offset + 7] & 0xffL) << 56;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,319 @@
+package com.phasezero.catalog.index;
+
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.event.ProductChangedEvent;
+import com.phasezero.catalog.repository.ProductRepository;
+import com.phasezero.catalog.repository.ProductTextView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over part name, brand and description, ranked with BM25.
+ * <p>
+ * Text is split into lower-cased runs of letters and digits. Each field contributes its tokens
+ * with a weight (name over brand over description), so a term's frequency and a product's
+ * length are field-weighted sums, in the spirit of BM25F. A query is evaluated document at a time
+ * over the posting lists of its terms, which are sorted by id: each matching product is scored
+ * once and offered to a bounded min-heap, so only the top {@code limit} hits are ever held. The
+ * index is built once the application is ready and then follows committed writes through
+ * {@link ProductChangedEvent}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class FullTextIndex {
+
+    static final float NAME_WEIGHT = 2.0f;
+    static final float BRAND_WEIGHT = 1.5f;
+    static final float DESCRIPTION_WEIGHT = 1.0f;
+    // Usual BM25 defaults: term-frequency saturation and length normalization
+    static final float K1 = 1.2f;
+    static final float B = 0.75f;
+
+    private final ProductRepository productRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, TermPostings> postings = new HashMap<>();
+    // Posting lists of each indexed product, so an update or delete knows which ones to leave
+    private final Map<Long, TermPostings[]> documentTerms = new HashMap<>();
+    private double totalLength;
+    // Set while a rebuild reads the table, so that concurrent writes reach the new index too
+    private List<ProductChangedEvent> changedWhileBuilding;
+    private volatile boolean ready;
+
+    /**
+     * Builds the index from the table. Writes applied while the table is read are recorded and
+     * replayed onto the new index before it replaces the old one, so none are lost with it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changedWhileBuilding = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<ProductTextView> rows = null;
+        try {
+            rows = productRepository.findAllSearchText();
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (rows != null) {
+                    postings.clear();
+                    documentTerms.clear();
+                    totalLength = 0;
+                    for (ProductTextView row : rows) {
+                        add(row.getId(), row.getPartName(), row.getBrand(), row.getDescription());
+                    }
+                    // Puts replace and removes ignore unknown ids, so a write the read already saw is a no-op
+                    changedWhileBuilding.forEach(this::apply);
+                    ready = true;
+                }
+                changedWhileBuilding = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        log.info("Full-text index built with {} products and {} terms in {} ms",
+                rows.size(), postings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Ahead of CatalogVersion, so a new search ETag is never issued for the old index
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.ChangeType.STOCK_ADJUSTED) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (changedWhileBuilding != null) {
+                changedWhileBuilding.add(event);
+            }
+            apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Long id, String partName, String brand, String description) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            add(id, partName, brand, description);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the {@code limit} products that score highest for {@code query}, best first; products
+     * need to contain at least one of the query's terms. Ties go to the lower id.
+     */
+    public List<Long> search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+
+        lock.readLock().lock();
+        try {
+            List<TermPostings> lists = new ArrayList<>(terms.size());
+            List<Float> idfs = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                TermPostings list = postings.get(term);
+                if (list != null) {
+                    lists.add(list);
+                    idfs.add(idf(list.size()));
+                }
+            }
+            if (lists.isEmpty()) {
+                return List.of();
+            }
+
+            float averageLength = (float) (totalLength / documentTerms.size());
+            PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, Hit.WORST_FIRST);
+            int[] cursors = new int[lists.size()];
+            while (true) {
+                // Next product in id order across all lists
+                long id = Long.MAX_VALUE;
+                for (int t = 0; t < lists.size(); t++) {
+                    if (cursors[t] < lists.get(t).size()) {
+                        id = Math.min(id, lists.get(t).id(cursors[t]));
+                    }
+                }
+                if (id == Long.MAX_VALUE) {
+                    break;
+                }
+
+                float score = 0;
+                for (int t = 0; t < lists.size(); t++) {
+                    TermPostings list = lists.get(t);
+                    int cursor = cursors[t];
+                    if (cursor < list.size() && list.id(cursor) == id) {
+                        score += idfs.get(t) * saturate(list.frequency(cursor), list.length(cursor), averageLength);
+                        cursors[t] = cursor + 1;
+                    }
+                }
+
+                if (top.size() < limit) {
+                    top.add(new Hit(id, score));
+                } else if (top.peek().worseThan(id, score)) {
+                    top.poll();
+                    top.add(new Hit(id, score));
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(Hit.WORST_FIRST.reversed());
+            List<Long> ids = new ArrayList<>(hits.size());
+            for (Hit hit : hits) {
+                ids.add(hit.id);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(ProductChangedEvent event) {
+        Product product = event.getProduct();
+        if (event.getType() == ProductChangedEvent.ChangeType.DELETED) {
+            remove(product.getId());
+        } else {
+            put(product.getId(), product.getPartName(), product.getBrand(), product.getDescription());
+        }
+    }
+
+    /** Lower-cased runs of letters and digits; single letters are dropped, numbers are kept. */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean inToken = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (inToken && start < 0) {
+                start = i;
+            } else if (!inToken && start >= 0) {
+                String token = text.substring(start, i).toLowerCase(Locale.ROOT);
+                if (token.length() > 1 || Character.isDigit(token.charAt(0))) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private void add(Long id, String partName, String brand, String description) {
+        if (id == null) {
+            return;
+        }
+        Map<String, Float> frequencies = new HashMap<>();
+        float length = addField(frequencies, partName, NAME_WEIGHT)
+                + addField(frequencies, brand, BRAND_WEIGHT)
+                + addField(frequencies, description, DESCRIPTION_WEIGHT);
+
+        TermPostings[] lists = new TermPostings[frequencies.size()];
+        int i = 0;
+        for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+            TermPostings list = postings.computeIfAbsent(entry.getKey(), TermPostings::new);
+            list.put(id, entry.getValue(), length);
+            lists[i++] = list;
+        }
+        documentTerms.put(id, lists);
+        totalLength += length;
+    }
+
+    private void removeLocked(Long id) {
+        TermPostings[] lists = documentTerms.remove(id);
+        if (lists == null) {
+            return;
+        }
+        // Every posting of a product carries its length; take it from the first
+        totalLength -= lists.length > 0 ? lists[0].lengthOf(id) : 0;
+        for (TermPostings list : lists) {
+            list.remove(id);
+            if (list.isEmpty()) {
+                postings.remove(list.term());
+            }
+        }
+    }
+
+    private static float addField(Map<String, Float> frequencies, String text, float weight) {
+        List<String> tokens = tokenize(text);
+        for (String token : tokens) {
+            frequencies.merge(token, weight, Float::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    private float idf(int documentFrequency) {
+        int documents = documentTerms.size();
+        return (float) Math.log(1 + (documents - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private static float saturate(float frequency, float length, float averageLength) {
+        return frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+    }
+
+    private static final class Hit {
+        // Lowest score first; among equal scores the higher id, so ties keep the lower id
+        static final Comparator<Hit> WORST_FIRST = Comparator.<Hit>comparingDouble(hit -> hit.score)
+                .thenComparing(Comparator.<Hit>comparingLong(hit -> hit.id).reversed());
+
+        final long id;
+        final float score;
+
+        Hit(long id, float score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        boolean worseThan(long otherId, float otherScore) {
+            return score < otherScore || score == otherScore && id > otherId;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.phasezero.catalog.index;
+
+import com.phasezero.catalog.event.ProductChangedEvent;
+import com.phasezero.catalog.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Bloom filter over every stored part number, so existence checks for part numbers that are
+ * definitely new never reach the database. A negative answer is exact; a positive one only means
+ * "look it up".
+ * <p>
+ * The filter is built from the repository once the application is ready and sized at twice the
+ * current catalog. Inserts are added as they are written (see {@link #onProductChanged}); when the
+ * catalog outgrows the filter and its expected false-positive rate drifts past twice the target,
+ * it is rebuilt with room to grow. Deleted part numbers stay set until the next rebuild, which
+ * only costs an occasional extra lookup.
+ */
+@Component
+@Slf4j
+public class PartNumberFilter {
+
+    private static final int MIN_CAPACITY = 10_000;
+
+    private final ProductRepository productRepository;
+    private final double targetFpp;
+    private final Counter negatives;
+    private final Counter positives;
+    private final Counter falsePositives;
+
+    private final Object lock = new Object();
+    private volatile BloomFilter filter;
+    // Set while a rebuild reads the table, so that concurrent inserts land in the new filter too
+    private BloomFilter building;
+
+    public PartNumberFilter(ProductRepository productRepository, MeterRegistry meterRegistry,
+                            @Value("${catalog.part-number-filter.fpp:0.01}") double targetFpp) {
+        this.productRepository = productRepository;
+        this.targetFpp = targetFpp;
+        this.negatives = checks(meterRegistry, "negative");
+        this.positives = checks(meterRegistry, "positive");
+        this.falsePositives = checks(meterRegistry, "false_positive");
+
+        Gauge.builder("catalog.part_number_filter.expected_fpp", this, f -> f.current(BloomFilter::expectedFpp))
+                .description("Theoretical false-positive probability at the current number of entries")
+                .register(meterRegistry);
+        Gauge.builder("catalog.part_number_filter.memory", this, f -> f.current(BloomFilter::sizeInBytes))
+                .description("Size of the filter's bit array")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("catalog.part_number_filter.entries", this, f -> f.current(BloomFilter::entries))
+                .description("Part numbers added to the filter")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        long capacity = Math.max(MIN_CAPACITY, productRepository.count() * 2);
+        BloomFilter next = BloomFilter.create(capacity, targetFpp);
+        synchronized (lock) {
+            building = next;
+        }
+
+        List<String> partNumbers = productRepository.findAllPartNumbers();
+        partNumbers.forEach(next::put);
+        synchronized (lock) {
+            filter = next;
+            building = null;
+        }
+
+        log.info("Part number filter built with {} entries ({} KB, capacity {}) in {} ms", partNumbers.size(),
+                next.sizeInBytes() / 1024, capacity, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Runs synchronously when the write is published, before its transaction commits, so there is
+     * no window in which a committed part number is missing from the filter. A rolled-back insert
+     * leaves a stray entry, which is harmless. The one gap is an insert still in flight when a
+     * rebuild starts reading the table; the unique constraint remains the backstop for it.
+     */
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.ChangeType.CREATED) {
+            put(event.getProduct().getPartNumber());
+        }
+    }
+
+    public void put(String partNumber) {
+        synchronized (lock) {
+            if (filter != null) {
+                filter.put(partNumber);
+            }
+            if (building != null) {
+                building.put(partNumber);
+            }
+        }
+    }
+
+    /**
+     * {@code false} means the part number is definitely not stored. Before the filter is built
+     * every part number might exist.
+     */
+    public boolean mightContain(String partNumber) {
+        BloomFilter current = filter;
+        if (current == null) {
+            return true;
+        }
+        if (current.mightContain(partNumber)) {
+            positives.increment();
+            return true;
+        }
+        negatives.increment();
+        return false;
+    }
+
+    /** Reports positives that the database lookup did not confirm, for the observed false-positive rate. */
+    public void recordFalsePositives(long count) {
+        if (count > 0) {
+            falsePositives.increment(count);
+        }
+    }
+
+    public boolean isReady() {
+        return filter != null;
+    }
+
+    @Scheduled(initialDelayString = "${catalog.part-number-filter.check-interval-ms:60000}",
+            fixedDelayString = "${catalog.part-number-filter.check-interval-ms:60000}")
+    public void resizeIfSaturated() {
+        BloomFilter current = filter;
+        if (current != null && current.entries() > current.capacity()
+                && current.expectedFpp() > 2 * targetFpp) {
+            log.info("Part number filter holds {} entries for a capacity of {}, rebuilding",
+                    current.entries(), current.capacity());
+            rebuild();
+        }
+    }
+
+    private double current(ToDoubleFunction<BloomFilter> metric) {
+        BloomFilter current = filter;
+        return current != null ? metric.applyAsDouble(current) : 0;
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("catalog.part_number_filter.checks")
+                .tag("result", result)
+                .description("Part number existence checks answered by the filter")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,232 @@
+package com.phasezero.catalog.index;
+
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.event.ProductChangedEvent;
+import com.phasezero.catalog.repository.ProductFacetView;
+import com.phasezero.catalog.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Products ordered by (price, id), overall and per category, for price-range and cheapest-first
+ * listings without scanning the table. A range query seeks to its lower bound and walks forward,
+ * so it costs O(log n + k) for k results whatever the size of the range.
+ * <p>
+ * The sets are concurrent skip lists: reads take no lock, and writes (serialized among
+ * themselves) replace a product's key when its price or category changes. The index is built
+ * once the application is ready and then follows committed writes through
+ * {@link ProductChangedEvent}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class PriceIndex {
+
+    private static final BigDecimal MAX_PRICE = BigDecimal.valueOf(Long.MAX_VALUE, 2);
+
+    private final ProductRepository productRepository;
+
+    private final Object rebuildLock = new Object();
+    private volatile State state = new State();
+    // Set while a rebuild reads the table, so that concurrent writes reach the new sets too
+    private List<ProductChangedEvent> changedWhileBuilding;
+    private volatile boolean ready;
+
+    /**
+     * Builds the sets from the table. Writes applied while the table is read are recorded and
+     * replayed onto the new sets before they replace the old ones, so none are lost with them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        // Writes synchronize on this index, so rebuilds take their own lock to leave them running
+        synchronized (rebuildLock) {
+            long start = System.nanoTime();
+            synchronized (this) {
+                changedWhileBuilding = new ArrayList<>();
+            }
+
+            List<ProductFacetView> rows = null;
+            State next = new State();
+            try {
+                rows = productRepository.findAllFacetFields();
+                for (ProductFacetView row : rows) {
+                    next.put(row.getId(), row.getCategory(), row.getPrice());
+                }
+            } finally {
+                synchronized (this) {
+                    if (rows != null) {
+                        for (ProductChangedEvent event : changedWhileBuilding) {
+                            apply(next, event);
+                        }
+                        state = next;
+                        ready = true;
+                    }
+                    changedWhileBuilding = null;
+                }
+            }
+            log.info("Price index built with {} products in {} ms", next.entries.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    // Ahead of CatalogVersion, so a new listing ETag is never issued for the old order
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.ChangeType.STOCK_ADJUSTED) {
+            return;
+        }
+        if (changedWhileBuilding != null) {
+            changedWhileBuilding.add(event);
+        }
+        apply(state, event);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Ids of up to {@code limit} products priced within {@code [minPrice, maxPrice]} (either bound
+     * may be null), optionally in one category, in (price, id) order and starting after the position
+     * {@code (afterPrice, afterId)} when one is given.
+     */
+    public List<Long> range(BigDecimal minPrice, BigDecimal maxPrice, String category,
+                            BigDecimal afterPrice, Long afterId, int limit) {
+        NavigableSet<Key> set = category == null ? state.all : state.byCategory.get(category);
+        if (set == null) {
+            return List.of();
+        }
+
+        Key lower = new Key(minPrice == null ? Long.MIN_VALUE : cents(minPrice, RoundingMode.CEILING), Long.MIN_VALUE);
+        boolean lowerInclusive = true;
+        if (afterPrice != null && afterId != null) {
+            Key after = new Key(cents(afterPrice, RoundingMode.HALF_UP), afterId);
+            if (after.compareTo(lower) >= 0) {
+                lower = after;
+                lowerInclusive = false;
+            }
+        }
+        Key upper = new Key(maxPrice == null ? Long.MAX_VALUE : cents(maxPrice, RoundingMode.FLOOR), Long.MAX_VALUE);
+        if (lower.compareTo(upper) > 0) {
+            return List.of();
+        }
+
+        List<Long> ids = new ArrayList<>(Math.min(limit, 1024));
+        Iterator<Key> keys = set.subSet(lower, lowerInclusive, upper, true).iterator();
+        while (ids.size() < limit && keys.hasNext()) {
+            ids.add(keys.next().id);
+        }
+        return ids;
+    }
+
+    public int size() {
+        return state.entries.size();
+    }
+
+    // Puts and removes by id, so replaying a write the sets already hold leaves them as they were
+    private static void apply(State target, ProductChangedEvent event) {
+        Product product = event.getProduct();
+        if (event.getType() == ProductChangedEvent.ChangeType.DELETED) {
+            target.remove(product.getId());
+        } else {
+            target.put(product.getId(), product.getCategory(), product.getPrice());
+        }
+    }
+
+    // Prices at or above this do not fit in a long of cents; they sort after every stored price
+    private static long cents(BigDecimal price, RoundingMode rounding) {
+        if (price.compareTo(MAX_PRICE) >= 0) {
+            return Long.MAX_VALUE;
+        }
+        return price.setScale(2, rounding).unscaledValue().longValue();
+    }
+
+    private static final class State {
+        final NavigableSet<Key> all = new ConcurrentSkipListSet<>();
+        final Map<String, NavigableSet<Key>> byCategory = new ConcurrentHashMap<>();
+        // Current key and category per product, to find what to remove on update and delete
+        final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+        void put(Long id, String category, BigDecimal price) {
+            if (id == null || price == null) {
+                return;
+            }
+            Entry previous = entries.get(id);
+            Key key = new Key(cents(price, RoundingMode.HALF_UP), id);
+            if (previous != null && previous.key.equals(key) && Objects.equals(previous.category, category)) {
+                return;
+            }
+            remove(id);
+            entries.put(id, new Entry(key, category));
+            all.add(key);
+            if (category != null) {
+                byCategory.computeIfAbsent(category, c -> new ConcurrentSkipListSet<>()).add(key);
+            }
+        }
+
+        void remove(Long id) {
+            Entry previous = entries.remove(id);
+            if (previous == null) {
+                return;
+            }
+            all.remove(previous.key);
+            NavigableSet<Key> category = previous.category != null ? byCategory.get(previous.category) : null;
+            if (category != null) {
+                category.remove(previous.key);
+            }
+        }
+    }
+
+    private static final class Entry {
+        final Key key;
+        final String category;
+
+        Entry(Key key, String category) {
+            this.key = key;
+            this.category = category;
+        }
+    }
+
+    private static final class Key implements Comparable<Key> {
+        final long cents;
+        final long id;
+
+        Key(long cents, long id) {
+            this.cents = cents;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int byPrice = Long.compare(cents, other.cents);
+            return byPrice != 0 ? byPrice : Long.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && cents == other.cents && id == other.id;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(cents) * 31 + Long.hashCode(id);
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.phasezero.catalog.index;
+
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.event.ProductChangedEvent;
+import com.phasezero.catalog.repository.ProductFacetView;
+import com.phasezero.catalog.repository.ProductRepository;
+import com.phasezero.catalog.requestdto.PriceRange;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Column arrays of (id, category, brand, price) for every product, so faceted search can count
+ * categories, brands and price ranges in a single pass over the matches without a query per facet.
+ * <p>
+ * Categories and brands are stored as dictionary ordinals and prices as cents; rows are kept in id
+ * order, so the matches come out already sorted for paging. Deleted rows are tombstoned and
+ * compacted away once they make up a quarter of the arrays. The index is built once the
+ * application is ready and then follows committed writes through {@link ProductChangedEvent}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ProductFacetIndex {
+
+    public static final String UNBRANDED = "Unbranded";
+
+    private final ProductRepository productRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Columns columns = new Columns(16);
+    // Set while a rebuild reads the table, so that concurrent writes reach the new columns too
+    private List<ProductChangedEvent> changedWhileBuilding;
+    private volatile boolean ready;
+
+    /**
+     * Builds the columns from the table. Writes applied while the table is read are recorded and
+     * replayed onto the new columns before they replace the old ones, so none are lost with them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changedWhileBuilding = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Columns next = null;
+        try {
+            next = Columns.of(productRepository.findAllFacetFields());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (next != null) {
+                    for (ProductChangedEvent event : changedWhileBuilding) {
+                        apply(next, event);
+                    }
+                    columns = next;
+                    ready = true;
+                }
+                changedWhileBuilding = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Product facet index built with {} products in {} ms",
+                next.size, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Ahead of CatalogVersion, so a new search ETag is never issued for the old counts
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.ChangeType.STOCK_ADJUSTED) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (changedWhileBuilding != null) {
+                changedWhileBuilding.add(event);
+            }
+            apply(columns, event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Counts facets over the products in {@code candidates} (every product when null; ascending ids
+     * otherwise) and returns the ids of the matches in {@code [offset, offset + limit)}.
+     * <p>
+     * A product matches when it is in {@code category} and {@code brand} (null for any). Category
+     * counts ignore the category filter and brand counts ignore the brand filter, so the UI can show
+     * the alternatives to the current selection; price ranges are counted over the matches.
+     */
+    public FacetCounts count(List<Long> candidates, String category, String brand, List<PriceRange> priceRanges,
+                             int offset, int limit) {
+        if (!ready) {
+            // Not built yet: count over a throwaway copy of the table rather than fail the request
+            return Columns.of(productRepository.findAllFacetFields())
+                    .count(candidates, category, brand, priceRanges, offset, limit);
+        }
+        lock.readLock().lock();
+        try {
+            return columns.count(candidates, category, brand, priceRanges, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Puts and removes by id, so replaying a write the columns already hold leaves them as they were
+    private static void apply(Columns target, ProductChangedEvent event) {
+        Product product = event.getProduct();
+        if (event.getType() == ProductChangedEvent.ChangeType.DELETED) {
+            target.remove(product.getId());
+        } else {
+            target.put(product.getId(), product.getCategory(), product.getBrand(), product.getPrice());
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class FacetCounts {
+        private final List<Long> pageIds;
+        private final long totalMatches;
+        private final Map<String, Long> categories;
+        private final Map<String, Long> brands;
+        private final long[] priceRangeCounts;
+    }
+
+    static final class Columns {
+        private static final int DELETED = -1;
+        private static final int ANY = -1;
+        private static final int NONE = -2;
+
+        private long[] ids;
+        private int[] categories;
+        private int[] brands;
+        private long[] prices;
+        private int size;
+        private int deleted;
+        private final Dictionary categoryNames = new Dictionary();
+        private final Dictionary brandNames = new Dictionary();
+
+        Columns(int capacity) {
+            ids = new long[capacity];
+            categories = new int[capacity];
+            brands = new int[capacity];
+            prices = new long[capacity];
+        }
+
+        static Columns of(List<ProductFacetView> rows) {
+            Columns columns = new Columns(Math.max(16, rows.size() + rows.size() / 8));
+            for (ProductFacetView row : rows) {
+                columns.put(row.getId(), row.getCategory(), row.getBrand(), row.getPrice());
+            }
+            return columns;
+        }
+
+        void put(Long id, String category, String brand, BigDecimal price) {
+            if (id == null) {
+                return;
+            }
+            int slot = Arrays.binarySearch(ids, 0, size, id);
+            if (slot < 0) {
+                // Ids come from a sequence, so this is an append unless commits landed out of order
+                slot = -slot - 1;
+                insertAt(slot, id);
+            } else if (categories[slot] == DELETED) {
+                deleted--;
+            }
+            categories[slot] = categoryNames.ordinal(category);
+            brands[slot] = brandNames.ordinal(brand != null ? brand : UNBRANDED);
+            prices[slot] = cents(price);
+        }
+
+        void remove(Long id) {
+            int slot = id == null ? -1 : Arrays.binarySearch(ids, 0, size, id);
+            if (slot < 0 || categories[slot] == DELETED) {
+                return;
+            }
+            categories[slot] = DELETED;
+            deleted++;
+            if (deleted > 1024 && deleted * 4 > size) {
+                compact();
+            }
+        }
+
+        FacetCounts count(List<Long> candidates, String category, String brand, List<PriceRange> priceRanges,
+                          int offset, int limit) {
+            int categoryFilter = category == null ? ANY : categoryNames.find(category);
+            int brandFilter = brand == null ? ANY : brandNames.find(brand);
+            long[] from = new long[priceRanges.size()];
+            long[] to = new long[priceRanges.size()];
+            for (int r = 0; r < from.length; r++) {
+                PriceRange range = priceRanges.get(r);
+                from[r] = range.getFrom() != null ? cents(range.getFrom()) : Long.MIN_VALUE;
+                to[r] = range.getTo() != null ? cents(range.getTo()) : Long.MAX_VALUE;
+            }
+
+            long[] categoryCounts = new long[categoryNames.size()];
+            long[] brandCounts = new long[brandNames.size()];
+            long[] rangeCounts = new long[from.length];
+            List<Long> page = new ArrayList<>(Math.min(limit, 1024));
+            long matches = 0;
+
+            int n = candidates == null ? size : candidates.size();
+            for (int i = 0; i < n; i++) {
+                int slot = candidates == null ? i : Arrays.binarySearch(ids, 0, size, candidates.get(i));
+                if (slot < 0 || categories[slot] == DELETED) {
+                    continue;
+                }
+                int c = categories[slot];
+                int b = brands[slot];
+                boolean inCategory = categoryFilter == ANY || c == categoryFilter;
+                boolean inBrand = brandFilter == ANY || b == brandFilter;
+                if (inBrand) {
+                    categoryCounts[c]++;
+                }
+                if (inCategory) {
+                    brandCounts[b]++;
+                }
+                if (inCategory && inBrand) {
+                    if (matches >= offset && page.size() < limit) {
+                        page.add(ids[slot]);
+                    }
+                    matches++;
+                    long price = prices[slot];
+                    for (int r = 0; r < from.length; r++) {
+                        if (price >= from[r] && price < to[r]) {
+                            rangeCounts[r]++;
+                        }
+                    }
+                }
+            }
+
+            return new FacetCounts(page, matches, categoryNames.toCounts(categoryCounts),
+                    brandNames.toCounts(brandCounts), rangeCounts);
+        }
+
+        private void insertAt(int slot, long id) {
+            if (size == ids.length) {
+                int capacity = ids.length + (ids.length >> 1);
+                ids = Arrays.copyOf(ids, capacity);
+                categories = Arrays.copyOf(categories, capacity);
+                brands = Arrays.copyOf(brands, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+            }
+            int tail = size - slot;
+            if (tail > 0) {
+                System.arraycopy(ids, slot, ids, slot + 1, tail);
+                System.arraycopy(categories, slot, categories, slot + 1, tail);
+                System.arraycopy(brands, slot, brands, slot + 1, tail);
+                System.arraycopy(prices, slot, prices, slot + 1, tail);
+            }
+            ids[slot] = id;
+            size++;
+        }
+
+        private void compact() {
+            int live = 0;
+            for (int i = 0; i < size; i++) {
+                if (categories[i] != DELETED) {
+                    ids[live] = ids[i];
+                    categories[live] = categories[i];
+                    brands[live] = brands[i];
+                    prices[live] = prices[i];
+                    live++;
+                }
+            }
+            size = live;
+            deleted = 0;
+        }
+
+        private static long cents(BigDecimal price) {
+            return price == null ? 0 : price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+        }
+    }
+
+    // String <-> ordinal; ordinals are never reused, a value that disappears just counts zero
+    private static final class Dictionary {
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> ordinals = new HashMap<>();
+
+        int ordinal(String value) {
+            return ordinals.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+
+        int find(String value) {
+            Integer ordinal = ordinals.get(value);
+            return ordinal != null ? ordinal : Columns.NONE;
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        Map<String, Long> toCounts(long[] counts) {
+            List<Integer> present = new ArrayList<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    present.add(i);
+                }
+            }
+            present.sort(Comparator.<Integer>comparingLong(i -> counts[i]).reversed().thenComparing(values::get));
+
+            Map<String, Long> result = new LinkedHashMap<>();
+            for (int i : present) {
+                result.put(values.get(i), counts[i]);
+            }
+            return result;
+        }
+    }
+}
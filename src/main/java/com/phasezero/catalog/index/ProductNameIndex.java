@@ -0,0 +1,252 @@
+package com.phasezero.catalog.index;
+
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.event.ProductChangedEvent;
+import com.phasezero.catalog.repository.ProductNameView;
+import com.phasezero.catalog.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram inverted index over {@link Product#getPartName()}.
+ * <p>
+ * Substring queries are answered by intersecting the posting lists of the query's trigrams
+ * and verifying the surviving candidates against the stored name, instead of running a
+ * {@code like '%x%'} scan over the products table. The index is built from the repository
+ * once the application is ready and then follows committed writes through
+ * {@link ProductChangedEvent}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ProductNameIndex {
+
+    static final int GRAM_SIZE = 3;
+
+    private final ProductRepository productRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String> names = new HashMap<>();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    // Set while a rebuild reads the table, so that concurrent writes reach the new index too
+    private List<ProductChangedEvent> changedWhileBuilding;
+    private volatile boolean ready;
+
+    /**
+     * Builds the index from the table. Writes applied while the table is read are recorded and
+     * replayed onto the new index before it replaces the old one, so none are lost with it;
+     * replaying a write the read already saw leaves the index as it was.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changedWhileBuilding = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<ProductNameView> rows = null;
+        try {
+            rows = productRepository.findAllNames();
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (rows != null) {
+                    names.clear();
+                    postings.clear();
+                    for (ProductNameView row : rows) {
+                        add(row.getId(), row.getPartName());
+                    }
+                    changedWhileBuilding.forEach(this::apply);
+                    ready = true;
+                }
+                changedWhileBuilding = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        log.info("Product name index built with {} products and {} trigrams in {} ms",
+                rows.size(), postings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Ahead of CatalogVersion, so a new search ETag is never issued for the old index
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onProductChanged(ProductChangedEvent event) {
+        // Stock is not indexed; skip the lock on the hot path of stock adjustments
+        if (event.getType() == ProductChangedEvent.ChangeType.STOCK_ADJUSTED) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (changedWhileBuilding != null) {
+                changedWhileBuilding.add(event);
+            }
+            apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Long id, String partName) {
+        lock.writeLock().lock();
+        try {
+            String previous = names.get(id);
+            if (previous != null) {
+                if (previous.equals(normalize(partName))) {
+                    return;
+                }
+                removeLocked(id, previous);
+            }
+            add(id, partName);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            String previous = names.get(id);
+            if (previous != null) {
+                removeLocked(id, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of all products whose name contains {@code term} (case-insensitive),
+     * in ascending id order.
+     */
+    public List<Long> search(String term) {
+        String needle = normalize(term);
+
+        lock.readLock().lock();
+        try {
+            if (needle.length() < GRAM_SIZE) {
+                return scan(needle);
+            }
+
+            List<PostingList> lists = new ArrayList<>();
+            for (String gram : grams(needle)) {
+                PostingList list = postings.get(gram);
+                if (list == null) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(PostingList::size));
+
+            PostingList smallest = lists.get(0);
+            List<Long> matches = new ArrayList<>();
+            for (int i = 0; i < smallest.size(); i++) {
+                long id = smallest.get(i);
+                if (inAll(lists, id) && names.get(id).contains(needle)) {
+                    matches.add(id);
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(ProductChangedEvent event) {
+        Product product = event.getProduct();
+        if (event.getType() == ProductChangedEvent.ChangeType.DELETED) {
+            remove(product.getId());
+        } else {
+            put(product.getId(), product.getPartName());
+        }
+    }
+
+    private void add(Long id, String partName) {
+        if (id == null || partName == null) {
+            return;
+        }
+        String name = normalize(partName);
+        names.put(id, name);
+        for (String gram : grams(name)) {
+            postings.computeIfAbsent(gram, g -> new PostingList()).add(id);
+        }
+    }
+
+    private void removeLocked(Long id, String name) {
+        names.remove(id);
+        for (String gram : grams(name)) {
+            PostingList list = postings.get(gram);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private List<Long> scan(String needle) {
+        List<Long> matches = new ArrayList<>();
+        for (Map.Entry<Long, String> entry : names.entrySet()) {
+            if (entry.getValue().contains(needle)) {
+                matches.add(entry.getKey());
+            }
+        }
+        matches.sort(Comparator.naturalOrder());
+        return matches;
+    }
+
+    private static boolean inAll(List<PostingList> lists, long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> grams(String name) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= name.length(); i++) {
+            grams.add(name.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,407 @@
+package com.phasezero.catalog.index;
+
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.event.ProductChangedEvent;
+import com.phasezero.catalog.repository.ProductRepository;
+import com.phasezero.catalog.repository.ProductSuggestionView;
+import com.phasezero.catalog.responsedto.SuggestionResponse;
+import com.phasezero.catalog.responsedto.SuggestionResponse.Field;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Case-insensitive prefix lookup over every part number and part name, for autocomplete.
+ * <p>
+ * Values are held in one array sorted case-insensitively, so a prefix is a contiguous run found
+ * with a binary search and the first {@code limit} distinct values are read off in order:
+ * O(log n + limit) per keystroke. Parallel arrays hold only the value (the same string the row
+ * was read with), the product id and which field it came from; there are no per-character nodes
+ * as in a trie. Writes go to a small sorted overlay and removals to a bitmap, both merged into
+ * the array once they grow past a fraction of it. The index is built once the application is
+ * ready and then follows committed writes through {@link ProductChangedEvent}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SuggestionIndex {
+
+    private final ProductRepository productRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Entries entries = new Entries(0);
+    // Set while a rebuild reads the table, so that concurrent writes reach the new entries too
+    private List<ProductChangedEvent> changedWhileBuilding;
+    private volatile boolean ready;
+
+    /**
+     * Builds the entries from the table. Writes applied while the table is read are recorded and
+     * replayed, in order, onto the new entries before they replace the old ones, so none are lost
+     * with them; entries are a set, so a replayed write the read already saw changes nothing.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changedWhileBuilding = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Entries next = null;
+        try {
+            next = Entries.of(productRepository.findAllSuggestionFields());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (next != null) {
+                    for (ProductChangedEvent event : changedWhileBuilding) {
+                        apply(next, event);
+                    }
+                    entries = next;
+                    ready = true;
+                }
+                changedWhileBuilding = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Suggestion index built with {} values in {} ms", next.size, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Ahead of CatalogVersion, so a new suggestion ETag is never issued for the old values
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.ChangeType.STOCK_ADJUSTED) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (changedWhileBuilding != null) {
+                changedWhileBuilding.add(event);
+            }
+            apply(entries, event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Long id, String partNumber, String partName) {
+        lock.writeLock().lock();
+        try {
+            entries.put(id, partNumber, partName);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size + entries.pending.size() - entries.removedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} distinct part numbers and names starting with {@code prefix}, ignoring
+     * case and runs of whitespace, in alphabetical order.
+     */
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        String start = clean(prefix, true);
+        if (start.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return entries.suggest(start, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Same as {@link #suggest(String, int)}, over the given rows only; for use before the index is built. */
+    public static List<SuggestionResponse> suggest(List<ProductSuggestionView> rows, String prefix, int limit) {
+        String start = clean(prefix, true);
+        return start.isEmpty() ? List.of() : Entries.of(rows).suggest(start, limit);
+    }
+
+    private static void apply(Entries target, ProductChangedEvent event) {
+        Product product = event.getProduct();
+        if (event.getType() == ProductChangedEvent.ChangeType.DELETED) {
+            target.remove(product.getId(), product.getPartNumber(), product.getPartName());
+            return;
+        }
+        Product previous = event.getPrevious();
+        if (previous != null) {
+            target.remove(product.getId(), previous.getPartNumber(), previous.getPartName());
+        }
+        target.put(product.getId(), product.getPartNumber(), product.getPartName());
+    }
+
+    // Runs of whitespace become one space; leading whitespace is dropped, trailing only when asked
+    static String clean(String text, boolean keepTrailingSpace) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder cleaned = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = cleaned.length() > 0;
+            } else {
+                if (space) {
+                    cleaned.append(' ');
+                    space = false;
+                }
+                cleaned.append(c);
+            }
+        }
+        if (space && keepTrailingSpace) {
+            cleaned.append(' ');
+        }
+        // Keep the caller's instance when nothing changed, so the index shares the row's string
+        String result = cleaned.toString();
+        return result.equals(text) ? text : result;
+    }
+
+    private static boolean startsWith(String text, String prefix) {
+        return text.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    static final class Entries {
+        private static final byte PART_NUMBER = 0;
+        private static final byte PART_NAME = 1;
+        private static final Field[] FIELDS = {Field.PART_NUMBER, Field.PART_NAME};
+        private static final int MIN_MERGE_THRESHOLD = 1024;
+
+        // Sorted by (value ignoring case, field, id)
+        private String[] texts;
+        private byte[] fields;
+        private long[] ids;
+        private int size;
+        private final BitSet removed = new BitSet();
+        private int removedCount;
+        // Values written since the last merge, in the same order
+        private final TreeSet<Entry> pending = new TreeSet<>();
+
+        Entries(int capacity) {
+            texts = new String[capacity];
+            fields = new byte[capacity];
+            ids = new long[capacity];
+        }
+
+        static Entries of(List<ProductSuggestionView> rows) {
+            List<Entry> all = new ArrayList<>(rows.size() * 2);
+            // Products often share a name; keep one copy of each
+            Map<String, String> names = new HashMap<>();
+            for (ProductSuggestionView row : rows) {
+                if (row.getId() == null) {
+                    continue;
+                }
+                String partNumber = clean(row.getPartNumber(), false);
+                String partName = clean(row.getPartName(), false);
+                if (!partNumber.isEmpty()) {
+                    all.add(new Entry(partNumber, PART_NUMBER, row.getId()));
+                }
+                if (!partName.isEmpty()) {
+                    all.add(new Entry(names.computeIfAbsent(partName, n -> n), PART_NAME, row.getId()));
+                }
+            }
+            all.sort(null);
+
+            Entries entries = new Entries(all.size());
+            for (Entry entry : all) {
+                entries.texts[entries.size] = entry.text;
+                entries.fields[entries.size] = entry.field;
+                entries.ids[entries.size++] = entry.id;
+            }
+            return entries;
+        }
+
+        void put(Long id, String partNumber, String partName) {
+            if (id == null) {
+                return;
+            }
+            put(new Entry(clean(partNumber, false), PART_NUMBER, id));
+            put(new Entry(clean(partName, false), PART_NAME, id));
+            mergeIfNeeded();
+        }
+
+        void remove(Long id, String partNumber, String partName) {
+            if (id == null) {
+                return;
+            }
+            remove(new Entry(clean(partNumber, false), PART_NUMBER, id));
+            remove(new Entry(clean(partName, false), PART_NAME, id));
+            mergeIfNeeded();
+        }
+
+        List<SuggestionResponse> suggest(String prefix, int limit) {
+            List<SuggestionResponse> suggestions = new ArrayList<>(Math.min(limit, 64));
+            int slot = lowerBound(new Entry(prefix, PART_NUMBER, Long.MIN_VALUE));
+            Iterator<Entry> overlay = pending.tailSet(new Entry(prefix, PART_NUMBER, Long.MIN_VALUE)).iterator();
+            Entry next = overlay.hasNext() ? overlay.next() : null;
+
+            while (suggestions.size() < limit) {
+                while (slot < size && removed.get(slot)) {
+                    slot++;
+                }
+                boolean fromArray = slot < size && startsWith(texts[slot], prefix);
+                boolean fromOverlay = next != null && startsWith(next.text, prefix);
+                if (!fromArray && !fromOverlay) {
+                    break;
+                }
+                Entry best = fromArray ? new Entry(texts[slot], fields[slot], ids[slot]) : next;
+                if (fromArray && fromOverlay && next.compareTo(best) < 0) {
+                    best = next;
+                }
+                suggestions.add(SuggestionResponse.builder()
+                        .text(best.text)
+                        .field(FIELDS[best.field])
+                        .productId(best.id)
+                        .build());
+
+                // Skip the other products with the same value in this field; the lowest id was taken
+                Entry last = new Entry(best.text, best.field, Long.MAX_VALUE);
+                slot = Math.max(slot, lowerBound(last));
+                overlay = pending.tailSet(last, false).iterator();
+                next = overlay.hasNext() ? overlay.next() : null;
+            }
+            return suggestions;
+        }
+
+        private void put(Entry entry) {
+            if (entry.text.isEmpty()) {
+                return;
+            }
+            int slot = find(entry);
+            if (slot < 0) {
+                pending.add(entry);
+            } else if (removed.get(slot)) {
+                removed.clear(slot);
+                removedCount--;
+            }
+        }
+
+        private void remove(Entry entry) {
+            if (entry.text.isEmpty() || pending.remove(entry)) {
+                return;
+            }
+            int slot = find(entry);
+            if (slot >= 0 && !removed.get(slot)) {
+                removed.set(slot);
+                removedCount++;
+            }
+        }
+
+        private void mergeIfNeeded() {
+            int threshold = Math.max(MIN_MERGE_THRESHOLD, size / 8);
+            if (pending.size() <= threshold && removedCount <= threshold) {
+                return;
+            }
+            int capacity = size - removedCount + pending.size();
+            String[] mergedTexts = new String[capacity];
+            byte[] mergedFields = new byte[capacity];
+            long[] mergedIds = new long[capacity];
+            int n = 0;
+            int slot = 0;
+            Iterator<Entry> overlay = pending.iterator();
+            Entry next = overlay.hasNext() ? overlay.next() : null;
+            while (slot < size || next != null) {
+                if (slot < size && removed.get(slot)) {
+                    slot++;
+                } else if (next == null || slot < size && compare(slot, next) < 0) {
+                    mergedTexts[n] = texts[slot];
+                    mergedFields[n] = fields[slot];
+                    mergedIds[n++] = ids[slot++];
+                } else {
+                    mergedTexts[n] = next.text;
+                    mergedFields[n] = next.field;
+                    mergedIds[n++] = next.id;
+                    next = overlay.hasNext() ? overlay.next() : null;
+                }
+            }
+            texts = mergedTexts;
+            fields = mergedFields;
+            ids = mergedIds;
+            size = n;
+            removed.clear();
+            removedCount = 0;
+            pending.clear();
+        }
+
+        // Position of the first array entry at or after the given one
+        private int lowerBound(Entry entry) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compare(mid, entry) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int find(Entry entry) {
+            int slot = lowerBound(entry);
+            return slot < size && compare(slot, entry) == 0 ? slot : -1;
+        }
+
+        private int compare(int slot, Entry entry) {
+            int byText = String.CASE_INSENSITIVE_ORDER.compare(texts[slot], entry.text);
+            if (byText != 0) {
+                return byText;
+            }
+            int byField = Byte.compare(fields[slot], entry.field);
+            return byField != 0 ? byField : Long.compare(ids[slot], entry.id);
+        }
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+        final String text;
+        final byte field;
+        final long id;
+
+        Entry(String text, byte field, long id) {
+            this.text = text;
+            this.field = field;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byText = String.CASE_INSENSITIVE_ORDER.compare(text, other.text);
+            if (byText != 0) {
+                return byText;
+            }
+            int byField = Byte.compare(field, other.field);
+            return byField != 0 ? byField : Long.compare(id, other.id);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.phasezero.catalog.index;
+
+import java.util.Arrays;
+
+/**
+ * Sorted, growable list of the product ids containing one term, with the term's (field-weighted)
+ * frequency in each product and that product's length, so scoring needs no per-product lookup.
+ * Like {@link PostingList}, inserts are almost always appends and lookups are binary searches.
+ */
+class TermPostings {
+
+    private final String term;
+    private long[] ids = new long[4];
+    private float[] frequencies = new float[4];
+    private float[] lengths = new float[4];
+    private int size;
+
+    TermPostings(String term) {
+        this.term = term;
+    }
+
+    void put(long id, float frequency, float length) {
+        int pos = size == 0 || id > ids[size - 1] ? -size - 1 : Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) {
+            frequencies[pos] = frequency;
+            lengths[pos] = length;
+            return;
+        }
+        int insertAt = -pos - 1;
+        ensureCapacity();
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        System.arraycopy(frequencies, insertAt, frequencies, insertAt + 1, size - insertAt);
+        System.arraycopy(lengths, insertAt, lengths, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        frequencies[insertAt] = frequency;
+        lengths[insertAt] = length;
+        size++;
+    }
+
+    void remove(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) {
+            return;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        System.arraycopy(frequencies, pos + 1, frequencies, pos, size - pos - 1);
+        System.arraycopy(lengths, pos + 1, lengths, pos, size - pos - 1);
+        size--;
+    }
+
+    String term() {
+        return term;
+    }
+
+    float lengthOf(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        return pos >= 0 ? lengths[pos] : 0;
+    }
+
+    float length(int index) {
+        return lengths[index];
+    }
+
+    long id(int index) {
+        return ids[index];
+    }
+
+    float frequency(int index) {
+        return frequencies[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void ensureCapacity() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+            frequencies = Arrays.copyOf(frequencies, frequencies.length * 2);
+            lengths = Arrays.copyOf(lengths, lengths.length * 2);
+        }
+    }
+}
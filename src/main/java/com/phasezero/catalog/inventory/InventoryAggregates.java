@@ -0,0 +1,334 @@
+package com.phasezero.catalog.inventory;
+
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.event.ProductChangedEvent;
+import com.phasezero.catalog.repository.InventoryGroupView;
+import com.phasezero.catalog.repository.ProductRepository;
+import com.phasezero.catalog.responsedto.InventoryBreakdown;
+import com.phasezero.catalog.responsedto.InventoryValueResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Inventory value totals with per-category and per-brand breakdowns, maintained incrementally
+ * from {@link ProductChangedEvent}s so that reads never aggregate over the products table.
+ * <p>
+ * The aggregates are seeded from SQL once the application is ready and periodically reconciled
+ * against the same SQL aggregates; any drift is logged, counted and corrected.
+ * <p>
+ * A write's rows are in SQL from its commit, but its event is only applied after the commit, so
+ * SQL totals are only taken over when no transaction that published an event was between its
+ * {@code BEFORE_COMMIT} and its completion at any time during the read, and no event was applied
+ * meanwhile. Otherwise a late event would count a write that the SQL totals already include.
+ */
+@Component
+@Slf4j
+public class InventoryAggregates {
+
+    static final String UNBRANDED = "Unbranded";
+    // Startup rebuild attempts before taking SQL as is and leaving any double count to reconcile
+    private static final int MAX_REBUILD_ATTEMPTS = 5;
+
+    private final ProductRepository productRepository;
+    private final Counter reconciledCounter;
+    private final Counter driftCounter;
+
+    // Events whose transaction is committing or committed but not yet completed
+    private final AtomicInteger committing = new AtomicInteger();
+    private final Object lock = new Object();
+    private Map<String, Bucket> byCategory = new HashMap<>();
+    private Map<String, Bucket> byBrand = new HashMap<>();
+    private long writeSequence;
+    private InventoryValueResponse snapshot;
+    private volatile boolean ready;
+
+    public InventoryAggregates(ProductRepository productRepository, MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.reconciledCounter = Counter.builder("catalog.inventory.reconciliations")
+                .tag("result", "match")
+                .description("Reconciliation runs where the maintained aggregates matched SQL")
+                .register(meterRegistry);
+        this.driftCounter = Counter.builder("catalog.inventory.reconciliations")
+                .tag("result", "drift")
+                .description("Reconciliation runs that found and corrected drift")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        for (int attempt = 1; ; attempt++) {
+            long sequenceBefore = quietSequence();
+            Map<String, Bucket> categories = load(productRepository.summarizeInventoryByCategory());
+            Map<String, Bucket> brands = load(productRepository.summarizeInventoryByBrand());
+
+            synchronized (lock) {
+                boolean settled = settled(sequenceBefore);
+                if (!settled && attempt < MAX_REBUILD_ATTEMPTS) {
+                    continue;
+                }
+                byCategory = categories;
+                byBrand = brands;
+                snapshot = null;
+                writeSequence++;
+                ready = true;
+                if (!settled) {
+                    log.warn("Inventory aggregates initialized while writes were committing; reconciliation will "
+                            + "correct any difference");
+                }
+            }
+            log.info("Inventory aggregates initialized for {} categories and {} brands", categories.size(),
+                    brands.size());
+            return;
+        }
+    }
+
+    /**
+     * Counts the event's transaction as committing until it completes. Its rows may be visible to
+     * SQL from here on, while {@link #onProductChanged} only sees it after the commit.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onCommitting(ProductChangedEvent event) {
+        committing.incrementAndGet();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                committing.decrementAndGet();
+            }
+        });
+    }
+
+    // Ahead of CatalogVersion, so a new inventory ETag is never issued for the old totals
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onProductChanged(ProductChangedEvent event) {
+        synchronized (lock) {
+            switch (event.getType()) {
+                case CREATED -> apply(event.getProduct(), 1);
+                case UPDATED, STOCK_ADJUSTED -> {
+                    apply(event.getPrevious(), -1);
+                    apply(event.getProduct(), 1);
+                }
+                case DELETED -> apply(event.getProduct(), -1);
+            }
+            snapshot = null;
+            writeSequence++;
+        }
+    }
+
+    /**
+     * Current totals and breakdowns. The response is rebuilt only after a write, so repeated
+     * reads between writes return the same instance.
+     */
+    public InventoryValueResponse snapshot() {
+        synchronized (lock) {
+            if (snapshot == null) {
+                snapshot = toResponse(byCategory, byBrand);
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Current totals and breakdowns with {@code uncommitted} stock changes laid over them, such as
+     * buffered deltas that no event has reported yet. The maintained aggregates are left as they are.
+     */
+    public InventoryValueResponse snapshot(List<ProductChangedEvent> uncommitted) {
+        if (uncommitted.isEmpty()) {
+            return snapshot();
+        }
+        synchronized (lock) {
+            Map<String, Bucket> categories = copy(byCategory);
+            Map<String, Bucket> brands = copy(byBrand);
+            for (ProductChangedEvent change : uncommitted) {
+                apply(categories, brands, change.getPrevious(), -1);
+                apply(categories, brands, change.getProduct(), 1);
+            }
+            return toResponse(categories, brands);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Scheduled(initialDelayString = "${catalog.inventory.reconcile-interval-ms:300000}",
+            fixedDelayString = "${catalog.inventory.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        if (!ready) {
+            return;
+        }
+
+        long sequenceBefore = quietSequence();
+        Map<String, Bucket> categories = load(productRepository.summarizeInventoryByCategory());
+        Map<String, Bucket> brands = load(productRepository.summarizeInventoryByBrand());
+
+        synchronized (lock) {
+            if (!settled(sequenceBefore)) {
+                // A write was committing or landed while SQL was being read; the comparison would not be meaningful
+                log.debug("Skipping inventory reconciliation, writes were committing during the run");
+                return;
+            }
+
+            List<String> drift = new ArrayList<>();
+            diff("category", byCategory, categories, drift);
+            diff("brand", byBrand, brands, drift);
+            if (drift.isEmpty()) {
+                reconciledCounter.increment();
+                return;
+            }
+
+            log.warn("Inventory aggregates drifted from the database, resetting to SQL values: {}", drift);
+            driftCounter.increment();
+            byCategory = categories;
+            byBrand = brands;
+            snapshot = null;
+        }
+    }
+
+    // Write sequence before a read of SQL, or -1 if a write is already committing
+    private long quietSequence() {
+        synchronized (lock) {
+            return committing.get() == 0 ? writeSequence : -1;
+        }
+    }
+
+    // Whether SQL read since quietSequence() returned sequenceBefore includes exactly the applied events
+    private boolean settled(long sequenceBefore) {
+        return sequenceBefore >= 0 && writeSequence == sequenceBefore && committing.get() == 0;
+    }
+
+    private void apply(Product product, int sign) {
+        apply(byCategory, byBrand, product, sign);
+    }
+
+    private static void apply(Map<String, Bucket> categories, Map<String, Bucket> brands, Product product, int sign) {
+        if (product == null) {
+            return;
+        }
+        update(categories, product.getCategory(), product, sign);
+        update(brands, groupKey(product.getBrand()), product, sign);
+    }
+
+    private static void update(Map<String, Bucket> buckets, String key, Product product, int sign) {
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket());
+        bucket.productCount += sign;
+        bucket.totalStock += (long) sign * product.getStock();
+        // Same scale as the price column, so the sums line up with the SQL aggregate
+        BigDecimal value = product.getPrice().multiply(BigDecimal.valueOf(product.getStock()))
+                .setScale(2, RoundingMode.HALF_UP);
+        bucket.inventoryValue = sign > 0 ? bucket.inventoryValue.add(value) : bucket.inventoryValue.subtract(value);
+        if (bucket.productCount == 0) {
+            buckets.remove(key);
+        }
+    }
+
+    private static Map<String, Bucket> load(List<InventoryGroupView> rows) {
+        Map<String, Bucket> buckets = new HashMap<>();
+        for (InventoryGroupView row : rows) {
+            Bucket bucket = new Bucket();
+            bucket.productCount = row.getProductCount();
+            bucket.totalStock = row.getTotalStock() != null ? row.getTotalStock() : 0;
+            bucket.inventoryValue = row.getInventoryValue() != null ? row.getInventoryValue() : BigDecimal.ZERO;
+            buckets.put(groupKey(row.getName()), bucket);
+        }
+        return buckets;
+    }
+
+    private static Map<String, Bucket> copy(Map<String, Bucket> buckets) {
+        Map<String, Bucket> copy = new HashMap<>();
+        buckets.forEach((key, bucket) -> {
+            Bucket clone = new Bucket();
+            clone.productCount = bucket.productCount;
+            clone.totalStock = bucket.totalStock;
+            clone.inventoryValue = bucket.inventoryValue;
+            copy.put(key, clone);
+        });
+        return copy;
+    }
+
+    private static void diff(String dimension, Map<String, Bucket> maintained, Map<String, Bucket> actual,
+                             List<String> drift) {
+        Map<String, Bucket> keys = new TreeMap<>(maintained);
+        keys.putAll(actual);
+        for (String key : keys.keySet()) {
+            Bucket expected = actual.getOrDefault(key, Bucket.EMPTY);
+            Bucket current = maintained.getOrDefault(key, Bucket.EMPTY);
+            if (!expected.sameAs(current)) {
+                drift.add(String.format("%s '%s': maintained %s, database %s", dimension, key, current, expected));
+            }
+        }
+    }
+
+    private static InventoryValueResponse toResponse(Map<String, Bucket> categories, Map<String, Bucket> brands) {
+        BigDecimal totalValue = BigDecimal.ZERO;
+        long totalProducts = 0;
+        long totalStock = 0;
+        for (Bucket bucket : categories.values()) {
+            totalValue = totalValue.add(bucket.inventoryValue);
+            totalProducts += bucket.productCount;
+            totalStock += bucket.totalStock;
+        }
+
+        return InventoryValueResponse.builder()
+                .totalInventoryValue(totalValue)
+                .totalProducts(totalProducts)
+                .totalStock(totalStock)
+                .byCategory(toBreakdown(categories))
+                .byBrand(toBreakdown(brands))
+                .build();
+    }
+
+    private static Map<String, InventoryBreakdown> toBreakdown(Map<String, Bucket> buckets) {
+        Map<String, InventoryBreakdown> breakdown = new TreeMap<>();
+        buckets.forEach((key, bucket) -> breakdown.put(key, InventoryBreakdown.builder()
+                .productCount(bucket.productCount)
+                .totalStock(bucket.totalStock)
+                .inventoryValue(bucket.inventoryValue)
+                .build()));
+        return Collections.unmodifiableMap(breakdown);
+    }
+
+    // Groups are keyed by the stored value, but a null brand has to be addressable in JSON
+    private static String groupKey(String name) {
+        return name != null ? name : UNBRANDED;
+    }
+
+    private static final class Bucket {
+        static final Bucket EMPTY = new Bucket();
+
+        long productCount;
+        long totalStock;
+        BigDecimal inventoryValue = BigDecimal.ZERO;
+
+        boolean sameAs(Bucket other) {
+            return productCount == other.productCount
+                    && totalStock == other.totalStock
+                    && inventoryValue.compareTo(other.inventoryValue) == 0;
+        }
+
+        @Override
+        public String toString() {
+            return "[products=" + productCount + ", stock=" + totalStock + ", value=" + inventoryValue + "]";
+        }
+    }
+}
@@ -0,0 +1,469 @@
+package com.phasezero.catalog.inventory;
+
+import com.phasezero.catalog.cache.CatalogVersion;
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.event.ProductChangedEvent;
+import com.phasezero.catalog.exception.InsufficientStockException;
+import com.phasezero.catalog.exception.ProductNotFoundException;
+import com.phasezero.catalog.exception.ValidationException;
+import com.phasezero.catalog.mapper.ProductMapper;
+import com.phasezero.catalog.repository.ProductRepository;
+import com.phasezero.catalog.responsedto.ProductResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind stage for stock adjustments, used instead of one conditional {@code UPDATE} per
+ * adjustment when {@code catalog.stock.write-behind.enabled} is set.
+ * <p>
+ * Each product touched holds its stored stock plus the deltas accepted since, so an adjustment is
+ * checked against the stock it would leave (never below zero) and answered from memory. Deltas for
+ * the same product are summed and written as one batched relative {@code UPDATE} per product, every
+ * {@code flush-interval-ms} or as soon as {@code max-pending} products are waiting, followed by the
+ * usual {@link ProductChangedEvent}s. The buffer must be the only writer of stock while enabled.
+ * Reads include the pending deltas, laid over the rows or totals read, so accepting one moves the
+ * ETags of the catalog and the product's category right away rather than at the flush. Cached
+ * listings stay cached: readers lay the deltas over a copy.
+ * <p>
+ * Accepted deltas live only in memory until their flush commits: a graceful shutdown flushes them
+ * (this bean stops after the web server has drained), a crash loses up to one interval of them.
+ */
+@Component
+@Slf4j
+public class StockWriteBehind implements SmartLifecycle {
+
+    private static final String FLUSH_SQL = "UPDATE products SET stock = stock + ?, updated_at = ? WHERE id = ?";
+
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogVersion catalogVersion;
+    private final ProductMapper productMapper;
+    private final boolean enabled;
+    private final int maxPending;
+    private final Counter acceptedCounter;
+    private final Counter writtenCounter;
+    private final Timer flushTimer;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // Products with deltas accepted since the last flush began
+    private final AtomicInteger pendingProducts = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile boolean running;
+
+    public StockWriteBehind(ProductRepository productRepository, JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher,
+                            CatalogVersion catalogVersion, ProductMapper productMapper, MeterRegistry meterRegistry,
+                            @Value("${catalog.stock.write-behind.enabled:false}") boolean enabled,
+                            @Value("${catalog.stock.write-behind.max-pending:1000}") int maxPending) {
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.catalogVersion = catalogVersion;
+        this.productMapper = productMapper;
+        this.enabled = enabled;
+        this.maxPending = Math.max(1, maxPending);
+        this.acceptedCounter = Counter.builder("catalog.stock.write_behind.deltas")
+                .description("Stock deltas accepted into the write-behind buffer")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("catalog.stock.write_behind.rows")
+                .description("Coalesced per-product updates written by flushes")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("catalog.stock.write_behind.flush")
+                .description("Time to write and commit one batch of coalesced stock deltas")
+                .register(meterRegistry);
+        Gauge.builder("catalog.stock.write_behind.pending", pendingProducts, AtomicInteger::get)
+                .description("Products with stock deltas accepted since the last flush")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Accepts a stock delta for the product, to be written by a later flush, and returns the
+     * product with its stock after the delta.
+     *
+     * @throws ProductNotFoundException   if there is no such product
+     * @throws InsufficientStockException if the delta would take the stock below zero
+     * @throws ValidationException        if the delta would take the stock past {@link Integer#MAX_VALUE}
+     */
+    public ProductResponse adjust(Long id, int delta) {
+        if (!running) {
+            throw new IllegalStateException("Stock write-behind is not running");
+        }
+        while (true) {
+            // Created empty and loaded under its own lock, so the map's bin lock is never held
+            // across the query and adjustments of other products hashed to the same bin do not wait.
+            // A ReentrantLock rather than a monitor, so a virtual thread waiting on the query does not pin its carrier
+            Entry entry = entries.computeIfAbsent(id, key -> new Entry());
+            ProductResponse response;
+            entry.lock.lock();
+            try {
+                // Dropped by a flush after we looked it up; the next lookup reloads the stored stock
+                if (entry.evicted) {
+                    continue;
+                }
+                if (entry.row == null) {
+                    load(id, entry);
+                }
+                int available = entry.available();
+                int stock;
+                try {
+                    stock = Math.addExact(available, delta);
+                } catch (ArithmeticException ex) {
+                    throw new ValidationException("Stock of product " + id + " cannot exceed " + Integer.MAX_VALUE);
+                }
+                if (stock < 0) {
+                    throw new InsufficientStockException("Insufficient stock for product " + id + " to take " + -delta);
+                }
+                if (entry.pending == 0) {
+                    pendingProducts.incrementAndGet();
+                }
+                entry.pending += delta;
+                entry.idle = false;
+                response = entry.row.toBuilder().stock(stock).build();
+            } finally {
+                entry.lock.unlock();
+            }
+            // After the delta is visible, so a tag read before a read never names newer stock than it serves
+            catalogVersion.changed(response.getCategory());
+            acceptedCounter.increment();
+
+            // Size threshold reached: the caller pays for the flush, which also slows the producers down
+            if (pendingProducts.get() >= maxPending && flushLock.tryLock()) {
+                try {
+                    flush();
+                } finally {
+                    flushLock.unlock();
+                }
+            }
+            return response;
+        }
+    }
+
+    /**
+     * Replaces the stock of rows just read from the database with the stock including deltas not
+     * yet written. Rows are changed in place, so they must not be shared with other readers.
+     */
+    public void applyPending(List<ProductResponse> rows) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        for (ProductResponse row : rows) {
+            applyPending(row);
+        }
+    }
+
+    public void applyPending(ProductResponse row) {
+        Entry entry = entries.isEmpty() ? null : entries.get(row.getId());
+        if (entry != null) {
+            entry.lock.lock();
+            try {
+                if (entry.row != null) {
+                    row.setStock(entry.available());
+                }
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * The rows with the stock including deltas not yet written: {@code rows} itself when none of
+     * them has any, otherwise a copy. For rows shared with other readers, such as cached listings.
+     */
+    public List<ProductResponse> withPending(List<ProductResponse> rows) {
+        if (entries.isEmpty()) {
+            return rows;
+        }
+        List<ProductResponse> copy = null;
+        for (int i = 0; i < rows.size(); i++) {
+            ProductResponse row = rows.get(i);
+            Integer stock = pendingStock(row.getId());
+            if (stock == null || stock.equals(row.getStock())) {
+                continue;
+            }
+            if (copy == null) {
+                copy = new ArrayList<>(rows);
+            }
+            copy.set(i, row.toBuilder().stock(stock).build());
+        }
+        return copy != null ? copy : rows;
+    }
+
+    /**
+     * The deltas not yet committed, one stock change per product from its stock after the last
+     * committed flush to its stock including them, for laying over aggregates of committed rows.
+     */
+    public List<ProductChangedEvent> unwrittenChanges() {
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+        List<ProductChangedEvent> changes = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            entry.lock.lock();
+            try {
+                if (entry.row != null && entry.unwritten() != 0) {
+                    changes.add(ProductChangedEvent.stockAdjusted(
+                            stockOf(entry.row, entry.available()), stockOf(entry.row, entry.stored)));
+                }
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+        return changes;
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.stock.write-behind.flush-interval-ms:100}")
+    public void scheduledFlush() {
+        if (running) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the deltas accepted so far, one summed {@code UPDATE} per product in a single batch and
+     * transaction, and returns the number of products written. On failure the deltas are put back
+     * and written by the next flush.
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            Map<Long, Integer> batch = drain();
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            try {
+                flushTimer.record(() -> write(batch));
+            } catch (RuntimeException ex) {
+                // Deltas settled by a commit are no longer in flight, so only the uncommitted ones go back
+                settle(batch, false);
+                throw ex;
+            }
+            writtenCounter.increment(batch.size());
+            return batch.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Ahead of CatalogVersion, like the other read models; this bean's own flushes come back as STOCK_ADJUSTED
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.ChangeType.STOCK_ADJUSTED) {
+            return;
+        }
+        Entry entry = entries.get(event.getProduct().getId());
+        if (entry == null) {
+            return;
+        }
+        entry.lock.lock();
+        try {
+            // Reloaded on next use; deltas for a deleted product have nothing left to update
+            if (event.getType() == ProductChangedEvent.ChangeType.DELETED || entry.unwritten() == 0) {
+                evict(event.getProduct().getId(), entry);
+            } else if (entry.row != null) {
+                // Keep responses and the totals laid over with the deltas in the product's current category and price
+                entry.row = productMapper.toResponse(event.getProduct());
+            }
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        running = enabled;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (enabled) {
+            int written = flush();
+            log.info("Stock write-behind stopped; final flush wrote {} products", written);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stopped after the web server (which stops at DEFAULT_PHASE - 1024 and - 2048), so in-flight
+    // requests have finished adjusting before the final flush
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private Integer pendingStock(Long id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+        entry.lock.lock();
+        try {
+            return entry.row != null ? entry.available() : null;
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    private static Product stockOf(ProductResponse row, int stock) {
+        return Product.builder()
+                .id(row.getId())
+                .category(row.getCategory())
+                .brand(row.getBrand())
+                .price(row.getPrice())
+                .stock(stock)
+                .build();
+    }
+
+    private void load(Long id, Entry entry) {
+        List<ProductResponse> rows = productRepository.findResponsesByIdIn(List.of(id));
+        if (rows.isEmpty()) {
+            evict(id, entry);
+            throw new ProductNotFoundException("Product not found with id: " + id);
+        }
+        entry.row = rows.get(0);
+        entry.stored = entry.row.getStock();
+    }
+
+    // Moves pending deltas in flight, in id order; entries idle for a whole interval are dropped
+    private Map<Long, Integer> drain() {
+        Map<Long, Integer> batch = new TreeMap<>();
+        pendingProducts.set(0);
+        for (Map.Entry<Long, Entry> e : entries.entrySet()) {
+            Entry entry = e.getValue();
+            entry.lock.lock();
+            try {
+                if (entry.pending != 0) {
+                    entry.inFlight = entry.pending;
+                    entry.pending = 0;
+                    batch.put(e.getKey(), entry.inFlight);
+                } else if (entry.idle) {
+                    // Its last deltas were committed by an earlier flush, so a reload sees them
+                    evict(e.getKey(), entry);
+                } else {
+                    entry.idle = true;
+                }
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+        return batch;
+    }
+
+    private void write(Map<Long, Integer> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Ahead of the events' listeners, so a read model that applies a flushed delta never
+            // also sees it as unwritten
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return Ordered.HIGHEST_PRECEDENCE;
+                }
+
+                @Override
+                public void afterCommit() {
+                    settle(batch, true);
+                }
+            });
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> args = new ArrayList<>(batch.size());
+            batch.forEach((id, delta) -> args.add(new Object[]{delta, now, id}));
+            jdbcTemplate.batchUpdate(FLUSH_SQL, args);
+
+            // Re-read after the update, so the events carry the rows as this flush left them
+            for (Product product : productRepository.findAllById(batch.keySet())) {
+                Product previous = product.toBuilder().stock(product.getStock() - batch.get(product.getId())).build();
+                eventPublisher.publishEvent(ProductChangedEvent.stockAdjusted(product, previous));
+            }
+        });
+    }
+
+    private void settle(Map<Long, Integer> batch, boolean committed) {
+        for (Long id : batch.keySet()) {
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                continue;
+            }
+            entry.lock.lock();
+            try {
+                if (committed) {
+                    entry.stored += entry.inFlight;
+                } else if (entry.inFlight != 0) {
+                    if (entry.pending == 0) {
+                        pendingProducts.incrementAndGet();
+                    }
+                    entry.pending += entry.inFlight;
+                }
+                entry.inFlight = 0;
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+        if (!committed) {
+            log.warn("Stock write-behind flush of {} products failed; deltas kept for the next flush", batch.size());
+        }
+    }
+
+    private void evict(Long id, Entry entry) {
+        entry.evicted = true;
+        entries.remove(id, entry);
+    }
+
+    private static final class Entry {
+        final ReentrantLock lock = new ReentrantLock();
+        // The row as first loaded, null until then; only its stock is kept current
+        ProductResponse row;
+        // Stock in the database after the last committed flush
+        int stored;
+        // Summed deltas handed to the running flush
+        int inFlight;
+        // Summed deltas accepted since the last flush began
+        int pending;
+        boolean idle;
+        boolean evicted;
+
+        int available() {
+            return stored + inFlight + pending;
+        }
+
+        int unwritten() {
+            return inFlight + pending;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.phasezero.catalog.metrics;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/hibernate}: session factory statistics (queries executed, entities loaded,
+ * flushes, ...) plus per-query execution times, so time spent in SQL can be told apart from
+ * time spent mapping and serializing. Requires {@code hibernate.generate_statistics}.
+ * {@code DELETE} resets the counters, e.g. before a measurement.
+ */
+@Component
+@Endpoint(id = "hibernate")
+public class HibernateStatisticsEndpoint {
+
+    private static final int TOP_QUERIES = 20;
+
+    private final Statistics statistics;
+
+    public HibernateStatisticsEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("enabled", statistics.isStatisticsEnabled());
+        body.put("since", statistics.getStart());
+        body.put("sessionsOpened", statistics.getSessionOpenCount());
+        body.put("transactions", statistics.getTransactionCount());
+        body.put("queriesExecuted", statistics.getQueryExecutionCount());
+        body.put("queryExecutionMaxTimeMs", statistics.getQueryExecutionMaxTime());
+        body.put("slowestQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        body.put("statementsPrepared", statistics.getPrepareStatementCount());
+        body.put("entitiesLoaded", statistics.getEntityLoadCount());
+        body.put("entitiesFetched", statistics.getEntityFetchCount());
+        body.put("entitiesInserted", statistics.getEntityInsertCount());
+        body.put("entitiesUpdated", statistics.getEntityUpdateCount());
+        body.put("entitiesDeleted", statistics.getEntityDeleteCount());
+        body.put("flushes", statistics.getFlushCount());
+        body.put("queries", topQueries());
+        return body;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        statistics.clear();
+    }
+
+    // Queries by total execution time, most expensive first
+    private List<Map<String, Object>> topQueries() {
+        return Arrays.stream(statistics.getQueries())
+                .map(query -> Map.entry(query, statistics.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, QueryStatistics> entry) -> entry.getValue().getExecutionTotalTime()).reversed())
+                .limit(TOP_QUERIES)
+                .map(entry -> {
+                    QueryStatistics query = entry.getValue();
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("query", entry.getKey());
+                    row.put("executions", query.getExecutionCount());
+                    row.put("rows", query.getExecutionRowCount());
+                    row.put("avgTimeMs", query.getExecutionAvgTime());
+                    row.put("maxTimeMs", query.getExecutionMaxTime());
+                    row.put("totalTimeMs", query.getExecutionTotalTime());
+                    return row;
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,68 @@
+package com.phasezero.catalog.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Records how many rows each {@code ProductRepository} method returned as
+ * {@code catalog.repository.rows}. Latency is already timed per method by Spring Boot as
+ * {@code spring.data.repository.invocations}; together they show whether a slow query is slow
+ * because of the SQL or because of how much it hydrates.
+ * <p>
+ * Counts and existence checks are not row-returning queries and are skipped, as are streams,
+ * which are consumed after the method has returned.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+
+    static final String ROWS_METRIC = "catalog.repository.rows";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(* com.phasezero.catalog.repository.ProductRepository+.*(..))")
+    public Object recordRows(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+
+        long rows = rowCount(result);
+        if (rows >= 0) {
+            DistributionSummary.builder(ROWS_METRIC)
+                    .description("Rows returned per repository invocation")
+                    .baseUnit("rows")
+                    .tag("repository", "ProductRepository")
+                    .tag("method", joinPoint.getSignature().getName())
+                    .register(meterRegistry)
+                    .record(rows);
+        }
+        return result;
+    }
+
+    private static long rowCount(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number || result instanceof Boolean || result instanceof AutoCloseable) {
+            return -1;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,124 @@
+package com.phasezero.catalog.persistence;
+
+import com.phasezero.catalog.entity.Product;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of product writes since a snapshot. Each entry is the product's full state after
+ * the write (or its id for a delete), framed as length, type, payload and a CRC32 of type and
+ * payload, so replay is idempotent and a torn last entry from a crash is recognized and dropped.
+ */
+final class CatalogJournal implements Closeable {
+
+    private static final byte UPSERT = 1;
+    private static final byte DELETE = 2;
+
+    private final FileChannel channel;
+    private final ByteBuffer entry = ByteBuffer.allocate(4 + 1 + ProductRecords.MAX_SIZE + 4);
+    private final CRC32 crc = new CRC32();
+    private long size;
+    private boolean dirty;
+
+    private CatalogJournal(FileChannel channel, long size) {
+        this.channel = channel;
+        this.size = size;
+    }
+
+    /** Opens the journal for appending after its last complete entry. */
+    static CatalogJournal open(Path path, long validLength) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.truncate(validLength);
+        channel.position(validLength);
+        return new CatalogJournal(channel, validLength);
+    }
+
+    /**
+     * Applies the journal's entries to {@code latest}, keyed by product id, with null for deleted
+     * products; later entries replace earlier ones. Returns the length of the complete entries.
+     */
+    static long replay(Path path, Map<Long, Product> latest) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            byte[] scratch = new byte[ProductRecords.MAX_SIZE];
+            CRC32 crc = new CRC32();
+            while (in.remaining() >= 4) {
+                int start = in.position();
+                int length = in.getInt();
+                if (length <= 0 || length > ProductRecords.MAX_SIZE + 1 || in.remaining() < length + 4) {
+                    return start;
+                }
+                crc.reset();
+                crc.update(in.slice(in.position(), length));
+                if ((int) crc.getValue() != in.getInt(in.position() + length)) {
+                    return start;
+                }
+                byte type = in.get();
+                if (type == UPSERT) {
+                    Product product = ProductRecords.read(in, scratch);
+                    latest.put(product.getId(), product);
+                } else {
+                    latest.put(in.getLong(), null);
+                }
+                in.position(start + 4 + length + 4);
+            }
+            return in.position();
+        }
+    }
+
+    synchronized void upsert(Product product) throws IOException {
+        entry.clear();
+        entry.position(4);
+        entry.put(UPSERT);
+        ProductRecords.write(entry, product);
+        append();
+    }
+
+    synchronized void delete(Long id) throws IOException {
+        entry.clear();
+        entry.position(4);
+        entry.put(DELETE);
+        entry.putLong(id);
+        append();
+    }
+
+    synchronized long size() {
+        return size;
+    }
+
+    /** Flushes appended entries from the page cache to the device. */
+    synchronized void sync() throws IOException {
+        if (dirty) {
+            channel.force(false);
+            dirty = false;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        sync();
+        channel.close();
+    }
+
+    private void append() throws IOException {
+        int length = entry.position() - 4;
+        entry.putInt(0, length);
+        crc.reset();
+        crc.update(entry.array(), 4, length);
+        entry.putInt((int) crc.getValue());
+        entry.flip();
+        while (entry.hasRemaining()) {
+            channel.write(entry);
+        }
+        size += 4 + length + 4;
+        dirty = true;
+    }
+}
@@ -0,0 +1,355 @@
+package com.phasezero.catalog.persistence;
+
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.event.ProductChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the in-memory catalog across restarts: a binary snapshot of the products table plus a
+ * journal of every product write since, in {@code catalog.persistence.directory}. Enabled with
+ * {@code catalog.persistence.enabled=true}.
+ * <p>
+ * On startup, before the web server accepts requests and before the read models are built, an
+ * empty table is reloaded from the snapshot and the journals after it. Writes are journaled while
+ * their transaction commits, holding a row lock, so entries for the same product are in commit
+ * order; appends reach the page cache immediately and the device every
+ * {@code sync-interval-ms}. Once the journal outgrows {@code compact-after-bytes}, compaction
+ * starts a new journal, writes a fresh snapshot from the database and drops the journals it covers.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.persistence.enabled", havingValue = "true")
+@Slf4j
+public class CatalogPersistence implements SmartInitializingSingleton {
+
+    static final String SNAPSHOT_FILE = "catalog.snapshot";
+    private static final Pattern JOURNAL_FILE = Pattern.compile("journal-(\\d+)\\.log");
+    private static final int LOAD_BATCH_SIZE = 10_000;
+    private static final int LOAD_COMMIT_SIZE = 100_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path directory;
+    private final long compactAfterBytes;
+
+    // Held shared by each transaction from its first journal entry until it completes, and exclusively
+    // while compaction switches journals, so every entry in a retired journal is committed or rolled back
+    private final ReentrantReadWriteLock rotation = new ReentrantReadWriteLock();
+    private final Object compactionLock = new Object();
+    private volatile CatalogJournal journal;
+    private long generation;
+
+    // The EntityManagerFactory creates the schema; restoring needs the table
+    public CatalogPersistence(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                              MeterRegistry meterRegistry,
+                              @Value("${catalog.persistence.directory:data}") String directory,
+                              @Value("${catalog.persistence.compact-after-bytes:67108864}") long compactAfterBytes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.directory = Path.of(directory);
+        this.compactAfterBytes = compactAfterBytes;
+        Gauge.builder("catalog.persistence.journal.size", this, p -> p.journal != null ? p.journal.size() : 0)
+                .description("Bytes in the current journal")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            Files.createDirectories(directory);
+            restore();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not restore the catalog from " + directory.toAbsolutePath(), ex);
+        }
+    }
+
+    /**
+     * Loads the snapshot and replays the journals after it into the products table, which must be
+     * empty, then reopens the last journal for appending. Returns the number of products loaded.
+     */
+    public long restore() throws IOException {
+        synchronized (compactionLock) {
+            long start = System.nanoTime();
+            closeJournal();
+            Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Integer.class);
+            if (existing != null && existing > 0) {
+                // Not an in-memory database after all; the database is the truth, so start the files over
+                log.warn("Products table already holds {} rows; not restoring, writing a new snapshot instead", existing);
+                generation = lastGeneration() + 1;
+                journal = CatalogJournal.open(journalPath(generation), 0);
+                compact();
+                return 0;
+            }
+
+            Path snapshot = directory.resolve(SNAPSHOT_FILE);
+            long firstJournal = 1;
+            long loaded = 0;
+            if (Files.exists(snapshot)) {
+                try (Loader loader = new Loader(ProductRecords.INSERT)) {
+                    firstJournal = CatalogSnapshot.read(snapshot, loader::add);
+                    loaded = loader.finish();
+                }
+            }
+
+            // Journals before the snapshot's first one are left over from a compaction interrupted after
+            // its snapshot was in place; the snapshot already covers them
+            Map<Long, Product> latest = new LinkedHashMap<>();
+            long last = firstJournal;
+            long lastValidLength = 0;
+            for (long journalGeneration : journalGenerations()) {
+                Path path = journalPath(journalGeneration);
+                if (journalGeneration < firstJournal) {
+                    Files.delete(path);
+                    continue;
+                }
+                lastValidLength = CatalogJournal.replay(path, latest);
+                last = journalGeneration;
+            }
+            long replayed = apply(latest);
+
+            ProductIdSequence.moveAfterStoredIds(jdbcTemplate);
+
+            // Keep appending to the last journal after its last complete entry
+            generation = last;
+            journal = CatalogJournal.open(journalPath(generation), lastValidLength);
+            log.info("Restored {} products from the snapshot and {} from the journal in {} ms", loaded, replayed,
+                    (System.nanoTime() - start) / 1_000_000);
+            return loaded + replayed;
+        }
+    }
+
+    /**
+     * Writes a snapshot of the products table and drops the journals it covers. Writes carry on
+     * meanwhile, into a new journal that is replayed on top of this snapshot.
+     */
+    public long compact() throws IOException {
+        synchronized (compactionLock) {
+            long start = System.nanoTime();
+            CatalogJournal previous;
+            long next;
+            rotation.writeLock().lock();
+            try {
+                previous = journal;
+                next = generation + 1;
+                journal = CatalogJournal.open(journalPath(next), 0);
+                generation = next;
+            } finally {
+                rotation.writeLock().unlock();
+            }
+            if (previous != null) {
+                previous.close();
+            }
+
+            Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+            long count;
+            try (CatalogSnapshot.Writer writer = new CatalogSnapshot.Writer(temporary)) {
+                jdbcTemplate.query(ProductRecords.SELECT_ALL, rs -> {
+                    try {
+                        writer.add(ProductRecords.read(rs));
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+                writer.finish(next);
+                count = writer.count();
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+            Files.move(temporary, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+
+            for (long journalGeneration : journalGenerations()) {
+                if (journalGeneration < next) {
+                    Files.delete(journalPath(journalGeneration));
+                }
+            }
+            log.info("Catalog snapshot of {} products written in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+            return count;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.persistence.compaction-check-ms:60000}")
+    public void compactIfNeeded() throws IOException {
+        CatalogJournal current = journal;
+        if (current != null && current.size() >= compactAfterBytes) {
+            compact();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.persistence.sync-interval-ms:1000}")
+    public void sync() throws IOException {
+        CatalogJournal current = journal;
+        if (current != null) {
+            current.sync();
+        }
+    }
+
+    // Part of the commit: if the entry cannot be written, the transaction rolls back
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        if (!inTransaction) {
+            rotation.readLock().lock();
+        } else if (TransactionSynchronizationManager.getResource(rotation) == null) {
+            rotation.readLock().lock();
+            TransactionSynchronizationManager.bindResource(rotation, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(rotation);
+                    rotation.readLock().unlock();
+                }
+            });
+        }
+        try {
+            CatalogJournal current = journal;
+            if (current == null) {
+                throw new IllegalStateException("Catalog journal is closed");
+            }
+            if (event.getType() == ProductChangedEvent.ChangeType.DELETED) {
+                current.delete(event.getProduct().getId());
+            } else {
+                current.upsert(event.getProduct());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not journal the change to product " + event.getProduct().getId(), ex);
+        } finally {
+            if (!inTransaction) {
+                rotation.readLock().unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        synchronized (compactionLock) {
+            closeJournal();
+        }
+    }
+
+    private void closeJournal() throws IOException {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+    }
+
+    // Latest state per product from the journals: deleted ones are removed, the rest merged
+    private long apply(Map<Long, Product> latest) {
+        List<Object[]> deleted = new ArrayList<>();
+        try (Loader loader = new Loader(ProductRecords.MERGE)) {
+            for (Map.Entry<Long, Product> entry : latest.entrySet()) {
+                if (entry.getValue() == null) {
+                    deleted.add(new Object[]{entry.getKey()});
+                } else {
+                    loader.add(entry.getValue());
+                }
+            }
+            loader.finish();
+        }
+        jdbcTemplate.batchUpdate("DELETE FROM products WHERE id = ?", deleted);
+        return latest.size();
+    }
+
+    private List<Long> journalGenerations() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> JOURNAL_FILE.matcher(path.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(m -> Long.parseLong(m.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private long lastGeneration() throws IOException {
+        List<Long> generations = journalGenerations();
+        return generations.isEmpty() ? 0 : generations.get(generations.size() - 1);
+    }
+
+    private Path journalPath(long journalGeneration) {
+        return directory.resolve(String.format("journal-%016d.log", journalGeneration));
+    }
+
+    // Batched inserts on one connection, committed every LOAD_COMMIT_SIZE rows
+    private final class Loader implements AutoCloseable {
+        private final Connection connection;
+        private final PreparedStatement statement;
+        private final String sql;
+        private long count;
+
+        Loader(String sql) {
+            this.sql = sql;
+            try {
+                this.connection = jdbcTemplate.getDataSource().getConnection();
+                connection.setAutoCommit(false);
+                this.statement = connection.prepareStatement(sql);
+            } catch (SQLException ex) {
+                throw jdbcTemplate.getExceptionTranslator().translate("restore", sql, ex);
+            }
+        }
+
+        void add(Product product) {
+            try {
+                ProductRecords.bind(statement, product);
+                statement.addBatch();
+                if (++count % LOAD_BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                }
+                if (count % LOAD_COMMIT_SIZE == 0) {
+                    connection.commit();
+                }
+            } catch (SQLException ex) {
+                throw jdbcTemplate.getExceptionTranslator().translate("restore", sql, ex);
+            }
+        }
+
+        long finish() {
+            try {
+                statement.executeBatch();
+                connection.commit();
+                return count;
+            } catch (SQLException ex) {
+                throw jdbcTemplate.getExceptionTranslator().translate("restore", sql, ex);
+            }
+        }
+
+        @Override
+        public void close() {
+            try (connection) {
+                statement.close();
+                connection.setAutoCommit(true);
+            } catch (SQLException ex) {
+                log.warn("Could not release the restore connection", ex);
+            }
+        }
+    }
+}
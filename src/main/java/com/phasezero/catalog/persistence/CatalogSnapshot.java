@@ -0,0 +1,121 @@
+package com.phasezero.catalog.persistence;
+
+import com.phasezero.catalog.entity.Product;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Snapshot file of the whole products table: a header (magic, version, first journal to replay
+ * on top, record count) followed by length-prefixed {@link ProductRecords}. Both directions go
+ * through memory-mapped windows, so records are copied straight between the page cache and the
+ * codec without stream buffering or per-record system calls.
+ */
+final class CatalogSnapshot {
+
+    private static final int MAGIC = 0x505A534E; // "PZSN"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8;
+    private static final long WRITE_WINDOW = 64L << 20;
+    private static final long READ_WINDOW = 1L << 30;
+
+    private CatalogSnapshot() {
+    }
+
+    /** Reads every product in the snapshot, in file order, and returns the first journal generation to replay. */
+    static long read(Path path, Consumer<Product> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, READ_WINDOW));
+            if (size < HEADER_SIZE || window.getInt() != MAGIC) {
+                throw new IOException("Not a catalog snapshot: " + path);
+            }
+            int version = window.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported catalog snapshot version " + version + ": " + path);
+            }
+            long firstJournal = window.getLong();
+            long count = window.getLong();
+
+            long windowStart = 0;
+            byte[] scratch = new byte[ProductRecords.MAX_SIZE];
+            for (long i = 0; i < count; i++) {
+                // Records never straddle the end of a window; move the window to the record when it would
+                if (window.remaining() < 4 || window.remaining() < 4 + window.getInt(window.position())) {
+                    windowStart += window.position();
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+                            Math.min(size - windowStart, READ_WINDOW));
+                }
+                int length = window.getInt();
+                int end = window.position() + length;
+                if (length <= 0 || end > window.limit()) {
+                    throw new IOException("Truncated catalog snapshot at record " + i + ": " + path);
+                }
+                consumer.accept(ProductRecords.read(window, scratch));
+                window.position(end);
+            }
+            return firstJournal;
+        }
+    }
+
+    static final class Writer implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer record = ByteBuffer.allocate(ProductRecords.MAX_SIZE);
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long count;
+
+        Writer(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            window = channel.map(FileChannel.MapMode.READ_WRITE, 0, WRITE_WINDOW);
+            window.position(HEADER_SIZE);
+        }
+
+        void add(Product product) throws IOException {
+            record.clear();
+            ProductRecords.write(record, product);
+            record.flip();
+            if (window.remaining() < 4 + record.remaining()) {
+                window.force();
+                windowStart += window.position();
+                window = channel.map(FileChannel.MapMode.READ_WRITE, windowStart, WRITE_WINDOW);
+            }
+            window.putInt(record.remaining());
+            window.put(record);
+            count++;
+        }
+
+        long count() {
+            return count;
+        }
+
+        /** Writes the header, trims the unused end of the last window and syncs the file. */
+        void finish(long firstJournal) throws IOException {
+            window.force();
+            channel.truncate(windowStart + window.position());
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(firstJournal)
+                    .putLong(count)
+                    .flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.phasezero.catalog.persistence;
+
+import com.phasezero.catalog.entity.Product;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Keeps {@link Product}'s id sequence ahead of ids written without it, by the snapshot restore
+ * and the bulk seed loader.
+ */
+public final class ProductIdSequence {
+
+    private ProductIdSequence() {
+    }
+
+    /**
+     * Restarts the sequence past the highest stored id. The pooled id generator hands out the block
+     * ending at the sequence value, so a whole block is skipped.
+     */
+    public static void moveAfterStoredIds(JdbcTemplate jdbcTemplate) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM products", Long.class);
+        if (maxId != null) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + Product.ID_SEQUENCE + " RESTART WITH "
+                    + (maxId + Product.ID_ALLOCATION_SIZE + 1));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.phasezero.catalog.persistence;
+
+import com.phasezero.catalog.entity.Product;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary form of one product, shared by the snapshot and the journal: fixed-width numbers, the
+ * price as unscaled cents, timestamps as UTC epoch microseconds (the column's precision) and
+ * strings as a length-prefixed UTF-8 run, with length -1 for null.
+ */
+final class ProductRecords {
+
+    // Column order of every statement below
+    static final String COLUMNS = "id, part_number, part_name, category, price, stock, brand, description, "
+            + "created_at, updated_at";
+    static final String SELECT_ALL = "SELECT " + COLUMNS + " FROM products ORDER BY id";
+    static final String INSERT = "INSERT INTO products (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    static final String MERGE = "MERGE INTO products (" + COLUMNS + ") KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Longest possible record: the column lengths on Product, at up to 3 UTF-8 bytes per char
+    static final int MAX_SIZE = 8 + 8 + 4 + 8 + 8 + 5 * 2 + (50 + 100 + 50 + 100 + 500) * 3;
+
+    private static final int PRICE_SCALE = 2;
+    private static final long NULL_TIME = Long.MIN_VALUE;
+
+    private ProductRecords() {
+    }
+
+    static void write(ByteBuffer out, Product product) {
+        out.putLong(product.getId());
+        putString(out, product.getPartNumber());
+        putString(out, product.getPartName());
+        putString(out, product.getCategory());
+        out.putLong(product.getPrice().setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+        out.putInt(product.getStock());
+        putString(out, product.getBrand());
+        putString(out, product.getDescription());
+        out.putLong(toMicros(product.getCreatedAt()));
+        out.putLong(toMicros(product.getUpdatedAt()));
+    }
+
+    static Product read(ByteBuffer in, byte[] scratch) {
+        return Product.builder()
+                .id(in.getLong())
+                .partNumber(getString(in, scratch))
+                .partName(getString(in, scratch))
+                .category(getString(in, scratch))
+                .price(new BigDecimal(BigInteger.valueOf(in.getLong()), PRICE_SCALE))
+                .stock(in.getInt())
+                .brand(getString(in, scratch))
+                .description(getString(in, scratch))
+                .createdAt(fromMicros(in.getLong()))
+                .updatedAt(fromMicros(in.getLong()))
+                .build();
+    }
+
+    static Product read(ResultSet rs) throws SQLException {
+        return Product.builder()
+                .id(rs.getLong(1))
+                .partNumber(rs.getString(2))
+                .partName(rs.getString(3))
+                .category(rs.getString(4))
+                .price(rs.getBigDecimal(5))
+                .stock(rs.getInt(6))
+                .brand(rs.getString(7))
+                .description(rs.getString(8))
+                .createdAt(toLocal(rs.getTimestamp(9)))
+                .updatedAt(toLocal(rs.getTimestamp(10)))
+                .build();
+    }
+
+    // Binds the product to INSERT or MERGE
+    static void bind(PreparedStatement ps, Product product) throws SQLException {
+        ps.setLong(1, product.getId());
+        ps.setString(2, product.getPartNumber());
+        ps.setString(3, product.getPartName());
+        ps.setString(4, product.getCategory());
+        ps.setBigDecimal(5, product.getPrice());
+        ps.setInt(6, product.getStock());
+        ps.setString(7, product.getBrand());
+        ps.setString(8, product.getDescription());
+        ps.setTimestamp(9, product.getCreatedAt() != null ? Timestamp.valueOf(product.getCreatedAt()) : null);
+        ps.setTimestamp(10, product.getUpdatedAt() != null ? Timestamp.valueOf(product.getUpdatedAt()) : null);
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    private static String getString(ByteBuffer in, byte[] scratch) {
+        int length = in.getShort();
+        if (length < 0) {
+            return null;
+        }
+        in.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        if (time == null) {
+            return NULL_TIME;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        if (micros == NULL_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime toLocal(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
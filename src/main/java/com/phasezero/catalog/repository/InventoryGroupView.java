@@ -0,0 +1,11 @@
+package com.phasezero.catalog.repository;
+
+import java.math.BigDecimal;
+
+// One row of an inventory GROUP BY (per category or per brand)
+public interface InventoryGroupView {
+    String getName();
+    Long getProductCount();
+    Long getTotalStock();
+    BigDecimal getInventoryValue();
+}
@@ -0,0 +1,11 @@
+package com.phasezero.catalog.repository;
+
+import java.math.BigDecimal;
+
+// Projection of the columns needed to build the in-memory facet index
+public interface ProductFacetView {
+    Long getId();
+    String getCategory();
+    String getBrand();
+    BigDecimal getPrice();
+}
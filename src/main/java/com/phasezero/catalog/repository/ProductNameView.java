@@ -0,0 +1,7 @@
+package com.phasezero.catalog.repository;
+
+// Projection of the columns needed to build the in-memory name index
+public interface ProductNameView {
+    Long getId();
+    String getPartName();
+}
@@ -1,36 +1,146 @@
 package com.phasezero.catalog.repository;
 
 import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.responsedto.ProductResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
-    // Check for duplicate part number
+    // Read queries project straight into the response DTO: no managed entities, no dirty-checking
+    // snapshots and no entity-to-DTO copy. Arguments follow ProductResponse's field order.
+    String SELECT_RESPONSE = "SELECT new com.phasezero.catalog.responsedto.ProductResponse("
+            + "p.id, p.partNumber, p.partName, p.category, p.price, p.stock, p.brand, p.description, "
+            + "p.createdAt, p.updatedAt) FROM Product p";
+
+    // Adds delta to the stock in one statement, unless that would take it below zero; returns the rows changed.
+    // The row lock is held only for this statement and the commit, never across a read-modify-write.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stock = p.stock + :delta, p.updatedAt = :now "
+            + "WHERE p.id = :id AND p.stock + :delta >= 0")
+    int adjustStock(@Param("id") Long id, @Param("delta") int delta, @Param("now") LocalDateTime now);
+
+    // Check for duplicate part number (stored upper-cased, see Product#normalizeData)
     Optional<Product> findByPartNumber(String partNumber);
     boolean existsByPartNumber(String partNumber);
 
-    // Search by name (case-insensitive)
-    List<Product> findByPartNameContainingIgnoreCase(String partName);
+    // Set-based duplicate check for batch creation
+    @Query("SELECT p.partNumber FROM Product p WHERE p.partNumber IN :partNumbers")
+    List<String> findExistingPartNumbers(@Param("partNumbers") Collection<String> partNumbers);
+
+    // Search by name. partName is stored lower-cased (Product#normalizeData), so callers pass a
+    // lower-cased term and the column is compared as-is instead of upper() on both sides.
+    // LIKE wildcards in the term are escaped, so '%' and '_' match literally as they do in the name index
+    @Query(SELECT_RESPONSE + " WHERE p.partName LIKE %?#{escape([0])}% ESCAPE ?#{escapeCharacter()}")
+    List<ProductResponse> findByPartNameContaining(@Param("partName") String partName);
+
+    // Price range in (price, id) order after the given position; used until the in-memory price index is built
+    @Query(SELECT_RESPONSE + " WHERE p.price >= :minPrice AND p.price <= :maxPrice"
+            + " AND (:category IS NULL OR p.category = :category)"
+            + " AND (p.price > :afterPrice OR (p.price = :afterPrice AND p.id > :afterId))"
+            + " ORDER BY p.price ASC, p.id ASC")
+    List<ProductResponse> findPriceRange(@Param("minPrice") BigDecimal minPrice,
+                                         @Param("maxPrice") BigDecimal maxPrice,
+                                         @Param("category") String category,
+                                         @Param("afterPrice") BigDecimal afterPrice,
+                                         @Param("afterId") Long afterId,
+                                         Limit limit);
+
+    // Rows for ids matched by the in-memory name index
+    @Query(SELECT_RESPONSE + " WHERE p.id IN :ids")
+    List<ProductResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Every stored part number, used to build the in-memory existence filter
+    @Query("SELECT p.partNumber FROM Product p")
+    List<String> findAllPartNumbers();
+
+    // Lightweight (id, partName) rows used to build the in-memory name index
+    @Query("SELECT p.id AS id, p.partName AS partName FROM Product p")
+    List<ProductNameView> findAllNames();
+
+    // (id, partNumber, partName) rows used to build the in-memory autocomplete index
+    @Query("SELECT p.id AS id, p.partNumber AS partNumber, p.partName AS partName FROM Product p")
+    List<ProductSuggestionView> findAllSuggestionFields();
+
+    // Rows whose part number or name starts with the lower-cased prefix; only used until the index is built.
+    // Wildcards in the prefix are escaped, as in findByPartNameContaining
+    @Query("SELECT p.id AS id, p.partNumber AS partNumber, p.partName AS partName FROM Product p"
+            + " WHERE LOWER(p.partNumber) LIKE ?#{escape([0])}% ESCAPE ?#{escapeCharacter()}"
+            + " OR LOWER(p.partName) LIKE ?#{escape([0])}% ESCAPE ?#{escapeCharacter()} ORDER BY p.id")
+    List<ProductSuggestionView> findSuggestionFieldsByPrefix(String prefix, Limit limit);
+
+    // (id, partName, brand, description) rows used to build the in-memory full-text index
+    @Query("SELECT p.id AS id, p.partName AS partName, p.brand AS brand, p.description AS description "
+            + "FROM Product p ORDER BY p.id")
+    List<ProductTextView> findAllSearchText();
+
+    // Unranked match on any text column; only used until the full-text index is built. Wildcards in
+    // the term are escaped, as in findByPartNameContaining
+    @Query(SELECT_RESPONSE + " WHERE p.partName LIKE %?#{escape([0])}% ESCAPE ?#{escapeCharacter()}"
+            + " OR LOWER(p.brand) LIKE %?#{escape([0])}% ESCAPE ?#{escapeCharacter()}"
+            + " OR LOWER(p.description) LIKE %?#{escape([0])}% ESCAPE ?#{escapeCharacter()} ORDER BY p.id")
+    List<ProductResponse> findByTextContaining(String term, Limit limit);
+
+    // (id, category, brand, price) rows used to build the in-memory facet index
+    @Query("SELECT p.id AS id, p.category AS category, p.brand AS brand, p.price AS price FROM Product p ORDER BY p.id")
+    List<ProductFacetView> findAllFacetFields();
 
     // Filter by category
-    List<Product> findByCategory(String category);
+    @Query(SELECT_RESPONSE + " WHERE p.category = :category")
+    List<ProductResponse> findByCategory(@Param("category") String category);
 
     // Sort by price ascending
-    List<Product> findAllByOrderByPriceAsc();
+    @Query(SELECT_RESPONSE + " ORDER BY p.price ASC")
+    List<ProductResponse> findAllByOrderByPriceAsc();
+
+    // Streaming read for the NDJSON export; rows are fetched in chunks and never all held at once
+    @Query(SELECT_RESPONSE)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<ProductResponse> streamAll(Sort sort);
 
     // **ONLY THIS METHOD IS NEEDED** - Calculate total inventory value
     @Query("SELECT SUM(p.price * p.stock) FROM Product p")
     BigDecimal calculateTotalInventoryValue();
 
+    // Inventory breakdowns, used to seed and reconcile the maintained aggregates
+    @Query("SELECT p.category AS name, COUNT(p) AS productCount, SUM(p.stock) AS totalStock, "
+            + "SUM(p.price * p.stock) AS inventoryValue FROM Product p GROUP BY p.category")
+    List<InventoryGroupView> summarizeInventoryByCategory();
+
+    @Query("SELECT p.brand AS name, COUNT(p) AS productCount, SUM(p.stock) AS totalStock, "
+            + "SUM(p.price * p.stock) AS inventoryValue FROM Product p GROUP BY p.brand")
+    List<InventoryGroupView> summarizeInventoryByBrand();
+
     // For pagination - Spring Data JPA provides this automatically
     Page<Product> findAll(Pageable pageable);
+
+    @Query(value = SELECT_RESPONSE, countQuery = "SELECT COUNT(p) FROM Product p")
+    Page<ProductResponse> findAllResponses(Pageable pageable);
+
+    // Keyset pagination in (createdAt DESC, id DESC) order: seeks past the cursor, no OFFSET and no count
+    @Query(SELECT_RESPONSE + " ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductResponse> findAllByOrderByCreatedAtDescIdDesc(Limit limit);
+
+    // The leading createdAt <= bound lets the (created_at, id) index range-scan straight to the cursor
+    @Query(SELECT_RESPONSE + " WHERE p.createdAt <= :createdAt "
+            + "AND (p.createdAt < :createdAt OR p.id < :id) ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductResponse> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
 }
\ No newline at end of file
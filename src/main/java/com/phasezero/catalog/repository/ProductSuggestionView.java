@@ -0,0 +1,8 @@
+package com.phasezero.catalog.repository;
+
+// Projection of the columns needed to build the in-memory autocomplete index
+public interface ProductSuggestionView {
+    Long getId();
+    String getPartNumber();
+    String getPartName();
+}
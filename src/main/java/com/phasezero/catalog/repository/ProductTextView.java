@@ -0,0 +1,9 @@
+package com.phasezero.catalog.repository;
+
+// Projection of the text columns needed to build the in-memory full-text index
+public interface ProductTextView {
+    Long getId();
+    String getPartName();
+    String getBrand();
+    String getDescription();
+}
@@ -0,0 +1,29 @@
+package com.phasezero.catalog.requestdto;
+
+import com.phasezero.catalog.exception.ValidationException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+// Orderings supported by the streaming export; id is always the tie-breaker
+@Getter
+@RequiredArgsConstructor
+public enum ExportSort {
+    ID("id", Sort.by("id")),
+    PRICE("price", Sort.by("price", "id")),
+    CREATED_AT("createdAt", Sort.by("createdAt", "id"));
+
+    private final String parameter;
+    private final Sort sort;
+
+    public static ExportSort from(String parameter) {
+        return Arrays.stream(values())
+                .filter(value -> value.parameter.equalsIgnoreCase(parameter))
+                .findFirst()
+                .orElseThrow(() -> new ValidationException("Unsupported sort '" + parameter + "'. Supported values: "
+                        + Arrays.stream(values()).map(ExportSort::getParameter).collect(Collectors.joining(", "))));
+    }
+}
@@ -0,0 +1,40 @@
+package com.phasezero.catalog.requestdto;
+
+import com.phasezero.catalog.exception.ValidationException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in the (price ASC, id ASC) order of price-range listings, exchanged with clients as an
+ * opaque URL-safe token.
+ */
+@Data
+@AllArgsConstructor
+public class PriceCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private BigDecimal price;
+    private Long id;
+
+    public String encode() {
+        String raw = price.toPlainString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PriceCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new PriceCursor(
+                    new BigDecimal(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new ValidationException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.phasezero.catalog.requestdto;
+
+import com.phasezero.catalog.exception.ValidationException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// Half-open price interval [from, to) for the price facet; a null end is unbounded
+@Getter
+@RequiredArgsConstructor
+public class PriceRange {
+
+    static final int MAX_RANGES = 20;
+
+    private final BigDecimal from;
+    private final BigDecimal to;
+
+    /** Parses {@code "0-25,25-100,100-"}: comma-separated ranges, either end of a range may be left empty. */
+    public static List<PriceRange> parseList(String spec) {
+        List<PriceRange> ranges = new ArrayList<>();
+        if (spec == null || spec.isBlank()) {
+            return ranges;
+        }
+        for (String part : spec.split(",")) {
+            ranges.add(parse(part.trim()));
+        }
+        if (ranges.size() > MAX_RANGES) {
+            throw new ValidationException("At most " + MAX_RANGES + " price ranges are supported");
+        }
+        return ranges;
+    }
+
+    private static PriceRange parse(String range) {
+        int dash = range.indexOf('-');
+        if (dash < 0) {
+            throw new ValidationException("Invalid price range '" + range + "', expected from-to");
+        }
+        BigDecimal from = bound(range.substring(0, dash), range);
+        BigDecimal to = bound(range.substring(dash + 1), range);
+        if (from == null && to == null || from != null && to != null && from.compareTo(to) >= 0) {
+            throw new ValidationException("Invalid price range '" + range + "'");
+        }
+        return new PriceRange(from, to);
+    }
+
+    private static BigDecimal bound(String value, String range) {
+        if (value.isBlank()) {
+            return null;
+        }
+        try {
+            BigDecimal bound = new BigDecimal(value.trim());
+            if (bound.signum() < 0) {
+                throw new ValidationException("Invalid price range '" + range + "', prices are not negative");
+            }
+            return bound;
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Invalid price range '" + range + "', expected from-to");
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.phasezero.catalog.requestdto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentRequest {
+
+    // Negative to take stock (an order), positive to add it (a delivery or a return)
+    @NotNull(message = "Delta is required")
+    @Min(value = -1_000_000, message = "Delta must be at least -1000000")
+    @Max(value = 1_000_000, message = "Delta must be at most 1000000")
+    private Integer delta;
+}
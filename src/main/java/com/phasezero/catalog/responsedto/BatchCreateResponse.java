@@ -0,0 +1,19 @@
+package com.phasezero.catalog.responsedto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCreateResponse {
+    private int requested;
+    private int created;
+    private int rejected;
+    private List<BatchRowResult> results;
+}
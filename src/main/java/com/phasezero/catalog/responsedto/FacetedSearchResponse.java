@@ -0,0 +1,24 @@
+package com.phasezero.catalog.responsedto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetedSearchResponse {
+    private List<ProductResponse> content;
+    private int page;
+    private int size;
+    private long totalMatches;
+    // Facet counts, largest first
+    private Map<String, Long> categories;
+    private Map<String, Long> brands;
+    private List<PriceBucket> priceRanges;
+}
@@ -0,0 +1,18 @@
+package com.phasezero.catalog.responsedto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryBreakdown {
+    private long productCount;
+    private long totalStock;
+    private BigDecimal inventoryValue;
+}
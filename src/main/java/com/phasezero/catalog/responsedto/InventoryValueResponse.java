@@ -1,13 +1,27 @@
 package com.phasezero.catalog.responsedto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
+import java.util.Map;
 
 @Data
+@Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class InventoryValueResponse {
     private BigDecimal totalInventoryValue;
-}
\ No newline at end of file
+    private Long totalProducts;
+    private Long totalStock;
+    private Map<String, InventoryBreakdown> byCategory;
+    private Map<String, InventoryBreakdown> byBrand;
+
+    // Total only, used when the maintained aggregates are not available
+    public InventoryValueResponse(BigDecimal totalInventoryValue) {
+        this.totalInventoryValue = totalInventoryValue;
+    }
+}
@@ -0,0 +1,21 @@
+package com.phasezero.catalog.responsedto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PriceBucket {
+    // Inclusive lower bound, exclusive upper bound; omitted when unbounded
+    private BigDecimal from;
+    private BigDecimal to;
+    private long count;
+}
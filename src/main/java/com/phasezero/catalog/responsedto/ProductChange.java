@@ -0,0 +1,22 @@
+package com.phasezero.catalog.responsedto;
+
+import com.phasezero.catalog.event.ProductChangedEvent.ChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChange {
+    // Position in this process's change feed; the event id, which adds the boot id, is what resumes after it
+    private long sequence;
+    private ChangeType type;
+    // The product as the change left it; for DELETED, as it was last stored
+    private ProductResponse product;
+    private LocalDateTime committedAt;
+}
@@ -0,0 +1,23 @@
+package com.phasezero.catalog.responsedto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionResponse {
+
+    public enum Field {
+        PART_NUMBER,
+        PART_NAME
+    }
+
+    private String text;
+    private Field field;
+    // Product with this part number, or the lowest id among products sharing this name
+    private Long productId;
+}
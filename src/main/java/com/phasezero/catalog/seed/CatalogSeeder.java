@@ -0,0 +1,255 @@
+package com.phasezero.catalog.seed;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.persistence.CatalogPersistence;
+import com.phasezero.catalog.persistence.ProductIdSequence;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Bulk loader for the startup catalog, chosen with {@code catalog.seed.source}:
+ * <ul>
+ *   <li>{@code sample} - the handful of demo products from {@code DataInitializer} (default)</li>
+ *   <li>{@code synthetic} - {@code catalog.seed.rows} products from {@link SyntheticProducts}</li>
+ *   <li>{@code csv} - {@code catalog.seed.file}, imported by H2 itself with {@code CSVREAD}; the header
+ *       names the columns {@code part_number, part_name, category, price, stock, brand, description}</li>
+ *   <li>{@code ndjson} - {@code catalog.seed.file}, one product per line as written by {@code GET /export}</li>
+ *   <li>{@code none}</li>
+ * </ul>
+ * Products are only loaded into an empty table, with plain JDBC batches rather than one entity
+ * save each, so no change events are published; the read models are built from the table once the
+ * application is ready. Ids are assigned in load order and the id sequence is moved past them.
+ */
+@Component
+@Slf4j
+public class CatalogSeeder {
+
+    private static final String INSERT = "INSERT INTO products (id, part_number, part_name, category, price, stock, "
+            + "brand, description, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String CSV_IMPORT = "INSERT INTO products (id, part_number, part_name, category, price, "
+            + "stock, brand, description, created_at, updated_at) "
+            + "SELECT ? + ROWNUM(), UPPER(TRIM(part_number)), LOWER(TRIM(part_name)), TRIM(category), "
+            + "CAST(price AS NUMERIC(10, 2)), CAST(stock AS INT), NULLIF(brand, ''), NULLIF(description, ''), ?, ? "
+            + "FROM CSVREAD(%s, NULL, 'charset=UTF-8')";
+    // Bean Validation rules on Product that the table itself does not enforce
+    private static final String CSV_INVALID = "SELECT COUNT(*) FROM products WHERE price < 0.01 OR stock < 0 "
+            + "OR LENGTH(part_number) < 3 OR LENGTH(part_name) < 2 OR LENGTH(category) < 2";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ObjectProvider<CatalogPersistence> persistence;
+    private final String source;
+    private final String file;
+    private final int rows;
+    private final long randomSeed;
+    private final int batchSize;
+
+    private volatile long seededRows;
+    private volatile long seedMillis;
+    private volatile long readyMillis;
+
+    public CatalogSeeder(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                         Validator validator, ObjectProvider<CatalogPersistence> persistence, MeterRegistry meterRegistry,
+                         @Value("${catalog.seed.source:sample}") String source,
+                         @Value("${catalog.seed.file:}") String file,
+                         @Value("${catalog.seed.rows:100000}") int rows,
+                         @Value("${catalog.seed.random-seed:42}") long randomSeed,
+                         @Value("${catalog.seed.batch-size:5000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.persistence = persistence;
+        this.source = source.trim().toLowerCase(Locale.ROOT);
+        this.file = file;
+        this.rows = rows;
+        this.randomSeed = randomSeed;
+        this.batchSize = Math.max(1, batchSize);
+        Gauge.builder("catalog.seed.rows", this, s -> s.seededRows)
+                .description("Products loaded by the startup seed")
+                .register(meterRegistry);
+        TimeGauge.builder("catalog.seed.duration", this, TimeUnit.MILLISECONDS, s -> s.seedMillis)
+                .description("Time taken by the startup seed")
+                .register(meterRegistry);
+        TimeGauge.builder("catalog.seed.ready", this, TimeUnit.MILLISECONDS, s -> s.readyMillis)
+                .description("Time from JVM start until the seeded catalog and its read models were ready")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the configured source if the products table is empty, with {@code samples} standing in
+     * for the {@code sample} source. Returns the number of products loaded.
+     */
+    public long seedIfEmpty(List<Product> samples) throws IOException {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Integer.class);
+        if (existing != null && existing > 0) {
+            log.info("Catalog already holds {} products; not seeding", existing);
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        long loaded = switch (source) {
+            case "none" -> 0;
+            case "sample" -> load(samples.stream());
+            case "synthetic" -> load(new SyntheticProducts(randomSeed).stream(rows));
+            case "csv" -> loadCsv(seedFile());
+            case "ndjson" -> loadNdjson(seedFile());
+            default -> throw new IllegalArgumentException("Unknown catalog.seed.source '" + source
+                    + "', expected one of none, sample, synthetic, csv, ndjson");
+        };
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        seededRows = loaded;
+        seedMillis = millis;
+        if (loaded > 0) {
+            log.info("Seeded {} products from {} in {} ms ({} products/s)", loaded, source, millis,
+                    loaded * 1000 / Math.max(1, millis));
+            // Seeded rows bypass the journal, so snapshot them right away
+            CatalogPersistence catalogPersistence = persistence.getIfAvailable();
+            if (catalogPersistence != null) {
+                catalogPersistence.compact();
+            }
+        }
+        return loaded;
+    }
+
+    /** Inserts {@code products} in JDBC batches after the current highest id. Returns the number inserted. */
+    public long load(Stream<Product> products) {
+        return load(products.iterator());
+    }
+
+    /** Imports a CSV file in one statement; nothing is loaded if any row breaks Product's constraints. */
+    public long loadCsv(Path path) {
+        long firstId = nextId();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Integer loaded = transactionTemplate.execute(status -> {
+            // CSVREAD opens the file while the statement is prepared, so its name cannot be a parameter
+            String fileName = "'" + path.toAbsolutePath().toString().replace("'", "''") + "'";
+            int count = jdbcTemplate.update(CSV_IMPORT.formatted(fileName), firstId - 1, now, now);
+            Integer invalid = jdbcTemplate.queryForObject(CSV_INVALID, Integer.class);
+            if (invalid != null && invalid > 0) {
+                throw new IllegalArgumentException(invalid + " rows of " + path
+                        + " break the product constraints (price, stock or field lengths)");
+            }
+            return count;
+        });
+        ProductIdSequence.moveAfterStoredIds(jdbcTemplate);
+        return loaded != null ? loaded : 0;
+    }
+
+    /** Loads one JSON product per line, validated like a create request. */
+    public long loadNdjson(Path path) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+             MappingIterator<Product> lines = objectMapper.readerFor(Product.class).readValues(reader)) {
+            return load(new Iterator<>() {
+                private long line;
+
+                @Override
+                public boolean hasNext() {
+                    return lines.hasNext();
+                }
+
+                @Override
+                public Product next() {
+                    Product product = lines.next();
+                    line++;
+                    Set<ConstraintViolation<Product>> violations = validator.validate(product);
+                    if (!violations.isEmpty()) {
+                        throw new IllegalArgumentException(path + " line " + line + ": " + violations.stream()
+                                .map(ConstraintViolation::getMessage)
+                                .sorted()
+                                .collect(Collectors.joining(", ")));
+                    }
+                    return product;
+                }
+            });
+        }
+    }
+
+    // Once the read models have been built too: readiness is published after the ApplicationReadyEvent listeners
+    @EventListener
+    public void onAvailabilityChange(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC) {
+            readyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+            log.info("Catalog ready {} ms after JVM start ({} seeded products, seed took {} ms)",
+                    readyMillis, seededRows, seedMillis);
+        }
+    }
+
+    // Normalized as Product's @PrePersist does; timestamps default to the load time
+    private long load(Iterator<Product> products) {
+        long nextId = nextId();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        long count = 0;
+        while (products.hasNext()) {
+            Product product = products.next();
+            batch.add(new Object[]{
+                    nextId + count,
+                    product.getPartNumber().toUpperCase().trim(),
+                    product.getPartName().toLowerCase().trim(),
+                    product.getCategory().trim(),
+                    product.getPrice(),
+                    product.getStock(),
+                    product.getBrand(),
+                    product.getDescription(),
+                    product.getCreatedAt() != null ? Timestamp.valueOf(product.getCreatedAt()) : now,
+                    product.getUpdatedAt() != null ? Timestamp.valueOf(product.getUpdatedAt()) : now
+            });
+            count++;
+            if (batch.size() == batchSize) {
+                jdbcTemplate.batchUpdate(INSERT, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, batch);
+        }
+        ProductIdSequence.moveAfterStoredIds(jdbcTemplate);
+        return count;
+    }
+
+    private Path seedFile() {
+        if (file == null || file.isBlank()) {
+            throw new IllegalArgumentException("catalog.seed.file is required for catalog.seed.source=" + source);
+        }
+        return Path.of(file);
+    }
+
+    private long nextId() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM products", Long.class);
+        return maxId != null ? maxId + 1 : 1;
+    }
+}
@@ -0,0 +1,166 @@
+package com.phasezero.catalog.seed;
+
+import com.phasezero.catalog.entity.Product;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Deterministic generator of realistic catalog rows. Product {@code i} depends only on the seed
+ * and {@code i}, so any run (or any client of a seeded instance) can regenerate the same catalog,
+ * or a single product of it, without coordination.
+ * <p>
+ * Distributions follow a typical parts catalog: a few categories hold most of the products, each
+ * category has its own brands (the first ones far more common) and a log-normal price around its
+ * own median ending in .99, and stock is mostly low with some products out of stock.
+ */
+public final class SyntheticProducts {
+
+    private static final Category[] CATEGORIES = {
+            new Category("Filters", "FLT", 22, 24, 0.6,
+                    new String[]{"oil filter", "air filter", "fuel filter", "cabin filter", "hydraulic filter"},
+                    new String[]{"MANN", "Bosch", "Mahle", "Fram", "Wix"}),
+            new Category("Brakes", "BRK", 18, 65, 0.7,
+                    new String[]{"brake pads", "brake disc", "brake caliper", "brake hose", "brake shoe"},
+                    new String[]{"Brembo", "ATE", "TRW", "Bosch", "Ferodo"}),
+            new Category("Engine", "ENG", 16, 120, 0.9,
+                    new String[]{"timing belt", "water pump", "fuel pump", "gasket set", "piston ring", "oil pump"},
+                    new String[]{"Gates", "Mahle", "Bosch", "Elring", "Victor Reinz", "INA"}),
+            new Category("Electrical", "ELC", 12, 90, 0.9,
+                    new String[]{"alternator", "starter motor", "battery", "ignition coil", "sensor"},
+                    new String[]{"Bosch", "Valeo", "Denso", "Varta", "Hella"}),
+            new Category("Suspension", "SUS", 10, 85, 0.7,
+                    new String[]{"shock absorber", "coil spring", "control arm", "ball joint", "wheel bearing"},
+                    new String[]{"Sachs", "Monroe", "KYB", "Lemforder", "SKF"}),
+            new Category("Cooling", "COL", 8, 70, 0.7,
+                    new String[]{"radiator", "radiator hose", "thermostat", "cooling fan", "expansion tank"},
+                    new String[]{"Nissens", "Valeo", "Behr", "Gates"}),
+            new Category("Ignition", "IGN", 7, 14, 0.5,
+                    new String[]{"spark plug", "glow plug", "ignition lead", "distributor cap"},
+                    new String[]{"NGK", "Bosch", "Denso", "Beru"}),
+            new Category("Lubricants", "LUB", 5, 30, 0.5,
+                    new String[]{"engine oil", "gear oil", "brake fluid", "coolant", "grease"},
+                    new String[]{"Mobil", "Castrol", "Shell", "Liqui Moly", "Motul"}),
+            new Category("Exhaust", "EXH", 2, 150, 0.8,
+                    new String[]{"catalytic converter", "muffler", "exhaust pipe", "lambda sensor"},
+                    new String[]{"Walker", "Bosal", "Eberspacher"}),
+    };
+    private static final String[] ADJECTIVES = {"standard", "premium", "heavy duty", "compact", "reinforced",
+            "high performance", "OEM quality"};
+    private static final String[] MATERIALS = {"steel", "aluminium", "ceramic", "rubber", "synthetic", "cast iron",
+            "copper", "iridium", "nitrile", "carbon"};
+    private static final String[] FEATURES = {"long life", "low noise", "corrosion resistant", "direct fit",
+            "high temperature", "easy installation", "low dust"};
+    private static final String[] VEHICLES = {"passenger cars", "light trucks", "SUVs", "vans", "commercial vehicles",
+            "motorcycles"};
+    private static final int TOTAL_WEIGHT = totalWeight();
+    private static final double OUT_OF_STOCK_RATE = 0.08;
+    private static final double MEAN_STOCK = 60;
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    private final long seed;
+
+    public SyntheticProducts(long seed) {
+        this.seed = seed;
+    }
+
+    /** Products {@code 0} to {@code rows - 1}, in order. */
+    public Stream<Product> stream(long rows) {
+        return LongStream.range(0, rows).mapToObj(this::product);
+    }
+
+    /** Product {@code index}, without an id. Part numbers are unique across indexes. */
+    public Product product(long index) {
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + index);
+        Category category = category(random.nextInt(TOTAL_WEIGHT));
+        String kind = category.kinds[random.nextInt(category.kinds.length)];
+        LocalDateTime createdAt = ORIGIN.plusMinutes(index);
+        return Product.builder()
+                .partNumber(partNumber(category, index))
+                .partName(ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + kind)
+                .category(category.name)
+                .price(price(category, random))
+                .stock(stock(random))
+                .brand(category.brands[skewed(random, category.brands.length)])
+                .description(MATERIALS[random.nextInt(MATERIALS.length)] + " " + kind + ", "
+                        + FEATURES[random.nextInt(FEATURES.length)] + ", for "
+                        + VEHICLES[skewed(random, VEHICLES.length)])
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .build();
+    }
+
+    /** Part number of product {@code index}, e.g. to address an existing product without reading it back. */
+    public String partNumber(long index) {
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + index);
+        return partNumber(category(random.nextInt(TOTAL_WEIGHT)), index);
+    }
+
+    private static String partNumber(Category category, long index) {
+        return String.format("%s-%08d", category.prefix, index + 1);
+    }
+
+    private static Category category(int weight) {
+        for (Category category : CATEGORIES) {
+            weight -= category.weight;
+            if (weight < 0) {
+                return category;
+            }
+        }
+        throw new IllegalStateException("Weight outside of the category weights");
+    }
+
+    // Log-normal around the category median, as a .99 price
+    private static BigDecimal price(Category category, SplittableRandom random) {
+        double price = category.medianPrice * Math.exp(category.priceSpread * random.nextGaussian());
+        return BigDecimal.valueOf(Math.max(1, Math.round(price))).subtract(new BigDecimal("0.01"))
+                .setScale(2, RoundingMode.UNNECESSARY);
+    }
+
+    // Out of stock at OUT_OF_STOCK_RATE, otherwise exponential around MEAN_STOCK
+    private static int stock(SplittableRandom random) {
+        if (random.nextDouble() < OUT_OF_STOCK_RATE) {
+            return 0;
+        }
+        return 1 + (int) Math.min(10_000, -MEAN_STOCK * Math.log(1 - random.nextDouble()));
+    }
+
+    // Index in [0, n), the first ones far more likely
+    private static int skewed(SplittableRandom random, int n) {
+        double u = random.nextDouble();
+        return (int) (n * u * u);
+    }
+
+    private static int totalWeight() {
+        int total = 0;
+        for (Category category : CATEGORIES) {
+            total += category.weight;
+        }
+        return total;
+    }
+
+    private static final class Category {
+        private final String name;
+        private final String prefix;
+        private final int weight;
+        private final double medianPrice;
+        private final double priceSpread;
+        private final String[] kinds;
+        private final String[] brands;
+
+        private Category(String name, String prefix, int weight, double medianPrice, double priceSpread,
+                         String[] kinds, String[] brands) {
+            this.name = name;
+            this.prefix = prefix;
+            this.weight = weight;
+            this.medianPrice = medianPrice;
+            this.priceSpread = priceSpread;
+            this.kinds = kinds;
+            this.brands = brands;
+        }
+    }
+}
@@ -1,20 +1,50 @@
 package com.phasezero.catalog.service;
 
+import com.phasezero.catalog.requestdto.ExportSort;
+import com.phasezero.catalog.requestdto.PriceRange;
 import com.phasezero.catalog.requestdto.ProductRequest;
+import com.phasezero.catalog.responsedto.BatchCreateResponse;
+import com.phasezero.catalog.responsedto.CursorPageResponse;
+import com.phasezero.catalog.responsedto.FacetedSearchResponse;
 import com.phasezero.catalog.responsedto.InventoryValueResponse;
 import com.phasezero.catalog.responsedto.ProductResponse;
+import com.phasezero.catalog.responsedto.SuggestionResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ProductService {
     ProductResponse createProduct(ProductRequest request);
+    BatchCreateResponse createProducts(List<ProductRequest> requests);
+    // Atomically adds delta (negative to take) to the stock; never lets it go below zero
+    ProductResponse adjustStock(Long id, int delta);
+
     Page<ProductResponse> getAllProducts(Pageable pageable);
+    CursorPageResponse<ProductResponse> getProductsByCursor(String cursor, int size);
+
+    // Products priced within [minPrice, maxPrice] (either may be null), cheapest first, with a cursor
+    CursorPageResponse<ProductResponse> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice,
+                                                                String category, String cursor, int size);
     List<ProductResponse> searchProductsByName(String name);
+
+    // Up to limit products matching any word of the query in name, brand or description, best first
+    List<ProductResponse> searchFullText(String query, int limit);
+
+    // Up to limit distinct part numbers and names starting with prefix (case-insensitive), for autocomplete
+    List<SuggestionResponse> suggest(String prefix, int limit);
+
+    // Matching products (by name, category and brand) with category, brand and price-range counts
+    FacetedSearchResponse facetedSearch(String name, String category, String brand,
+                                        List<PriceRange> priceRanges, int page, int size);
     List<ProductResponse> filterProductsByCategory(String category);
     List<ProductResponse> sortProductsByPriceAsc();
 
-    // **ONLY returns total inventory value** (sum of price * stock)
+    // Streams every product to the consumer in the given order; returns the number of rows exported
+    long exportProducts(ExportSort sort, Consumer<ProductResponse> consumer);
+
+    // Total inventory value (sum of price * stock), with per-category and per-brand breakdowns
     InventoryValueResponse calculateTotalInventoryValue();
 }
\ No newline at end of file
@@ -1,101 +1,584 @@
 package com.phasezero.catalog.service.impl;
 
+import com.phasezero.catalog.cache.ProductQueryCache;
 import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.event.ProductChangedEvent;
+import com.phasezero.catalog.exception.DuplicatePartNumberException;
 import com.phasezero.catalog.exception.DuplicateProductException;
+import com.phasezero.catalog.exception.InsufficientStockException;
 import com.phasezero.catalog.exception.ProductNotFoundException; // Changed import
+import com.phasezero.catalog.exception.ValidationException;
+import com.phasezero.catalog.index.FullTextIndex;
+import com.phasezero.catalog.index.PartNumberFilter;
+import com.phasezero.catalog.index.PriceIndex;
+import com.phasezero.catalog.index.ProductFacetIndex;
+import com.phasezero.catalog.index.ProductFacetIndex.FacetCounts;
+import com.phasezero.catalog.index.ProductNameIndex;
+import com.phasezero.catalog.index.SuggestionIndex;
+import com.phasezero.catalog.inventory.InventoryAggregates;
+import com.phasezero.catalog.inventory.StockWriteBehind;
 import com.phasezero.catalog.repository.ProductRepository;
+import com.phasezero.catalog.repository.ProductSuggestionView;
+import com.phasezero.catalog.requestdto.ExportSort;
+import com.phasezero.catalog.requestdto.PriceCursor;
+import com.phasezero.catalog.requestdto.PriceRange;
+import com.phasezero.catalog.requestdto.ProductCursor;
 import com.phasezero.catalog.requestdto.ProductRequest;
+import com.phasezero.catalog.responsedto.BatchCreateResponse;
+import com.phasezero.catalog.responsedto.BatchRowResult;
+import com.phasezero.catalog.responsedto.CursorPageResponse;
+import com.phasezero.catalog.responsedto.FacetedSearchResponse;
 import com.phasezero.catalog.responsedto.InventoryValueResponse;
+import com.phasezero.catalog.responsedto.PriceBucket;
 import com.phasezero.catalog.responsedto.ProductResponse;
+import com.phasezero.catalog.responsedto.SuggestionResponse;
 import com.phasezero.catalog.service.ProductService;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class
 ProductServiceImpl implements ProductService {
 
+    private static final int ID_LOOKUP_CHUNK_SIZE = 1_000;
+    private static final int BROAD_MATCH_RATIO = 10;
+    private static final int MAX_BATCH_SIZE = 100_000;
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int MAX_SUGGESTIONS = 50;
+    // Upper bound for open-ended price ranges, and the cap on client bounds; above the column's precision
+    private static final BigDecimal UNBOUNDED_PRICE = new BigDecimal("1E18");
+    // Multiple of hibernate.jdbc.batch_size; bounds the persistence context during batch inserts
+    private static final int BATCH_FLUSH_SIZE = 500;
+
     private final ProductRepository productRepository;
+    private final ProductNameIndex productNameIndex;
+    private final ProductFacetIndex productFacetIndex;
+    private final FullTextIndex fullTextIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final PriceIndex priceIndex;
+    private final PartNumberFilter partNumberFilter;
+    private final InventoryAggregates inventoryAggregates;
+    private final StockWriteBehind stockWriteBehind;
+    private final ProductQueryCache productQueryCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Validator validator;
 
     @Override
     @Transactional
     public ProductResponse createProduct(ProductRequest request) {
-        if (productRepository.existsByPartNumber(request.getPartNumber())) {
-            throw new DuplicateProductException(request.getPartNumber());
+        Product product = toEntity(request);
+
+        // A single INSERT: the unique constraint decides whether the part number is taken, which also
+        // holds for concurrent creates, where a check-then-insert would let both through. Flushing makes
+        // the insert (and the generated timestamps) happen now; ids come from the sequence.
+        Product savedProduct;
+        try {
+            savedProduct = productRepository.saveAndFlush(product);
+        } catch (DataIntegrityViolationException ex) {
+            if (violatesConstraint(ex, Product.PART_NUMBER_CONSTRAINT)) {
+                throw new DuplicateProductException(normalizePartNumber(request.getPartNumber()));
+            }
+            throw ex;
         }
+        eventPublisher.publishEvent(ProductChangedEvent.created(savedProduct));
+        return convertToProductResponse(savedProduct);
+    }
 
-        Product product = Product.builder()
-                .partNumber(request.getPartNumber())
-                .partName(request.getName())
-                .category(request.getCategory())
-                .price(request.getPrice())
-                .stock(request.getStock())
-                .brand(request.getBrand())
-                .description(request.getDescription())
-                .build();
+    @Override
+    public ProductResponse adjustStock(Long id, int delta) {
+        if (delta == 0) {
+            throw new ValidationException("Delta must not be zero");
+        }
+        // Buffered deltas are answered from memory and written in batches, without a transaction each
+        if (stockWriteBehind.isEnabled()) {
+            return stockWriteBehind.adjust(id, delta);
+        }
+        return transactionTemplate.execute(status -> adjustStockNow(id, delta));
+    }
 
-        Product savedProduct = productRepository.save(product);
-        return convertToProductResponse(savedProduct);
+    private ProductResponse adjustStockNow(Long id, int delta) {
+        // One conditional UPDATE instead of load-modify-save: concurrent orders for the same SKU queue
+        // only on the row lock for this statement, and the WHERE clause keeps the stock from going negative
+        if (productRepository.adjustStock(id, delta, LocalDateTime.now()) == 0) {
+            if (!productRepository.existsById(id)) {
+                throw new ProductNotFoundException("Product not found with id: " + id);
+            }
+            throw new InsufficientStockException("Insufficient stock for product " + id + " to take " + -delta);
+        }
+
+        // Re-read inside the transaction, so this is the row as this adjustment left it
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
+        Product previous = product.toBuilder().stock(product.getStock() - delta).build();
+        eventPublisher.publishEvent(ProductChangedEvent.stockAdjusted(product, previous));
+        return convertToProductResponse(product);
+    }
+
+    @Override
+    @Transactional
+    public BatchCreateResponse createProducts(List<ProductRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new ValidationException("Batch must contain at least one product");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Batch must not contain more than " + MAX_BATCH_SIZE + " products");
+        }
+
+        BatchRowResult[] results = new BatchRowResult[requests.size()];
+
+        // 1. Bean validation per row; invalid rows are reported, not fatal
+        Map<String, Integer> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            ProductRequest request = requests.get(i);
+            String violations = request == null ? "Product is required" : describeViolations(request);
+            if (violations != null) {
+                results[i] = rowResult(i, request, BatchRowResult.Status.INVALID, violations);
+                continue;
+            }
+
+            // Same normalization as Product#normalizeData, so duplicates are detected as stored
+            String partNumber = normalizePartNumber(request.getPartNumber());
+            if (candidates.putIfAbsent(partNumber, i) != null) {
+                results[i] = rowResult(i, request, BatchRowResult.Status.DUPLICATE,
+                        "Part number '" + partNumber + "' appears more than once in the batch");
+            }
+        }
+
+        // 2. Part numbers the filter rules out are definitely new; only the rest are looked up, one
+        //    set-based query per chunk instead of existsByPartNumber per row
+        List<String> partNumbers = candidates.keySet().stream()
+                .filter(partNumberFilter::mightContain)
+                .toList();
+        int found = 0;
+        for (int from = 0; from < partNumbers.size(); from += ID_LOOKUP_CHUNK_SIZE) {
+            int to = Math.min(from + ID_LOOKUP_CHUNK_SIZE, partNumbers.size());
+            for (String existing : productRepository.findExistingPartNumbers(partNumbers.subList(from, to))) {
+                int i = candidates.remove(existing);
+                results[i] = rowResult(i, requests.get(i), BatchRowResult.Status.DUPLICATE,
+                        "Product with part number '" + existing + "' already exists");
+                found++;
+            }
+        }
+        if (partNumberFilter.isReady()) {
+            partNumberFilter.recordFalsePositives(partNumbers.size() - found);
+        }
+
+        // 3. Insert through Hibernate JDBC batching, clearing the persistence context per chunk
+        List<Product> created = new ArrayList<>(candidates.size());
+        List<Product> chunk = new ArrayList<>(BATCH_FLUSH_SIZE);
+        try {
+            for (int i : candidates.values()) {
+                Product product = toEntity(requests.get(i));
+                entityManager.persist(product);
+                chunk.add(product);
+                if (chunk.size() == BATCH_FLUSH_SIZE) {
+                    flushChunk(chunk, created);
+                }
+            }
+            flushChunk(chunk, created);
+        } catch (ConstraintViolationException ex) {
+            // Only reachable when another request inserted one of these part numbers concurrently
+            throw new DuplicatePartNumberException(
+                    "Batch rejected: a part number in the batch was created concurrently, please retry");
+        }
+
+        for (Product product : created) {
+            int i = candidates.get(product.getPartNumber());
+            results[i] = BatchRowResult.builder()
+                    .index(i)
+                    .partNumber(product.getPartNumber())
+                    .status(BatchRowResult.Status.CREATED)
+                    .id(product.getId())
+                    .build();
+            eventPublisher.publishEvent(ProductChangedEvent.created(product));
+        }
+
+        return BatchCreateResponse.builder()
+                .requested(requests.size())
+                .created(created.size())
+                .rejected(requests.size() - created.size())
+                .results(Arrays.asList(results))
+                .build();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductResponse> getAllProducts(Pageable pageable) {
-        Page<Product> products = productRepository.findAll(pageable);
-        return products.map(this::convertToProductResponse);
+        Page<ProductResponse> page = productRepository.findAllResponses(pageable);
+        stockWriteBehind.applyPending(page.getContent());
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ProductResponse> getProductsByCursor(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        // One extra row tells us whether there is a next page without a count query
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<ProductResponse> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = productRepository.findAllByOrderByCreatedAtDescIdDesc(limit);
+        } else {
+            ProductCursor position = ProductCursor.decode(cursor);
+            rows = productRepository.findPageAfter(position.getCreatedAt(), position.getId(), limit);
+        }
+
+        stockWriteBehind.applyPending(rows);
+        boolean hasNext = rows.size() > pageSize;
+        List<ProductResponse> page = hasNext ? rows.subList(0, pageSize) : rows;
+        ProductResponse last = page.isEmpty() ? null : page.get(page.size() - 1);
+
+        return CursorPageResponse.<ProductResponse>builder()
+                .content(new ArrayList<>(page))
+                .size(page.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? new ProductCursor(last.getCreatedAt(), last.getId()).encode() : null)
+                .build();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ProductResponse> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice,
+                                                                       String category, String cursor, int size) {
+        if (minPrice != null && minPrice.signum() < 0 || maxPrice != null && maxPrice.signum() < 0) {
+            throw new ValidationException("Price bounds must not be negative");
+        }
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new ValidationException("minPrice must not be greater than maxPrice");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        PriceCursor after = cursor == null || cursor.isBlank() ? null : PriceCursor.decode(cursor);
+        String categoryFilter = trimToNull(category);
+        // No stored price comes near the cap, so capping changes no result but keeps huge bounds cheap
+        BigDecimal lowest = capped(minPrice);
+        BigDecimal highest = capped(maxPrice);
+        BigDecimal afterPrice = after != null ? capped(after.getPrice()) : null;
+
+        // One extra row tells us whether there is a next page
+        List<ProductResponse> rows;
+        if (priceIndex.isReady()) {
+            List<Long> ids = priceIndex.range(lowest, highest, categoryFilter,
+                    afterPrice, after != null ? after.getId() : null, pageSize + 1);
+            rows = findAllByIdInOrder(ids);
+        } else {
+            rows = productRepository.findPriceRange(
+                    lowest != null ? lowest : BigDecimal.ZERO,
+                    highest != null ? highest : UNBOUNDED_PRICE,
+                    categoryFilter,
+                    afterPrice != null ? afterPrice : BigDecimal.ONE.negate(),
+                    after != null ? after.getId() : 0L,
+                    Limit.of(pageSize + 1));
+        }
+
+        stockWriteBehind.applyPending(rows);
+        boolean hasNext = rows.size() > pageSize;
+        List<ProductResponse> page = hasNext ? rows.subList(0, pageSize) : rows;
+        ProductResponse last = page.isEmpty() ? null : page.get(page.size() - 1);
+
+        return CursorPageResponse.<ProductResponse>builder()
+                .content(new ArrayList<>(page))
+                .size(page.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? new PriceCursor(last.getPrice(), last.getId()).encode() : null)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<ProductResponse> searchProductsByName(String name) {
-        List<Product> products = productRepository.findByPartNameContainingIgnoreCase(name);
+        List<ProductResponse> products;
+        List<Long> ids = productNameIndex.isReady() ? productNameIndex.search(name) : null;
+        if (ids != null && ids.size() <= productNameIndex.size() / BROAD_MATCH_RATIO) {
+            // Answer from the trigram index, then load only the matching rows by primary key
+            products = findAllByIdOrdered(ids);
+        } else {
+            // Index not built yet, or the term matches so much of the catalog that one scan is cheaper
+            products = productRepository.findByPartNameContaining(name.toLowerCase());
+        }
 
         if (products.isEmpty()) {
             throw new ProductNotFoundException("No products found with name containing: " + name);
         }
 
-        return products.stream()
-                .map(this::convertToProductResponse)
-                .collect(Collectors.toList());
+        stockWriteBehind.applyPending(products);
+        return products;
     }
 
     @Override
-    public List<ProductResponse> filterProductsByCategory(String category) {
-        List<Product> products = productRepository.findByCategory(category);
+    @Transactional(readOnly = true)
+    public List<ProductResponse> searchFullText(String query, int limit) {
+        List<String> terms = FullTextIndex.tokenize(query);
+        if (terms.isEmpty()) {
+            throw new ValidationException("Search query must contain at least one word or number");
+        }
+        int topK = Math.max(1, Math.min(limit, MAX_CURSOR_PAGE_SIZE));
+
+        List<ProductResponse> products;
+        if (fullTextIndex.isReady()) {
+            // Only the top K ids leave the index; those rows are then loaded by primary key
+            products = findAllByIdInOrder(fullTextIndex.search(query, topK));
+        } else {
+            // Index not built yet: unranked matches on the first term
+            products = productRepository.findByTextContaining(terms.get(0), Limit.of(topK));
+        }
 
         if (products.isEmpty()) {
-            throw new ProductNotFoundException("No products found in category: " + category);
+            throw new ProductNotFoundException("No products found matching: " + query);
         }
 
-        return products.stream()
-                .map(this::convertToProductResponse)
-                .collect(Collectors.toList());
+        stockWriteBehind.applyPending(products);
+        return products;
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new ValidationException("Suggestion prefix must not be blank");
+        }
+        int count = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        // An empty list is a normal answer while typing, not a 404
+        if (suggestionIndex.isReady()) {
+            return suggestionIndex.suggest(prefix, count);
+        }
+        // Index not built yet: the first matching rows, in id order
+        List<ProductSuggestionView> rows = productRepository.findSuggestionFieldsByPrefix(
+                prefix.trim().toLowerCase(Locale.ROOT), Limit.of(count));
+        return SuggestionIndex.suggest(rows, prefix, count);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public FacetedSearchResponse facetedSearch(String name, String category, String brand,
+                                               List<PriceRange> priceRanges, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        int offset = (int) Math.min((long) pageNumber * pageSize, Integer.MAX_VALUE);
+
+        // Candidates from the name index (ascending ids), then every facet in one pass over them
+        List<Long> candidates = name == null || name.isBlank() ? null : nameMatches(name);
+        FacetCounts counts = productFacetIndex.count(candidates, trimToNull(category), trimToNull(brand),
+                priceRanges, offset, pageSize);
+
+        List<PriceBucket> buckets = new ArrayList<>(priceRanges.size());
+        for (int i = 0; i < priceRanges.size(); i++) {
+            buckets.add(PriceBucket.builder()
+                    .from(priceRanges.get(i).getFrom())
+                    .to(priceRanges.get(i).getTo())
+                    .count(counts.getPriceRangeCounts()[i])
+                    .build());
+        }
+
+        List<ProductResponse> content = findAllByIdOrdered(counts.getPageIds());
+        stockWriteBehind.applyPending(content);
+        return FacetedSearchResponse.builder()
+                .content(content)
+                .page(pageNumber)
+                .size(pageSize)
+                .totalMatches(counts.getTotalMatches())
+                .categories(counts.getCategories())
+                .brands(counts.getBrands())
+                .priceRanges(buckets)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductResponse> filterProductsByCategory(String category) {
+        List<ProductResponse> products = productQueryCache.byCategory(category, () -> {
+            List<ProductResponse> rows = productRepository.findByCategory(category.trim());
+            if (rows.isEmpty()) {
+                throw new ProductNotFoundException("No products found in category: " + category);
+            }
+            // Cached and shared between callers, so the list must not be modifiable
+            return Collections.unmodifiableList(rows);
+        });
+        // Buffered stock deltas go on a copy, so the cached entry outlives them
+        return stockWriteBehind.withPending(products);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<ProductResponse> sortProductsByPriceAsc() {
-        List<Product> products = productRepository.findAllByOrderByPriceAsc();
-        return products.stream()
-                .map(this::convertToProductResponse)
-                .collect(Collectors.toList());
+        List<ProductResponse> products = productQueryCache.byPrice(
+                () -> Collections.unmodifiableList(productRepository.findAllByOrderByPriceAsc()));
+        return stockWriteBehind.withPending(products);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportProducts(ExportSort sort, Consumer<ProductResponse> consumer) {
+        long exported = 0;
+        // Rows are projected, not managed, so the persistence context stays empty however large the catalog
+        try (Stream<ProductResponse> products = productRepository.streamAll(sort.getSort())) {
+            Iterator<ProductResponse> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                ProductResponse product = iterator.next();
+                stockWriteBehind.applyPending(product);
+                consumer.accept(product);
+                exported++;
+            }
+        }
+        return exported;
     }
 
     @Override
     public InventoryValueResponse calculateTotalInventoryValue() {
+        List<ProductChangedEvent> unwritten = stockWriteBehind.unwrittenChanges();
+        if (inventoryAggregates.isReady()) {
+            return inventoryAggregates.snapshot(unwritten);
+        }
+
         BigDecimal totalValue = productRepository.calculateTotalInventoryValue();
         if (totalValue == null) {
             totalValue = BigDecimal.ZERO;
         }
+        for (ProductChangedEvent change : unwritten) {
+            int delta = change.getProduct().getStock() - change.getPrevious().getStock();
+            totalValue = totalValue.add(change.getProduct().getPrice().multiply(BigDecimal.valueOf(delta)));
+        }
 
         return new InventoryValueResponse(totalValue);
     }
 
+    private void flushChunk(List<Product> chunk, List<Product> created) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        entityManager.clear();
+        created.addAll(chunk);
+        chunk.clear();
+    }
+
+    private String describeViolations(ProductRequest request) {
+        Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private static BatchRowResult rowResult(int index, ProductRequest request, BatchRowResult.Status status,
+                                            String message) {
+        return BatchRowResult.builder()
+                .index(index)
+                .partNumber(request != null ? request.getPartNumber() : null)
+                .status(status)
+                .message(message)
+                .build();
+    }
+
+    private static boolean violatesConstraint(DataIntegrityViolationException ex, String constraint) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            // Databases report the name in their own case and may qualify it, e.g. PUBLIC.UK_..._INDEX_1
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase().contains(constraint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Stored values are normalized by Product#normalizeData; lookups must match that form
+    private static String normalizePartNumber(String partNumber) {
+        return partNumber.toUpperCase().trim();
+    }
+
+    private Product toEntity(ProductRequest request) {
+        return Product.builder()
+                .partNumber(request.getPartNumber())
+                .partName(request.getName())
+                .category(request.getCategory())
+                .price(request.getPrice())
+                .stock(request.getStock())
+                .brand(request.getBrand())
+                .description(request.getDescription())
+                .build();
+    }
+
+    // Ascending ids of the products whose name contains the term
+    private List<Long> nameMatches(String name) {
+        if (productNameIndex.isReady()) {
+            return productNameIndex.search(name);
+        }
+        return productRepository.findByPartNameContaining(name.toLowerCase()).stream()
+                .map(ProductResponse::getId)
+                .sorted()
+                .toList();
+    }
+
+    private static String trimToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static BigDecimal capped(BigDecimal price) {
+        return price != null ? price.min(UNBOUNDED_PRICE) : null;
+    }
+
+    // Rows for the given ids, in the order of the ids
+    private List<ProductResponse> findAllByIdInOrder(List<Long> ids) {
+        Map<Long, ProductResponse> byId = new HashMap<>(ids.size() * 2);
+        for (ProductResponse product : findAllByIdOrdered(ids)) {
+            byId.put(product.getId(), product);
+        }
+        List<ProductResponse> products = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ProductResponse product = byId.get(id);
+            // Deleted between the index lookup and the fetch
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    // Loads rows by primary key in bounded IN-lists, returned in ascending id order
+    private List<ProductResponse> findAllByIdOrdered(List<Long> ids) {
+        List<ProductResponse> products = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += ID_LOOKUP_CHUNK_SIZE) {
+            int to = Math.min(from + ID_LOOKUP_CHUNK_SIZE, ids.size());
+            products.addAll(productRepository.findResponsesByIdIn(ids.subList(from, to)));
+        }
+        products.sort(Comparator.comparing(ProductResponse::getId));
+        return products;
+    }
+
     private ProductResponse convertToProductResponse(Product product) {
         ProductResponse response = new ProductResponse();
         response.setId(product.getId());
@@ -0,0 +1,92 @@
+package Cache;
+
+import com.phasezero.catalog.PhaseZeroCatalogServiceApplication;
+import com.phasezero.catalog.cache.ProductQueryCache;
+import com.phasezero.catalog.repository.ProductRepository;
+import com.phasezero.catalog.requestdto.ProductRequest;
+import com.phasezero.catalog.responsedto.ProductResponse;
+import com.phasezero.catalog.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = PhaseZeroCatalogServiceApplication.class,
+        properties = "spring.datasource.url=jdbc:h2:mem:cache-test;DB_CLOSE_DELAY=-1")
+public class ProductQueryCacheTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ProductQueryCache productQueryCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoSpyBean
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setup() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        clearInvocations(productRepository);
+    }
+
+    @Test
+    void testFilterProductsByCategory_servedFromCache() {
+        List<ProductResponse> first = productService.filterProductsByCategory("Filters");
+        List<ProductResponse> second = productService.filterProductsByCategory(" Filters ");
+
+        assertSame(first, second);
+        verify(productRepository, times(1)).findByCategory("Filters");
+        assertThrows(UnsupportedOperationException.class, () -> second.remove(0));
+    }
+
+    @Test
+    void testCreateProduct_evictsOnlyTouchedCategory() {
+        productService.filterProductsByCategory("Filters");
+        productService.filterProductsByCategory("Lubricants");
+        productService.sortProductsByPriceAsc();
+        String filtersKey = productQueryCache.categoryKey("Filters");
+        String lubricantsKey = productQueryCache.categoryKey("Lubricants");
+        String priceKey = productQueryCache.priceKey();
+
+        productService.createProduct(new ProductRequest("CACHE-1", "cabin filter", "Filters",
+                new BigDecimal("15.00"), 5, "Bosch", null));
+
+        assertNull(cacheManager.getCache(ProductQueryCache.BY_CATEGORY).get(filtersKey));
+        assertNotNull(cacheManager.getCache(ProductQueryCache.BY_CATEGORY).get(lubricantsKey));
+        assertNull(cacheManager.getCache(ProductQueryCache.BY_PRICE).get(priceKey));
+        assertNotEquals(filtersKey, productQueryCache.categoryKey("Filters"));
+        assertEquals(lubricantsKey, productQueryCache.categoryKey("Lubricants"));
+
+        List<ProductResponse> filters = productService.filterProductsByCategory("Filters");
+        assertTrue(filters.stream().anyMatch(p -> p.getPartNumber().equals("CACHE-1")));
+        verify(productRepository, times(2)).findByCategory("Filters");
+        verify(productRepository, times(1)).findByCategory("Lubricants");
+    }
+
+    @Test
+    void testCacheMetrics_registeredWithActuator() {
+        productService.sortProductsByPriceAsc();
+        productService.sortProductsByPriceAsc();
+
+        assertTrue(meterRegistry.get("cache.gets").tag("cache", ProductQueryCache.BY_PRICE)
+                .tag("result", "hit").functionCounter().count() >= 1);
+        assertNotNull(meterRegistry.get("cache.evictions").tag("cache", ProductQueryCache.BY_CATEGORY)
+                .functionCounter());
+    }
+}
@@ -0,0 +1,92 @@
+package Cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.phasezero.catalog.cache.CatalogVersion;
+import com.phasezero.catalog.cache.ResponseBodyCache;
+import com.phasezero.catalog.cache.ResponseBodyCache.EncodedBody;
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.event.ProductChangedEvent;
+import com.phasezero.catalog.responsedto.ProductResponse;
+import com.phasezero.catalog.responsedto.RestApiResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseBodyCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private CatalogVersion catalogVersion;
+    private ResponseBodyCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setup() {
+        catalogVersion = new CatalogVersion();
+        cache = new ResponseBodyCache(objectMapper, catalogVersion, new SimpleMeterRegistry(), 1 << 20, true, 64);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testRender_matchesJacksonWithSplicedTimestamp() throws Exception {
+        EncodedBody body = cache.get("k", this::envelope);
+
+        Map<?, ?> identity = objectMapper.readValue(cache.render(body, false), Map.class);
+        Map<?, ?> expected = objectMapper.readValue(objectMapper.writeValueAsBytes(envelope()), Map.class);
+        assertEquals(expected.keySet(), identity.keySet());
+        assertEquals(expected.get("data"), identity.get("data"));
+        assertTrue(LocalDateTime.parse((String) identity.get("timestamp")).isAfter(LocalDateTime.now().minusMinutes(1)));
+
+        assertTrue(body.isCompressible());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(cache.render(body, true)))) {
+            assertEquals(identity.get("data"), objectMapper.readValue(in, Map.class).get("data"));
+        }
+    }
+
+    @Test
+    void testProductChanged_evictsTouchedCategoryOnly() {
+        String filters = ResponseBodyCache.categoryKey("Filters", catalogVersion.categoryEtag("Filters"));
+        String brakes = ResponseBodyCache.categoryKey("Brakes", catalogVersion.categoryEtag("Brakes"));
+        EncodedBody cachedBrakes = cache.get(brakes, this::envelope);
+        cache.get(filters, this::envelope);
+
+        Product product = new Product();
+        product.setCategory("Filters");
+        cache.onProductChanged(ProductChangedEvent.created(product));
+        catalogVersion.onProductChanged(ProductChangedEvent.created(product));
+
+        assertSame(cachedBrakes, cache.get(brakes, this::envelope));
+        cache.get(filters, this::envelope);
+        assertEquals(3, loads.get());
+        assertNotEquals(filters, ResponseBodyCache.categoryKey("Filters", catalogVersion.categoryEtag("Filters")));
+    }
+
+    private RestApiResponse<List<ProductResponse>> envelope() {
+        loads.incrementAndGet();
+        ProductResponse product = ProductResponse.builder()
+                .id(1L)
+                .partNumber("FLT-001")
+                .PartName("oil filter \"premium\"")
+                .category("Filters")
+                .price(new BigDecimal("12.50"))
+                .stock(40)
+                .build();
+        return RestApiResponse.<List<ProductResponse>>builder()
+                .status("success")
+                .message("Products found")
+                .data(List.of(product, product, product))
+                .path("/api/v1/products/filter")
+                .build();
+    }
+}
@@ -1,25 +1,51 @@
 package Controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phasezero.catalog.cache.CatalogVersion;
+import com.phasezero.catalog.cache.ResponseBodyCache;
 import com.phasezero.catalog.controller.ProductController;
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.event.ProductChangeStreams;
+import com.phasezero.catalog.event.ProductChangedEvent;
+import com.phasezero.catalog.requestdto.ExportSort;
 import com.phasezero.catalog.requestdto.ProductRequest;
+import com.phasezero.catalog.responsedto.BatchCreateResponse;
+import com.phasezero.catalog.responsedto.BatchRowResult;
+import com.phasezero.catalog.responsedto.CursorPageResponse;
+import com.phasezero.catalog.responsedto.FacetedSearchResponse;
 import com.phasezero.catalog.responsedto.InventoryValueResponse;
+import com.phasezero.catalog.responsedto.PriceBucket;
 import com.phasezero.catalog.responsedto.ProductResponse;
+import com.phasezero.catalog.responsedto.SuggestionResponse;
 import com.phasezero.catalog.service.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.data.domain.*;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
 import java.util.List;
-
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -31,10 +57,22 @@ public class ProductControllerTest {
     @Mock
     private ProductService productService;
 
+    @Mock
+    private ProductChangeStreams productChangeStreams;
+
     @InjectMocks
     private ProductController productController;
 
-    private ObjectMapper objectMapper;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Spy
+    private CatalogVersion catalogVersion = new CatalogVersion();
+
+    @Spy
+    private ResponseBodyCache responseBodyCache =
+            new ResponseBodyCache(objectMapper, catalogVersion, new SimpleMeterRegistry(), 1 << 20, true, 64);
+
     private ProductResponse productResponse;
 
     @BeforeEach
@@ -45,8 +83,6 @@ public class ProductControllerTest {
                 .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver()) // FIX FOR Pageable
                 .build();
 
-        objectMapper = new ObjectMapper();
-
         productResponse = ProductResponse.builder()
                 .id(1L)
                 .partNumber("ABC123")
@@ -88,6 +124,49 @@ public class ProductControllerTest {
         verify(productService, times(1)).createProduct(any());
     }
 
+    // -----------------------------------------------------------
+    // 1b. BATCH CREATE
+    // -----------------------------------------------------------
+    @Test
+    void testCreateProducts_partialSuccess() throws Exception {
+
+        ProductRequest request = new ProductRequest(
+                "ABC123", "engine part", "Automotive", BigDecimal.valueOf(2500), 5, null, null);
+
+        BatchCreateResponse response = BatchCreateResponse.builder()
+                .requested(2)
+                .created(1)
+                .rejected(1)
+                .results(List.of(
+                        BatchRowResult.builder().index(0).partNumber("ABC123")
+                                .status(BatchRowResult.Status.CREATED).id(1L).build(),
+                        BatchRowResult.builder().index(1).partNumber("ABC123")
+                                .status(BatchRowResult.Status.DUPLICATE).build()))
+                .build();
+
+        when(productService.createProducts(anyList())).thenReturn(response);
+
+        mockMvc.perform(post("/api/v1/products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(request, request))))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.data.created").value(1))
+                .andExpect(jsonPath("$.data.results[1].status").value("DUPLICATE"));
+    }
+
+    @Test
+    void testAdjustStock_success() throws Exception {
+
+        when(productService.adjustStock(1L, -3)).thenReturn(productResponse);
+
+        mockMvc.perform(patch("/api/v1/products/1/stock")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"delta\": -3}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.partNumber").value("ABC123"))
+                .andExpect(jsonPath("$.path").value("/api/v1/products/1/stock"));
+    }
+
     // -----------------------------------------------------------
     // 2. GET ALL PRODUCTS (Paginated)
     // -----------------------------------------------------------
@@ -108,6 +187,52 @@ public class ProductControllerTest {
         verify(productService).getAllProducts(any());
     }
 
+    // -----------------------------------------------------------
+    // 2b. GET PRODUCTS BY CURSOR
+    // -----------------------------------------------------------
+    @Test
+    void testGetProductsByCursor_success() throws Exception {
+
+        CursorPageResponse<ProductResponse> page = CursorPageResponse.<ProductResponse>builder()
+                .content(List.of(productResponse))
+                .size(1)
+                .hasNext(true)
+                .nextCursor("abc")
+                .build();
+
+        when(productService.getProductsByCursor("xyz", 1)).thenReturn(page);
+
+        mockMvc.perform(get("/api/v1/products/cursor")
+                        .param("cursor", "xyz")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].partNumber").value("ABC123"))
+                .andExpect(jsonPath("$.data.nextCursor").value("abc"));
+    }
+
+    // -----------------------------------------------------------
+    // 2c. GET PRODUCTS BY PRICE RANGE
+    // -----------------------------------------------------------
+    @Test
+    void testGetProductsByPriceRange_success() throws Exception {
+
+        CursorPageResponse<ProductResponse> page = CursorPageResponse.<ProductResponse>builder()
+                .content(List.of(productResponse))
+                .size(1)
+                .hasNext(false)
+                .build();
+
+        when(productService.getProductsByPriceRange(new BigDecimal("1000"), null, "Automotive", null, 20))
+                .thenReturn(page);
+
+        mockMvc.perform(get("/api/v1/products/price-range")
+                        .param("minPrice", "1000")
+                        .param("category", "Automotive"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", catalogVersion.categoryEtag("Automotive")))
+                .andExpect(jsonPath("$.data.content[0].price").value(2500));
+    }
+
     // -----------------------------------------------------------
     // 3. SEARCH PRODUCTS BY NAME
     // -----------------------------------------------------------
@@ -123,6 +248,65 @@ public class ProductControllerTest {
                 .andExpect(jsonPath("$.data[0].partNumber").value("ABC123"));
     }
 
+    @Test
+    void testSearchFullText_success() throws Exception {
+
+        when(productService.searchFullText("ceramic pads", 5))
+                .thenReturn(List.of(productResponse));
+
+        mockMvc.perform(get("/api/v1/products/search/ranked")
+                        .param("q", "ceramic pads")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.data[0].partNumber").value("ABC123"));
+    }
+
+    @Test
+    void testSuggest_success() throws Exception {
+
+        when(productService.suggest("abc", 10)).thenReturn(List.of(SuggestionResponse.builder()
+                .text("ABC123")
+                .field(SuggestionResponse.Field.PART_NUMBER)
+                .productId(1L)
+                .build()));
+
+        mockMvc.perform(get("/api/v1/products/suggest")
+                        .param("prefix", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].text").value("ABC123"))
+                .andExpect(jsonPath("$.data[0].field").value("PART_NUMBER"));
+    }
+
+    // -----------------------------------------------------------
+    // 3b. FACETED SEARCH
+    // -----------------------------------------------------------
+    @Test
+    void testFacetedSearch_success() throws Exception {
+
+        FacetedSearchResponse response = FacetedSearchResponse.builder()
+                .content(List.of(productResponse))
+                .page(0)
+                .size(20)
+                .totalMatches(1)
+                .categories(Map.of("Automotive", 1L))
+                .brands(Map.of("Bosch", 1L))
+                .priceRanges(List.of(PriceBucket.builder().from(BigDecimal.valueOf(1000)).count(1).build()))
+                .build();
+
+        when(productService.facetedSearch(eq("engine"), eq(null), eq("Bosch"), anyList(), eq(0), eq(20)))
+                .thenReturn(response);
+
+        mockMvc.perform(get("/api/v1/products/facets")
+                        .param("name", "engine")
+                        .param("brand", "Bosch")
+                        .param("priceRanges", "0-1000,1000-"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].partNumber").value("ABC123"))
+                .andExpect(jsonPath("$.data.categories.Automotive").value(1))
+                .andExpect(jsonPath("$.data.priceRanges[0].to").doesNotExist());
+    }
+
     // -----------------------------------------------------------
     // 4. FILTER BY CATEGORY
     // -----------------------------------------------------------
@@ -138,6 +322,52 @@ public class ProductControllerTest {
                 .andExpect(jsonPath("$.data[0].category").value("Automotive"));
     }
 
+    @Test
+    void testFilterProductsByCategory_notModified() throws Exception {
+
+        when(productService.filterProductsByCategory("Automotive"))
+                .thenReturn(List.of(productResponse));
+
+        String etag = mockMvc.perform(get("/api/v1/products/filter")
+                        .param("category", "Automotive"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/products/filter")
+                        .param("category", "Automotive")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        verify(productService, times(1)).filterProductsByCategory("Automotive");
+    }
+
+    @Test
+    void testFilterProductsByCategory_etagFollowsCategoryWrites() throws Exception {
+
+        when(productService.filterProductsByCategory(any())).thenReturn(List.of(productResponse));
+        String automotive = catalogVersion.categoryEtag("Automotive");
+        String filters = catalogVersion.categoryEtag("Filters");
+
+        Product product = new Product();
+        product.setCategory("Filters");
+        catalogVersion.onProductChanged(ProductChangedEvent.created(product));
+
+        // Untouched category still revalidates, the written one is served in full with a new tag
+        mockMvc.perform(get("/api/v1/products/filter")
+                        .param("category", "Automotive")
+                        .header("If-None-Match", automotive))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/products/filter")
+                        .param("category", "Filters")
+                        .header("If-None-Match", filters))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", catalogVersion.categoryEtag("Filters")));
+        assertNotEquals(filters, catalogVersion.categoryEtag("Filters"));
+    }
+
     // -----------------------------------------------------------
     // 5. SORT PRODUCTS BY PRICE ASC
     // -----------------------------------------------------------
@@ -152,6 +382,79 @@ public class ProductControllerTest {
                 .andExpect(jsonPath("$.data[0].partNumber").value("ABC123"));
     }
 
+    @Test
+    void testSortProductsByPrice_servesCachedBytesWithFreshTimestamp() throws Exception {
+
+        when(productService.sortProductsByPriceAsc())
+                .thenReturn(List.of(productResponse));
+
+        String first = mockMvc.perform(get("/api/v1/products/sort"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Thread.sleep(2);
+        String second = mockMvc.perform(get("/api/v1/products/sort"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(jsonPath("$.data[0].partNumber").value("ABC123"))
+                .andExpect(jsonPath("$.timestamp").exists())
+                .andReturn().getResponse().getContentAsString();
+
+        verify(productService, times(1)).sortProductsByPriceAsc();
+        assertNotEquals(objectMapper.readTree(first).get("timestamp"), objectMapper.readTree(second).get("timestamp"));
+        assertEquals(objectMapper.readTree(first).get("data"), objectMapper.readTree(second).get("data"));
+    }
+
+    @Test
+    void testSortProductsByPrice_gzipWhenAccepted() throws Exception {
+
+        when(productService.sortProductsByPriceAsc())
+                .thenReturn(List.of(productResponse, productResponse));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/products/sort").header("Accept-Encoding", "br, gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn();
+
+        try (GZIPInputStream in = new GZIPInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            JsonNode body = objectMapper.readTree(in);
+            assertEquals("ABC123", body.get("data").get(1).get("partNumber").asText());
+            assertTrue(body.has("timestamp"));
+        }
+
+        mockMvc.perform(get("/api/v1/products/sort").header("Accept-Encoding", "gzip;q=0"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$.data[1].partNumber").value("ABC123"));
+    }
+
+    // -----------------------------------------------------------
+    // 5b. NDJSON EXPORT
+    // -----------------------------------------------------------
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExportProducts_streamsNdjson() throws Exception {
+
+        doAnswer(invocation -> {
+            Consumer<ProductResponse> consumer = invocation.getArgument(1);
+            consumer.accept(productResponse);
+            consumer.accept(productResponse);
+            return 2L;
+        }).when(productService).exportProducts(eq(ExportSort.PRICE), any());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/products/export").param("sort", "price"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("ABC123", objectMapper.readTree(lines[0]).get("partNumber").asText());
+    }
+
     // -----------------------------------------------------------
     // 6. INVENTORY VALUE API
     // -----------------------------------------------------------
@@ -166,4 +469,41 @@ public class ProductControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.data.totalInventoryValue").value(12500));
     }
+
+    @Test
+    void testInventoryValue_etagChangesAfterWrite() throws Exception {
+
+        when(productService.calculateTotalInventoryValue())
+                .thenReturn(new InventoryValueResponse(BigDecimal.valueOf(12500)));
+        String etag = catalogVersion.catalogEtag();
+
+        mockMvc.perform(get("/api/v1/products/inventory/value").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        verify(productService, never()).calculateTotalInventoryValue();
+
+        Product product = new Product();
+        product.setCategory("Automotive");
+        catalogVersion.onProductChanged(ProductChangedEvent.deleted(product));
+
+        mockMvc.perform(get("/api/v1/products/inventory/value").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", catalogVersion.catalogEtag()));
+    }
+
+    // -----------------------------------------------------------
+    // 7. CHANGE STREAM
+    // -----------------------------------------------------------
+    @Test
+    void testStreamChanges_resumesFromLastEventId() throws Exception {
+
+        when(productChangeStreams.subscribe(any())).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/v1/products/changes").param("since", "3").header("Last-Event-ID", "7"))
+                .andExpect(request().asyncStarted());
+        verify(productChangeStreams).subscribe("7");
+
+        mockMvc.perform(get("/api/v1/products/changes"))
+                .andExpect(request().asyncStarted());
+        verify(productChangeStreams).subscribe(null);
+    }
 }
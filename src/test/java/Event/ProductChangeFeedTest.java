@@ -0,0 +1,112 @@
+package Event;
+
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.event.ProductChangeFeed;
+import com.phasezero.catalog.event.ProductChangedEvent;
+import com.phasezero.catalog.event.ProductChangedEvent.ChangeType;
+import com.phasezero.catalog.exception.ValidationException;
+import com.phasezero.catalog.mapper.ProductMapper;
+import com.phasezero.catalog.responsedto.ProductChange;
+import com.phasezero.catalog.responsedto.ProductResponse;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductChangeFeedTest {
+
+    private final ProductChangeFeed feed = new ProductChangeFeed(new ProductMapper(), 4);
+
+    @Test
+    void testRead_changesAfterPositionInOrder() throws Exception {
+        feed.onProductChanged(ProductChangedEvent.created(product(1L, 5)));
+        feed.onProductChanged(ProductChangedEvent.stockAdjusted(product(1L, 3), product(1L, 5)));
+        feed.onProductChanged(ProductChangedEvent.created(product(2L, 9)));
+
+        ProductChangeFeed.Slice slice = feed.read(1, 10, 0);
+        assertFalse(slice.isReset());
+        assertEquals(List.of(2L, 3L), sequences(slice));
+        assertEquals(ChangeType.STOCK_ADJUSTED, slice.getChanges().get(0).getType());
+        assertEquals(3, slice.getChanges().get(0).getProduct().getStock());
+        assertEquals(3, slice.getPosition());
+
+        assertEquals(List.of(1L), sequences(feed.read(0, 1, 0)));
+    }
+
+    @Test
+    void testRead_waitsForNextChange() throws Exception {
+        assertTrue(feed.read(0, 10, 10).getChanges().isEmpty());
+
+        CompletableFuture<ProductChangeFeed.Slice> reader = CompletableFuture.supplyAsync(() -> {
+            try {
+                return feed.read(0, 10, 10_000);
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        feed.append(ChangeType.CREATED, ProductResponse.builder().id(1L).build());
+
+        assertEquals(List.of(1L), sequences(reader.get(10, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    void testRead_readerBehindRingIsReset() throws Exception {
+        // Writers never wait for readers; a reader that fell behind resumes at the oldest change held
+        for (long id = 1; id <= 10; id++) {
+            feed.append(ChangeType.CREATED, ProductResponse.builder().id(id).build());
+        }
+
+        ProductChangeFeed.Slice behind = feed.read(2, 10, 0);
+        assertTrue(behind.isReset());
+        assertEquals(List.of(7L, 8L, 9L, 10L), sequences(behind));
+
+        // A position this feed never issued, e.g. from before a restart
+        ProductChangeFeed.Slice ahead = feed.read(50, 10, 0);
+        assertTrue(ahead.isReset());
+        assertTrue(ahead.getChanges().isEmpty());
+        assertEquals(10, ahead.getPosition());
+
+        assertFalse(feed.read(6, 10, 0).isReset());
+    }
+
+    @Test
+    void testResumePosition_eventIdsOfAnotherProcessAreReset() throws Exception {
+        for (long id = 1; id <= 3; id++) {
+            feed.append(ChangeType.CREATED, ProductResponse.builder().id(id).build());
+        }
+        String id = feed.eventId(2);
+
+        assertEquals(2, feed.resumePosition(id));
+        assertEquals(2, feed.resumePosition("2"));
+        assertEquals(List.of(3L), sequences(feed.read(feed.resumePosition(id), 10, 0)));
+
+        // Same sequence number, but issued by the process before a restart
+        String foreign = new ProductChangeFeed(new ProductMapper(), 4).eventId(2);
+        ProductChangeFeed.Slice slice = feed.read(feed.resumePosition(foreign), 10, 0);
+        assertTrue(slice.isReset());
+        assertTrue(slice.getChanges().isEmpty());
+        assertEquals(3, slice.getPosition());
+
+        assertThrows(ValidationException.class, () -> feed.resumePosition("-1"));
+        assertThrows(ValidationException.class, () -> feed.resumePosition("abc-x"));
+    }
+
+    private static List<Long> sequences(ProductChangeFeed.Slice slice) {
+        return slice.getChanges().stream().map(ProductChange::getSequence).toList();
+    }
+
+    private static Product product(Long id, int stock) {
+        return Product.builder()
+                .id(id)
+                .partNumber("PN-" + id)
+                .partName("part " + id)
+                .category("Filters")
+                .price(BigDecimal.TEN)
+                .stock(stock)
+                .build();
+    }
+}
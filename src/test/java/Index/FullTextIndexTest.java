@@ -0,0 +1,135 @@
+package Index;
+
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.event.ProductChangedEvent;
+import com.phasezero.catalog.index.FullTextIndex;
+import com.phasezero.catalog.repository.ProductRepository;
+import com.phasezero.catalog.repository.ProductTextView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class FullTextIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private FullTextIndex index;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+
+        when(productRepository.findAllSearchText()).thenReturn(List.of(
+                view(1L, "Spark Plug", "NGK", "Iridium tip, pre-gapped"),
+                view(2L, "Iridium Spark Plug", "Denso", "Long life"),
+                view(3L, "Brake Pads", "Bosch", "Ceramic compound, low dust"),
+                view(4L, "Brake Rotor", "Brembo", "Vented, fits ceramic and semi-metallic pads"),
+                view(5L, "Oil Filter", null, null)
+        ));
+        index.rebuild();
+    }
+
+    @Test
+    void testSearch_ranksNameAboveDescription() {
+        assertTrue(index.isReady());
+        assertEquals(5, index.size());
+        // "iridium" is in the name of 2 but only the description of 1
+        assertEquals(List.of(2L, 1L), index.search("iridium", 10));
+        assertEquals(List.of(3L, 4L), index.search("Ceramic", 10));
+        // Products matching more of the query's terms score higher
+        assertEquals(2L, index.search("iridium spark plug", 10).get(0));
+    }
+
+    @Test
+    void testSearch_matchesBrandAndDescription() {
+        assertEquals(List.of(4L), index.search("brembo", 10));
+        assertEquals(List.of(3L), index.search("low-dust", 10));
+        assertEquals(List.of(), index.search("turbocharger", 10));
+        assertEquals(List.of(), index.search("", 10));
+    }
+
+    @Test
+    void testSearch_keepsOnlyTopK() {
+        List<Long> all = index.search("spark brake", 10);
+        assertEquals(4, all.size());
+        assertEquals(all.subList(0, 2), index.search("spark brake", 2));
+    }
+
+    @Test
+    void testProductChanged_followsWrites() {
+        Product product = new Product();
+        product.setId(6L);
+        product.setPartName("Ceramic Brake Pads");
+        product.setBrand("Akebono");
+        index.onProductChanged(ProductChangedEvent.created(product));
+        assertEquals(List.of(6L, 3L, 4L), index.search("ceramic", 10));
+
+        product.setPartName("Organic Brake Pads");
+        index.onProductChanged(ProductChangedEvent.updated(product, null));
+        assertEquals(List.of(3L, 4L), index.search("ceramic", 10));
+        assertEquals(List.of(6L), index.search("organic", 10));
+
+        index.onProductChanged(ProductChangedEvent.deleted(product));
+        assertEquals(List.of(), index.search("akebono", 10));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void testRebuild_keepsWritesAppliedWhileReading() {
+        Product created = new Product();
+        created.setId(6L);
+        created.setPartName("Ceramic Brake Pads");
+        created.setBrand("Akebono");
+        when(productRepository.findAllSearchText()).thenAnswer(invocation -> {
+            // Committed after the read's snapshot, delivered before the swap
+            index.onProductChanged(ProductChangedEvent.created(created));
+            return List.of(view(3L, "Brake Pads", "Bosch", "Ceramic compound, low dust"));
+        });
+
+        index.rebuild();
+
+        assertEquals(2, index.size());
+        assertEquals(List.of(6L), index.search("akebono", 10));
+        assertEquals(List.of(6L, 3L), index.search("ceramic", 10));
+    }
+
+    @Test
+    void testTokenize() {
+        // Single letters are dropped, digits are kept
+        assertEquals(List.of("m8", "1", "25", "bolt"), FullTextIndex.tokenize("M8 x 1.25 Bolt"));
+        assertEquals(List.of("o2", "sensor"), FullTextIndex.tokenize("O2-Sensor"));
+    }
+
+    private static ProductTextView view(Long id, String partName, String brand, String description) {
+        return new ProductTextView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getPartName() {
+                return partName;
+            }
+
+            @Override
+            public String getBrand() {
+                return brand;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+        };
+    }
+}
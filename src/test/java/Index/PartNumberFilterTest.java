@@ -0,0 +1,73 @@
+package Index;
+
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.event.ProductChangedEvent;
+import com.phasezero.catalog.index.PartNumberFilter;
+import com.phasezero.catalog.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PartNumberFilterTest {
+
+    private static final int STORED = 20_000;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PartNumberFilter filter;
+
+    @BeforeEach
+    void setup() {
+        List<String> partNumbers = new ArrayList<>();
+        for (int i = 0; i < STORED; i++) {
+            partNumbers.add("PN-" + i);
+        }
+        ProductRepository repository = mock(ProductRepository.class);
+        when(repository.count()).thenReturn((long) STORED);
+        when(repository.findAllPartNumbers()).thenReturn(partNumbers);
+
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new PartNumberFilter(repository, meterRegistry, 0.01);
+    }
+
+    @Test
+    void testBeforeRebuild_everythingMightExist() {
+        assertFalse(filter.isReady());
+        assertTrue(filter.mightContain("ANYTHING"));
+    }
+
+    @Test
+    void testRebuild_noFalseNegativesAndBoundedFalsePositives() {
+        filter.rebuild();
+
+        for (int i = 0; i < STORED; i++) {
+            assertTrue(filter.mightContain("PN-" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("NEW-" + i)) {
+                falsePositives++;
+            }
+        }
+        // Sized for twice the catalog at 1%, so well under 1% while half full
+        assertTrue(falsePositives < 1_000, "false positives: " + falsePositives);
+        assertTrue(meterRegistry.get("catalog.part_number_filter.memory").gauge().value() > 0);
+        assertTrue(meterRegistry.get("catalog.part_number_filter.expected_fpp").gauge().value() < 0.01);
+    }
+
+    @Test
+    void testCreatedProductsAreAdded() {
+        filter.rebuild();
+        assertFalse(filter.mightContain("FRESH-1"));
+
+        filter.onProductChanged(ProductChangedEvent.created(Product.builder().partNumber("FRESH-1").build()));
+
+        assertTrue(filter.mightContain("FRESH-1"));
+        assertEquals(STORED + 1, meterRegistry.get("catalog.part_number_filter.entries").gauge().value());
+    }
+}
@@ -0,0 +1,122 @@
+package Index;
+
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.event.ProductChangedEvent;
+import com.phasezero.catalog.index.PriceIndex;
+import com.phasezero.catalog.repository.ProductFacetView;
+import com.phasezero.catalog.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PriceIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private PriceIndex index;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+
+        when(productRepository.findAllFacetFields()).thenReturn(List.of(
+                view(1L, "Filters", "12.50"),
+                view(2L, "Filters", "9.99"),
+                view(3L, "Brakes", "12.50"),
+                view(4L, "Brakes", "150.00"),
+                view(5L, "Lubricants", "35.00")
+        ));
+        index.rebuild();
+    }
+
+    @Test
+    void testRange_inPriceThenIdOrder() {
+        assertTrue(index.isReady());
+        assertEquals(List.of(2L, 1L, 3L, 5L, 4L), index.range(null, null, null, null, null, 10));
+        assertEquals(List.of(2L, 1L), index.range(null, null, null, null, null, 2));
+        assertEquals(List.of(1L, 3L, 5L), index.range(new BigDecimal("10"), new BigDecimal("35"), null, null, null, 10));
+        assertEquals(List.of(3L, 4L), index.range(null, null, "Brakes", null, null, 10));
+        assertEquals(List.of(), index.range(null, null, "Unknown", null, null, 10));
+        // Bounds that fall between cents exclude the neighbouring prices
+        assertEquals(List.of(), index.range(new BigDecimal("12.501"), new BigDecimal("12.509"), null, null, null, 10));
+    }
+
+    @Test
+    void testRange_continuesAfterCursor() {
+        assertEquals(List.of(3L, 5L), index.range(null, new BigDecimal("100"), null, new BigDecimal("12.50"), 1L, 10));
+        // A cursor before minPrice does not widen the range
+        assertEquals(List.of(5L), index.range(new BigDecimal("20"), null, null, new BigDecimal("9.99"), 2L, 1));
+    }
+
+    @Test
+    void testRange_hugeBoundsDoNotOverflow() {
+        // 1E18 is more cents than a long holds
+        assertEquals(List.of(2L, 1L, 3L, 5L, 4L), index.range(null, new BigDecimal("1E18"), null, null, null, 10));
+        assertEquals(List.of(4L), index.range(new BigDecimal("100"), new BigDecimal("1E30"), null, null, null, 10));
+        assertEquals(List.of(), index.range(new BigDecimal("1E18"), null, null, null, null, 10));
+    }
+
+    @Test
+    void testRange_followsWrites() {
+        index.onProductChanged(ProductChangedEvent.updated(product(4L, "Filters", "1.00"), null));
+        index.onProductChanged(ProductChangedEvent.deleted(product(2L, "Filters", "9.99")));
+        index.onProductChanged(ProductChangedEvent.created(product(6L, "Brakes", "12.50")));
+
+        assertEquals(List.of(4L, 1L), index.range(null, null, "Filters", null, null, 10));
+        assertEquals(List.of(3L, 6L), index.range(null, null, "Brakes", null, null, 10));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void testRebuild_keepsWritesAppliedWhileReading() {
+        when(productRepository.findAllFacetFields()).thenAnswer(invocation -> {
+            // Committed after the read's snapshot, delivered before the swap
+            index.onProductChanged(ProductChangedEvent.created(product(6L, "Brakes", "12.50")));
+            index.onProductChanged(ProductChangedEvent.updated(product(1L, "Filters", "1.00"), null));
+            return List.of(view(1L, "Filters", "12.50"), view(3L, "Brakes", "12.50"));
+        });
+
+        index.rebuild();
+
+        assertEquals(List.of(1L, 3L, 6L), index.range(null, null, null, null, null, 10));
+        assertEquals(List.of(3L, 6L), index.range(new BigDecimal("10"), null, null, null, null, 10));
+    }
+
+    private static Product product(Long id, String category, String price) {
+        return Product.builder().id(id).category(category).price(new BigDecimal(price)).build();
+    }
+
+    private static ProductFacetView view(Long id, String category, String price) {
+        return new ProductFacetView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getCategory() {
+                return category;
+            }
+
+            @Override
+            public String getBrand() {
+                return null;
+            }
+
+            @Override
+            public BigDecimal getPrice() {
+                return new BigDecimal(price);
+            }
+        };
+    }
+}
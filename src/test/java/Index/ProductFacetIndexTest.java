@@ -0,0 +1,132 @@
+package Index;
+
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.event.ProductChangedEvent;
+import com.phasezero.catalog.index.ProductFacetIndex;
+import com.phasezero.catalog.index.ProductFacetIndex.FacetCounts;
+import com.phasezero.catalog.repository.ProductFacetView;
+import com.phasezero.catalog.repository.ProductRepository;
+import com.phasezero.catalog.requestdto.PriceRange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ProductFacetIndexTest {
+
+    private static final List<PriceRange> RANGES = PriceRange.parseList("0-20,20-100,100-");
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+
+        when(productRepository.findAllFacetFields()).thenReturn(List.of(
+                view(1L, "Filters", "Bosch", "12.50"),
+                view(2L, "Filters", "Mann", "20.00"),
+                view(3L, "Brakes", "Bosch", "89.99"),
+                view(4L, "Brakes", null, "150.00"),
+                view(5L, "Lubricants", "Castrol", "35.00")
+        ));
+        index.rebuild();
+    }
+
+    @Test
+    void testCount_allFacetsInOnePass() {
+        FacetCounts counts = index.count(null, null, null, RANGES, 0, 10);
+
+        assertEquals(5, counts.getTotalMatches());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), counts.getPageIds());
+        assertEquals(Map.of("Filters", 2L, "Brakes", 2L, "Lubricants", 1L), counts.getCategories());
+        assertEquals(List.of("Bosch", "Castrol", "Mann", ProductFacetIndex.UNBRANDED),
+                List.copyOf(counts.getBrands().keySet()));
+        assertArrayEquals(new long[]{1, 3, 1}, counts.getPriceRangeCounts());
+    }
+
+    @Test
+    void testCount_filtersAreDisjunctiveForTheirOwnFacet() {
+        FacetCounts counts = index.count(List.of(1L, 2L, 3L, 4L), "Filters", "Bosch", RANGES, 0, 10);
+
+        assertEquals(List.of(1L), counts.getPageIds());
+        // Categories ignore the category filter, brands ignore the brand filter
+        assertEquals(Map.of("Filters", 1L, "Brakes", 1L), counts.getCategories());
+        assertEquals(Map.of("Bosch", 1L, "Mann", 1L), counts.getBrands());
+        assertArrayEquals(new long[]{1, 0, 0}, counts.getPriceRangeCounts());
+
+        assertEquals(0, index.count(null, "Unknown", null, RANGES, 0, 10).getTotalMatches());
+    }
+
+    @Test
+    void testCount_followsWritesAndPages() {
+        index.onProductChanged(ProductChangedEvent.deleted(Product.builder().id(2L).category("Filters").build()));
+        index.onProductChanged(ProductChangedEvent.created(product(7L, "Filters", "Mann", "9.00")));
+        // Committed out of id order
+        index.onProductChanged(ProductChangedEvent.created(product(6L, "Filters", "Bosch", "18.00")));
+        index.onProductChanged(ProductChangedEvent.updated(product(5L, "Filters", "Castrol", "35.00"), null));
+
+        FacetCounts counts = index.count(null, "Filters", null, RANGES, 1, 2);
+
+        assertEquals(4, counts.getTotalMatches());
+        assertEquals(List.of(5L, 6L), counts.getPageIds());
+        assertEquals(4L, counts.getCategories().get("Filters"));
+        assertNull(counts.getCategories().get("Lubricants"));
+        assertArrayEquals(new long[]{3, 1, 0}, counts.getPriceRangeCounts());
+    }
+
+    @Test
+    void testRebuild_keepsWritesAppliedWhileReading() {
+        when(productRepository.findAllFacetFields()).thenAnswer(invocation -> {
+            // Committed after the read's snapshot, delivered before the swap
+            index.onProductChanged(ProductChangedEvent.created(product(6L, "Filters", "Bosch", "18.00")));
+            index.onProductChanged(ProductChangedEvent.deleted(Product.builder().id(3L).category("Brakes").build()));
+            return List.of(view(1L, "Filters", "Bosch", "12.50"), view(3L, "Brakes", "Bosch", "89.99"));
+        });
+
+        index.rebuild();
+
+        FacetCounts counts = index.count(null, null, null, RANGES, 0, 10);
+        assertEquals(List.of(1L, 6L), counts.getPageIds());
+        assertEquals(Map.of("Filters", 2L), counts.getCategories());
+    }
+
+    private static Product product(Long id, String category, String brand, String price) {
+        return Product.builder().id(id).category(category).brand(brand).price(new BigDecimal(price)).build();
+    }
+
+    private static ProductFacetView view(Long id, String category, String brand, String price) {
+        return new ProductFacetView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getCategory() {
+                return category;
+            }
+
+            @Override
+            public String getBrand() {
+                return brand;
+            }
+
+            @Override
+            public BigDecimal getPrice() {
+                return new BigDecimal(price);
+            }
+        };
+    }
+}
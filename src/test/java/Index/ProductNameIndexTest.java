@@ -0,0 +1,103 @@
+package Index;
+
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.event.ProductChangedEvent;
+import com.phasezero.catalog.index.ProductNameIndex;
+import com.phasezero.catalog.repository.ProductNameView;
+import com.phasezero.catalog.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ProductNameIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductNameIndex index;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+
+        when(productRepository.findAllNames()).thenReturn(List.of(
+                view(1L, "hydraulic filter"),
+                view(2L, "engine oil"),
+                view(3L, "air filter"),
+                view(4L, "brake pads")
+        ));
+        index.rebuild();
+    }
+
+    @Test
+    void testSearch_substringMatches() {
+        assertTrue(index.isReady());
+        assertEquals(List.of(1L, 3L), index.search("filter"));
+        assertEquals(List.of(3L), index.search("AIR F"));
+        assertEquals(List.of(), index.search("filters"));
+    }
+
+    @Test
+    void testSearch_shortTermFallsBackToScan() {
+        assertEquals(List.of(2L), index.search("oi"));
+    }
+
+    @Test
+    void testSearch_followsWrites() {
+        Product created = Product.builder().id(5L).partName("oil filter").build();
+        index.onProductChanged(ProductChangedEvent.created(created));
+        assertEquals(List.of(1L, 3L, 5L), index.search("filter"));
+
+        Product renamed = Product.builder().id(3L).partName("cabin air purifier").build();
+        index.onProductChanged(ProductChangedEvent.updated(renamed, null));
+        assertEquals(List.of(1L, 5L), index.search("filter"));
+        assertEquals(List.of(3L), index.search("purifier"));
+
+        index.onProductChanged(ProductChangedEvent.deleted(created));
+        assertEquals(List.of(1L), index.search("filter"));
+    }
+
+    @Test
+    void testRebuild_keepsWritesAppliedWhileReading() {
+        Product created = Product.builder().id(5L).partName("oil filter").build();
+        Product renamed = Product.builder().id(2L).partName("gear oil").build();
+        when(productRepository.findAllNames()).thenAnswer(invocation -> {
+            // Committed after the read's snapshot, delivered before the swap
+            index.onProductChanged(ProductChangedEvent.created(created));
+            index.onProductChanged(ProductChangedEvent.updated(renamed, null));
+            return List.of(view(1L, "hydraulic filter"), view(2L, "engine oil"), view(3L, "air filter"));
+        });
+
+        index.rebuild();
+
+        assertEquals(List.of(1L, 3L, 5L), index.search("filter"));
+        assertEquals(List.of(2L), index.search("gear"));
+        assertEquals(List.of(), index.search("engine"));
+
+        // Nothing recorded once the rebuild is done
+        index.onProductChanged(ProductChangedEvent.deleted(created));
+        assertEquals(List.of(1L, 3L), index.search("filter"));
+    }
+
+    private static ProductNameView view(Long id, String partName) {
+        return new ProductNameView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getPartName() {
+                return partName;
+            }
+        };
+    }
+}
@@ -0,0 +1,149 @@
+package Index;
+
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.event.ProductChangedEvent;
+import com.phasezero.catalog.index.SuggestionIndex;
+import com.phasezero.catalog.repository.ProductRepository;
+import com.phasezero.catalog.repository.ProductSuggestionView;
+import com.phasezero.catalog.responsedto.SuggestionResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class SuggestionIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private SuggestionIndex index;
+
+    private final List<ProductSuggestionView> rows = List.of(
+            view(1L, "PN-1001", "Oil Filter"),
+            view(2L, "PN-1002", "Oil  Filter"),
+            view(3L, "PN-1100", "Oil Pump"),
+            view(4L, "PN-2000", "Brake Pads"),
+            view(5L, "BP-0001", "pn adapter")
+    );
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(productRepository.findAllSuggestionFields()).thenReturn(rows);
+    }
+
+    @Test
+    void testSuggest_prefixInOrderIgnoringCase() {
+        index.rebuild();
+
+        assertEquals(List.of("PN-1001", "PN-1002", "PN-1100"), texts(index.suggest("pn-1", 10)));
+        assertEquals(List.of("PN-1001", "PN-1002"), texts(index.suggest("PN-10", 2)));
+        // Names and part numbers share one order
+        assertEquals(List.of("pn adapter", "PN-1001"), texts(index.suggest("pn", 2)));
+        assertEquals(List.of(), index.suggest("zz", 10));
+        assertEquals(List.of(), index.suggest("  ", 10));
+    }
+
+    @Test
+    void testSuggest_sharedNameOnceWithLowestId() {
+        index.rebuild();
+
+        List<SuggestionResponse> suggestions = index.suggest("oil  f", 10);
+        assertEquals(1, suggestions.size());
+        assertEquals("Oil Filter", suggestions.get(0).getText());
+        assertEquals(SuggestionResponse.Field.PART_NAME, suggestions.get(0).getField());
+        assertEquals(1L, suggestions.get(0).getProductId());
+        // A trailing space is part of the prefix
+        assertEquals(List.of("Oil Filter", "Oil Pump"), texts(index.suggest("oil ", 10)));
+    }
+
+    @Test
+    void testProductChanged_followsWrites() {
+        index.rebuild();
+
+        Product product = product(6L, "PN-1003", "Oil Cooler");
+        index.onProductChanged(ProductChangedEvent.created(product));
+        assertEquals(List.of("PN-1001", "PN-1002", "PN-1003"), texts(index.suggest("PN-100", 10)));
+
+        Product previous = product(1L, "PN-1001", "Oil Filter");
+        index.onProductChanged(ProductChangedEvent.updated(product(1L, "PN-1001", "Air Filter"), previous));
+        assertEquals(2L, index.suggest("oil f", 10).get(0).getProductId());
+
+        index.onProductChanged(ProductChangedEvent.deleted(product));
+        assertEquals(List.of("Oil Filter", "Oil Pump"), texts(index.suggest("oil", 10)));
+        assertEquals(10, index.size());
+    }
+
+    @Test
+    void testRebuild_keepsWritesAppliedWhileReading() {
+        when(productRepository.findAllSuggestionFields()).thenAnswer(invocation -> {
+            // Committed after the read's snapshot, delivered before the swap
+            index.onProductChanged(ProductChangedEvent.created(product(6L, "PN-1003", "Oil Cooler")));
+            index.onProductChanged(ProductChangedEvent.updated(product(3L, "PN-1100", "Water Pump"),
+                    product(3L, "PN-1100", "Oil Pump")));
+            return rows;
+        });
+
+        index.rebuild();
+
+        assertEquals(List.of("PN-1001", "PN-1002", "PN-1003"), texts(index.suggest("PN-100", 10)));
+        assertEquals(List.of("Oil Cooler", "Oil Filter"), texts(index.suggest("oil", 10)));
+        assertEquals(List.of("Water Pump"), texts(index.suggest("water", 10)));
+    }
+
+    @Test
+    void testSuggest_afterOverlayIsMerged() {
+        index.rebuild();
+
+        for (long id = 100; id < 3100; id++) {
+            index.put(id, "QX-" + id, null);
+        }
+        assertEquals(List.of("QX-100", "QX-1000", "QX-1001"), texts(index.suggest("qx-100", 3)));
+        assertEquals(List.of("PN-1001", "PN-1002"), texts(index.suggest("PN-10", 2)));
+        assertEquals(3010, index.size());
+    }
+
+    @Test
+    void testSuggest_overGivenRows() {
+        assertFalse(index.isReady());
+        assertEquals(List.of("Oil Filter", "Oil Pump"), texts(SuggestionIndex.suggest(rows, "OIL", 10)));
+    }
+
+    private static List<String> texts(List<SuggestionResponse> suggestions) {
+        return suggestions.stream().map(SuggestionResponse::getText).toList();
+    }
+
+    private static Product product(Long id, String partNumber, String partName) {
+        Product product = new Product();
+        product.setId(id);
+        product.setPartNumber(partNumber);
+        product.setPartName(partName);
+        return product;
+    }
+
+    private static ProductSuggestionView view(Long id, String partNumber, String partName) {
+        return new ProductSuggestionView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getPartNumber() {
+                return partNumber;
+            }
+
+            @Override
+            public String getPartName() {
+                return partName;
+            }
+        };
+    }
+}
@@ -0,0 +1,148 @@
+package Inventory;
+
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.event.ProductChangedEvent;
+import com.phasezero.catalog.inventory.InventoryAggregates;
+import com.phasezero.catalog.repository.InventoryGroupView;
+import com.phasezero.catalog.repository.ProductRepository;
+import com.phasezero.catalog.responsedto.InventoryValueResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class InventoryAggregatesTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private InventoryAggregates aggregates;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        aggregates = new InventoryAggregates(productRepository, meterRegistry);
+
+        when(productRepository.summarizeInventoryByCategory())
+                .thenReturn(List.of(group("Filters", 2, 250, "4999.00")));
+        when(productRepository.summarizeInventoryByBrand())
+                .thenReturn(List.of(group("Bosch", 1, 100, "2500.00"), group(null, 1, 150, "2499.00")));
+        aggregates.rebuild();
+    }
+
+    @Test
+    void testSnapshot_seededFromDatabase() {
+        InventoryValueResponse response = aggregates.snapshot();
+
+        assertEquals(0, new BigDecimal("4999.00").compareTo(response.getTotalInventoryValue()));
+        assertEquals(2L, response.getTotalProducts());
+        assertEquals(250L, response.getTotalStock());
+        assertEquals(150L, response.getByBrand().get("Unbranded").getTotalStock());
+    }
+
+    @Test
+    void testSnapshot_followsWrites() {
+        Product created = product("Brakes", "Brembo", "10.00", 5);
+        aggregates.onProductChanged(ProductChangedEvent.created(created));
+
+        Product restocked = created.toBuilder().stock(8).build();
+        aggregates.onProductChanged(ProductChangedEvent.updated(restocked, created));
+
+        InventoryValueResponse response = aggregates.snapshot();
+        assertEquals(0, new BigDecimal("5079.00").compareTo(response.getTotalInventoryValue()));
+        assertEquals(8L, response.getByCategory().get("Brakes").getTotalStock());
+
+        aggregates.onProductChanged(ProductChangedEvent.deleted(restocked));
+        assertNull(aggregates.snapshot().getByCategory().get("Brakes"));
+        assertNull(aggregates.snapshot().getByBrand().get("Brembo"));
+    }
+
+    @Test
+    void testReconcile_correctsDrift() {
+        aggregates.reconcile();
+        assertEquals(1.0, meterRegistry.get("catalog.inventory.reconciliations").tag("result", "match").counter().count());
+
+        // A write that never reached the aggregates (e.g. a direct SQL update)
+        when(productRepository.summarizeInventoryByCategory())
+                .thenReturn(List.of(group("Filters", 2, 260, "5249.00")));
+        aggregates.reconcile();
+
+        assertEquals(1.0, meterRegistry.get("catalog.inventory.reconciliations").tag("result", "drift").counter().count());
+        assertEquals(0, new BigDecimal("5249.00").compareTo(aggregates.snapshot().getTotalInventoryValue()));
+    }
+
+    @Test
+    void testReconcile_waitsForCommittingWrites() {
+        Product created = product("Brakes", "Brembo", "10.00", 5);
+        ProductChangedEvent event = ProductChangedEvent.created(created);
+        when(productRepository.summarizeInventoryByCategory())
+                .thenReturn(List.of(group("Filters", 2, 250, "4999.00"), group("Brakes", 1, 5, "50.00")));
+        when(productRepository.summarizeInventoryByBrand()).thenReturn(List.of(group("Bosch", 1, 100, "2500.00"),
+                group(null, 1, 150, "2499.00"), group("Brembo", 1, 5, "50.00")));
+
+        // The write's rows are already in SQL, its AFTER_COMMIT event is not applied yet
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            aggregates.onCommitting(event);
+            aggregates.reconcile();
+            assertEquals(0.0, meterRegistry.get("catalog.inventory.reconciliations").tag("result", "drift").counter().count());
+
+            aggregates.onProductChanged(event);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Counted once, and SQL agrees
+        assertEquals(0, new BigDecimal("5049.00").compareTo(aggregates.snapshot().getTotalInventoryValue()));
+        aggregates.reconcile();
+        assertEquals(1.0, meterRegistry.get("catalog.inventory.reconciliations").tag("result", "match").counter().count());
+        assertEquals(0.0, meterRegistry.get("catalog.inventory.reconciliations").tag("result", "drift").counter().count());
+    }
+
+    private static Product product(String category, String brand, String price, int stock) {
+        return Product.builder()
+                .id(10L)
+                .category(category)
+                .brand(brand)
+                .price(new BigDecimal(price))
+                .stock(stock)
+                .build();
+    }
+
+    private static InventoryGroupView group(String name, long products, long stock, String value) {
+        return new InventoryGroupView() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Long getProductCount() {
+                return products;
+            }
+
+            @Override
+            public Long getTotalStock() {
+                return stock;
+            }
+
+            @Override
+            public BigDecimal getInventoryValue() {
+                return new BigDecimal(value);
+            }
+        };
+    }
+}
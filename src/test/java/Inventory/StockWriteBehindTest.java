@@ -0,0 +1,211 @@
+package Inventory;
+
+import com.phasezero.catalog.PhaseZeroCatalogServiceApplication;
+import com.phasezero.catalog.cache.ProductQueryCache;
+import com.phasezero.catalog.exception.InsufficientStockException;
+import com.phasezero.catalog.exception.ValidationException;
+import com.phasezero.catalog.inventory.StockWriteBehind;
+import com.phasezero.catalog.requestdto.ProductRequest;
+import com.phasezero.catalog.responsedto.ProductResponse;
+import com.phasezero.catalog.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Flushes only when the test asks, so what is buffered and what is written can be told apart
+@SpringBootTest(classes = PhaseZeroCatalogServiceApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:stock-write-behind;DB_CLOSE_DELAY=-1",
+        "catalog.stock.write-behind.enabled=true",
+        "catalog.stock.write-behind.flush-interval-ms=3600000",
+        "catalog.stock.write-behind.max-pending=100000"})
+@AutoConfigureMockMvc
+public class StockWriteBehindTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StockWriteBehind stockWriteBehind;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductQueryCache productQueryCache;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void testAdjust_readsSeeDeltasBeforeFlush() {
+        Long id = create("wb-read", "write behind gasket", 10);
+
+        productService.adjustStock(id, -3);
+        productService.adjustStock(id, -2);
+        assertEquals(6, productService.adjustStock(id, 1).getStock());
+        assertThrows(InsufficientStockException.class, () -> productService.adjustStock(id, -7));
+
+        assertEquals(10, storedStock(id));
+        assertEquals(6, productService.searchProductsByName("write behind gasket").get(0).getStock());
+
+        // Three deltas, one row
+        assertEquals(1, stockWriteBehind.flush());
+        assertEquals(6, storedStock(id));
+        assertEquals(6, productService.searchProductsByName("write behind gasket").get(0).getStock());
+    }
+
+    @Test
+    void testAdjust_changesEtagBeforeFlush() throws Exception {
+        create("wb-etag", "write behind etag seal", 10);
+        Long id = create("wb-etag-2", "write behind etag ring", 10);
+
+        String etag = mockMvc.perform(get("/api/v1/products/search").param("name", "write behind etag"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(patch("/api/v1/products/{id}/stock", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"delta\": -4}"))
+                .andExpect(status().isOk());
+
+        // Not flushed yet, but the body now carries the buffered stock, so the old tag must not match
+        mockMvc.perform(get("/api/v1/products/search").param("name", "write behind etag ring")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].stock").value(6));
+        assertEquals(10, storedStock(id));
+    }
+
+    @Test
+    void testAdjust_laidOverCachedListingsAndTotals() {
+        Long id = create("wb-cached", "write behind cached part", "Seals", 10);
+        String key = productQueryCache.categoryKey("Seals");
+        List<ProductResponse> cached = productService.filterProductsByCategory("Seals");
+        BigDecimal value = productService.calculateTotalInventoryValue().getTotalInventoryValue();
+
+        productService.adjustStock(id, -4);
+
+        // The committed rows stay cached; readers get a copy with the buffered stock
+        assertEquals(key, productQueryCache.categoryKey("Seals"));
+        assertSame(cached, cacheManager.getCache(ProductQueryCache.BY_CATEGORY).get(key).get());
+        assertEquals(10, cached.get(0).getStock());
+        assertEquals(6, productService.filterProductsByCategory("Seals").get(0).getStock());
+        assertEquals(6, stock(productService.sortProductsByPriceAsc(), id));
+        assertEquals(0, value.subtract(new BigDecimal("40"))
+                .compareTo(productService.calculateTotalInventoryValue().getTotalInventoryValue()));
+        assertEquals(6, productService.calculateTotalInventoryValue().getByCategory().get("Seals").getTotalStock());
+
+        // Once flushed, the committed rows carry the stock and nothing is counted twice
+        stockWriteBehind.flush();
+        assertEquals(6, productService.filterProductsByCategory("Seals").get(0).getStock());
+        assertEquals(0, value.subtract(new BigDecimal("40"))
+                .compareTo(productService.calculateTotalInventoryValue().getTotalInventoryValue()));
+    }
+
+    @Test
+    void testAdjust_overflowIsRejected() {
+        Long id = create("wb-overflow", "write behind overflow part", Integer.MAX_VALUE - 5);
+
+        assertThrows(ValidationException.class, () -> productService.adjustStock(id, 6));
+        assertEquals(Integer.MAX_VALUE, productService.adjustStock(id, 5).getStock());
+    }
+
+    @Test
+    void testConcurrentTakes_neverOversellAcrossFlushes() throws Exception {
+        Long id = create("wb-race", "write behind race part", 100);
+
+        ExecutorService executor = Executors.newFixedThreadPool(33);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> outcomes = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                outcomes.add(executor.submit(() -> {
+                    start.await();
+                    int taken = 0;
+                    for (int attempt = 0; attempt < 5; attempt++) {
+                        try {
+                            productService.adjustStock(id, -1);
+                            taken++;
+                        } catch (InsufficientStockException ex) {
+                            // sold out
+                        }
+                    }
+                    return taken;
+                }));
+            }
+            Future<?> flusher = executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 20; i++) {
+                    stockWriteBehind.flush();
+                }
+                return null;
+            });
+            start.countDown();
+
+            int taken = 0;
+            for (Future<Integer> outcome : outcomes) {
+                taken += outcome.get(60, TimeUnit.SECONDS);
+            }
+            flusher.get(60, TimeUnit.SECONDS);
+            stockWriteBehind.flush();
+
+            assertEquals(100, taken);
+            assertEquals(0, storedStock(id));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testStop_flushesPendingDeltas() {
+        Long id = create("wb-stop", "write behind shutdown part", 5);
+        productService.adjustStock(id, 4);
+
+        stockWriteBehind.stop();
+        try {
+            assertEquals(9, storedStock(id));
+            assertThrows(IllegalStateException.class, () -> stockWriteBehind.adjust(id, 1));
+        } finally {
+            stockWriteBehind.start();
+        }
+    }
+
+    private Long create(String partNumber, String name, int stock) {
+        return create(partNumber, name, "Gaskets", stock);
+    }
+
+    private Long create(String partNumber, String name, String category, int stock) {
+        return productService.createProduct(new ProductRequest(partNumber, name, category,
+                BigDecimal.TEN, stock, null, null)).getId();
+    }
+
+    private static int stock(List<ProductResponse> products, Long id) {
+        return products.stream().filter(p -> p.getId().equals(id)).findFirst().orElseThrow().getStock();
+    }
+
+    private int storedStock(Long id) {
+        return jdbcTemplate.queryForObject("SELECT stock FROM products WHERE id = ?", Integer.class, id);
+    }
+}
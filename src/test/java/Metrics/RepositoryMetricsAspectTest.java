@@ -0,0 +1,65 @@
+package Metrics;
+
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.metrics.RepositoryMetricsAspect;
+import com.phasezero.catalog.repository.ProductRepository;
+import com.phasezero.catalog.responsedto.ProductResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class RepositoryMetricsAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProductRepository repository;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        ProductRepository target = mock(ProductRepository.class);
+        when(target.findByCategory("Filters")).thenReturn(List.of(new ProductResponse(), new ProductResponse()));
+        when(target.findByPartNumber("PN-1")).thenReturn(Optional.empty());
+        when(target.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(new Product())));
+        when(target.existsByPartNumber("PN-1")).thenReturn(true);
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new RepositoryMetricsAspect(meterRegistry));
+        repository = factory.getProxy();
+    }
+
+    @Test
+    void testRowsRecordedPerMethod() {
+        repository.findByCategory("Filters");
+        repository.findByCategory("Filters");
+        repository.findByPartNumber("PN-1");
+        repository.findAll(Pageable.ofSize(20));
+
+        DistributionSummary byCategory = rows("findByCategory");
+        assertEquals(2, byCategory.count());
+        assertEquals(4, byCategory.totalAmount());
+        assertEquals(0, rows("findByPartNumber").totalAmount());
+        assertEquals(1, rows("findAll").totalAmount());
+    }
+
+    @Test
+    void testExistenceChecksNotRecorded() {
+        assertTrue(repository.existsByPartNumber("PN-1"));
+
+        assertNull(meterRegistry.find("catalog.repository.rows").tag("method", "existsByPartNumber").summary());
+    }
+
+    private DistributionSummary rows(String method) {
+        return meterRegistry.get("catalog.repository.rows").tag("method", method).summary();
+    }
+}
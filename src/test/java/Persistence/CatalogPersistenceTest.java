@@ -0,0 +1,110 @@
+package Persistence;
+
+import com.phasezero.catalog.PhaseZeroCatalogServiceApplication;
+import com.phasezero.catalog.persistence.CatalogPersistence;
+import com.phasezero.catalog.requestdto.ProductRequest;
+import com.phasezero.catalog.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Restarts the service on a fresh in-memory database over the same persistence directory and
+ * checks that the catalog comes back as it was left.
+ */
+public class CatalogPersistenceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRestart_restoresSnapshotAndJournal() throws Exception {
+        Long adjusted;
+        try (ConfigurableApplicationContext context = start()) {
+            ProductService productService = context.getBean(ProductService.class);
+            adjusted = create(productService, "SNAP-1", 10);
+            create(productService, "SNAP-2", 20);
+            long rows = context.getBean(JdbcTemplate.class).queryForObject("SELECT COUNT(*) FROM products", Long.class);
+            assertEquals(rows, context.getBean(CatalogPersistence.class).compact());
+
+            // After the snapshot: journal only
+            create(productService, "JRNL-1", 30);
+            productService.adjustStock(adjusted, -4);
+        }
+
+        try (ConfigurableApplicationContext context = start()) {
+            Map<String, Integer> stock = stockByPartNumber(context);
+            assertEquals(Map.of("SNAP-1", 6, "SNAP-2", 20, "JRNL-1", 30), stock);
+
+            // New ids do not collide with restored ones
+            Long id = create(context.getBean(ProductService.class), "AFTER-1", 1);
+            Long maxRestored = context.getBean(JdbcTemplate.class).queryForObject(
+                    "SELECT MAX(id) FROM products WHERE part_number <> 'AFTER-1'", Long.class);
+            assertTrue(id > maxRestored);
+        }
+    }
+
+    @Test
+    void testRestart_ignoresTornJournalTail() throws Exception {
+        try (ConfigurableApplicationContext context = start()) {
+            create(context.getBean(ProductService.class), "TORN-1", 1);
+            create(context.getBean(ProductService.class), "TORN-2", 2);
+        }
+        // A crash in the middle of an append
+        Files.write(journal(), new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (ConfigurableApplicationContext context = start()) {
+            assertEquals(Map.of("TORN-1", 1, "TORN-2", 2), stockByPartNumber(context));
+            create(context.getBean(ProductService.class), "TORN-3", 3);
+        }
+        try (ConfigurableApplicationContext context = start()) {
+            assertEquals(Map.of("TORN-1", 1, "TORN-2", 2, "TORN-3", 3), stockByPartNumber(context));
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(PhaseZeroCatalogServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:restart-" + UUID.randomUUID(),
+                        "--spring.main.banner-mode=off",
+                        "--catalog.persistence.enabled=true",
+                        "--catalog.persistence.directory=" + directory);
+    }
+
+    private static Long create(ProductService productService, String partNumber, int stock) {
+        return productService.createProduct(new ProductRequest(partNumber, "restored part", "Filters",
+                BigDecimal.TEN, stock, null, null)).getId();
+    }
+
+    // The sample data is only seeded into an empty catalog, i.e. never after a restore
+    private static Map<String, Integer> stockByPartNumber(ConfigurableApplicationContext context) {
+        List<Map<String, Object>> rows = context.getBean(JdbcTemplate.class).queryForList(
+                "SELECT part_number, stock FROM products WHERE part_number NOT LIKE 'PN-%'");
+        return rows.stream().collect(Collectors.toMap(
+                row -> (String) row.get("PART_NUMBER"), row -> (Integer) row.get("STOCK")));
+    }
+
+    private Path journal() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith("journal-"))
+                    .max(Path::compareTo)
+                    .orElseThrow();
+        }
+    }
+}
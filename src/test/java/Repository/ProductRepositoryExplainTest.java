@@ -0,0 +1,159 @@
+package Repository;
+
+import com.phasezero.catalog.PhaseZeroCatalogServiceApplication;
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.repository.ProductRepository;
+import com.phasezero.catalog.responsedto.ProductResponse;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs each index-backed repository method, captures the SQL Hibernate generated for it and
+ * checks H2's EXPLAIN plan for that statement, so a renamed column or a query rewrite that
+ * silently falls back to a table scan fails the build.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=Repository.ProductRepositoryExplainTest$SqlRecorder",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+@ContextConfiguration(classes = PhaseZeroCatalogServiceApplication.class)
+public class ProductRepositoryExplainTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        productRepository.saveAndFlush(Product.builder()
+                .partNumber("PN-1")
+                .partName("oil filter")
+                .category("Filters")
+                .price(BigDecimal.TEN)
+                .stock(1)
+                .build());
+    }
+
+    @Test
+    void testFindByPartNumber_usesUniqueIndex() {
+        assertPlanUses(() -> productRepository.findByPartNumber("PN-1"), "UK_PRODUCT_PART_NUMBER", "PN-1");
+    }
+
+    @Test
+    void testFindExistingPartNumbers_usesUniqueIndex() {
+        assertPlanUses(() -> productRepository.findExistingPartNumbers(List.of("PN-1")), "UK_PRODUCT_PART_NUMBER", "PN-1");
+    }
+
+    @Test
+    void testFindByCategory_usesCategoryPriceIndex() {
+        assertPlanUses(() -> productRepository.findByCategory("Filters"), "IDX_PRODUCT_CATEGORY_PRICE", "Filters");
+    }
+
+    @Test
+    void testFindAllByOrderByPriceAsc_usesPriceIndex() {
+        assertPlanUses(() -> productRepository.findAllByOrderByPriceAsc(), "IDX_PRODUCT_PRICE");
+    }
+
+    @Test
+    void testFindAllPaged_usesCreatedAtIndex() {
+        assertPlanUses(() -> productRepository.findAllResponses(PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"))),
+                "IDX_PRODUCT_CREATED_AT_ID", 20);
+    }
+
+    @Test
+    void testFindPageAfter_usesCreatedAtIndex() {
+        assertPlanUses(() -> productRepository.findPageAfter(CREATED_AT, 10L, Limit.of(21)),
+                "IDX_PRODUCT_CREATED_AT_ID", CREATED_AT, CREATED_AT, 10L, 21);
+    }
+
+    @Test
+    void testFindPriceRange_seeksPriceIndex() {
+        assertEquals(1, productRepository.findPriceRange(BigDecimal.ONE, BigDecimal.TEN, "Filters",
+                BigDecimal.ONE.negate(), 0L, Limit.of(21)).size());
+        assertPlanUses(() -> productRepository.findPriceRange(BigDecimal.ONE, BigDecimal.TEN, "Filters",
+                        BigDecimal.ONE.negate(), 0L, Limit.of(21)),
+                "IDX_PRODUCT_PRICE", BigDecimal.ONE, BigDecimal.TEN, "Filters", "Filters",
+                BigDecimal.ONE.negate(), BigDecimal.ONE.negate(), 0L, 21);
+    }
+
+    @Test
+    void testFindByPartNameContaining_comparesFoldedColumn() {
+        SqlRecorder.STATEMENTS.clear();
+        assertEquals(1, productRepository.findByPartNameContaining("filter").size());
+
+        String sql = SqlRecorder.STATEMENTS.get(0).toLowerCase();
+        assertFalse(sql.contains("upper("), sql);
+        assertFalse(sql.contains("lower("), sql);
+    }
+
+    @Test
+    void testFindByPartNameContaining_matchesWildcardsLiterally() {
+        productRepository.saveAndFlush(Product.builder()
+                .partNumber("PN-2")
+                .partName("100% cotton rag")
+                .category("Cleaning")
+                .price(BigDecimal.ONE)
+                .stock(1)
+                .build());
+
+        assertEquals(List.of("100% cotton rag"), productRepository.findByPartNameContaining("%").stream()
+                .map(ProductResponse::getPartName).toList());
+        assertEquals(List.of(), productRepository.findByPartNameContaining("_"));
+    }
+
+    @Test
+    void testFindByTextContaining_matchesWildcardsLiterally() {
+        assertEquals(1, productRepository.findByTextContaining("filter", Limit.of(10)).size());
+        assertEquals(List.of(), productRepository.findByTextContaining("%", Limit.of(10)));
+        assertEquals(List.of(), productRepository.findByTextContaining("_", Limit.of(10)));
+    }
+
+    @Test
+    void testFindSuggestionFieldsByPrefix_matchesWildcardsLiterally() {
+        assertEquals(1, productRepository.findSuggestionFieldsByPrefix("pn-", Limit.of(10)).size());
+        assertEquals(List.of(), productRepository.findSuggestionFieldsByPrefix("pn_", Limit.of(10)));
+        assertEquals(List.of(), productRepository.findSuggestionFieldsByPrefix("%", Limit.of(10)));
+    }
+
+    private void assertPlanUses(Supplier<?> call, String index, Object... parameters) {
+        SqlRecorder.STATEMENTS.clear();
+        call.get();
+        assertFalse(SqlRecorder.STATEMENTS.isEmpty(), "no SQL captured");
+
+        String sql = SqlRecorder.STATEMENTS.get(0);
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters);
+        assertTrue(plan.toUpperCase().contains("PUBLIC." + index), () -> "Expected " + index + " in plan:\n" + plan);
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.trim().toLowerCase().startsWith("select")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package Seed;
+
+import com.phasezero.catalog.PhaseZeroCatalogServiceApplication;
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.requestdto.ProductRequest;
+import com.phasezero.catalog.seed.SyntheticProducts;
+import com.phasezero.catalog.service.ProductService;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CatalogSeederTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testSyntheticProducts_deterministicUniqueAndValid() {
+        SyntheticProducts products = new SyntheticProducts(7);
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        Set<String> partNumbers = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            Product product = products.product(i);
+            assertEquals(product, new SyntheticProducts(7).product(i));
+            assertEquals(product.getPartNumber(), products.partNumber(i));
+            assertTrue(partNumbers.add(product.getPartNumber()));
+            assertTrue(validator.validate(product).isEmpty(), () -> "invalid: " + product);
+        }
+        assertNotEquals(products.product(0), new SyntheticProducts(8).product(0));
+    }
+
+    @Test
+    void testSeed_syntheticRowsThenCreatesGetFreshIds() {
+        try (ConfigurableApplicationContext context = start("--catalog.seed.source=synthetic",
+                "--catalog.seed.rows=2000", "--catalog.seed.batch-size=300")) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            assertEquals(2000, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Integer.class));
+
+            Long id = context.getBean(ProductService.class).createProduct(new ProductRequest("NEW-1",
+                    "fresh part", "Filters", BigDecimal.TEN, 1, null, null)).getId();
+            assertTrue(id > 2000);
+        }
+    }
+
+    @Test
+    void testSeed_csvImportIsNormalized() throws Exception {
+        Path csv = directory.resolve("seed.csv");
+        Files.writeString(csv, """
+                part_number,part_name,category,price,stock,brand,description
+                csv-1,  Oil Filter ,Filters,12.50,4,Bosch,spin-on filter
+                csv-2,Brake Pads,Brakes,40,0,,
+                """);
+        try (ConfigurableApplicationContext context = start("--catalog.seed.source=csv",
+                "--catalog.seed.file=" + csv)) {
+            List<Map<String, Object>> rows = context.getBean(JdbcTemplate.class).queryForList(
+                    "SELECT part_number, part_name, price, stock, brand FROM products ORDER BY id");
+            assertEquals(2, rows.size());
+            assertEquals("CSV-1", rows.get(0).get("PART_NUMBER"));
+            assertEquals("oil filter", rows.get(0).get("PART_NAME"));
+            assertEquals(new BigDecimal("40.00"), rows.get(1).get("PRICE"));
+            assertNull(rows.get(1).get("BRAND"));
+        }
+    }
+
+    @Test
+    void testSeed_rejectsInvalidNdjson() throws Exception {
+        Path ndjson = directory.resolve("seed.ndjson");
+        Files.writeString(ndjson, """
+                {"partNumber":"JS-1","partName":"oil filter","category":"Filters","price":12.5,"stock":4}
+                {"partNumber":"JS-2","partName":"brake pads","category":"Brakes","price":40,"stock":-1}
+                """);
+        Exception ex = assertThrows(Exception.class, () -> start("--catalog.seed.source=ndjson",
+                "--catalog.seed.file=" + ndjson).close());
+        Throwable cause = ex;
+        while (!(cause instanceof IllegalArgumentException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        assertEquals(ndjson + " line 2: Stock cannot be negative", cause.getMessage());
+    }
+
+    private static ConfigurableApplicationContext start(String... args) {
+        String[] all = new String[args.length + 2];
+        all[0] = "--spring.datasource.url=jdbc:h2:mem:seed-" + UUID.randomUUID();
+        all[1] = "--spring.main.banner-mode=off";
+        System.arraycopy(args, 0, all, 2, args.length);
+        return new SpringApplicationBuilder(PhaseZeroCatalogServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(all);
+    }
+}
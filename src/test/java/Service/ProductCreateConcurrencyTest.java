@@ -0,0 +1,84 @@
+package Service;
+
+import com.phasezero.catalog.PhaseZeroCatalogServiceApplication;
+import com.phasezero.catalog.exception.DuplicateProductException;
+import com.phasezero.catalog.repository.ProductRepository;
+import com.phasezero.catalog.requestdto.ProductRequest;
+import com.phasezero.catalog.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many threads create the same part number at once; the unique constraint must let exactly one
+ * through and every other caller must get a {@link DuplicateProductException}.
+ */
+@SpringBootTest(classes = PhaseZeroCatalogServiceApplication.class,
+        properties = "spring.datasource.url=jdbc:h2:mem:create-race;DB_CLOSE_DELAY=-1")
+public class ProductCreateConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void testConcurrentCreates_exactlyOneWins() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                // Mixed case on purpose: all variants normalize to the same stored part number
+                String partNumber = "race-" + round;
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<String>> outcomes = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    String requested = i % 2 == 0 ? partNumber : partNumber.toUpperCase();
+                    outcomes.add(executor.submit(() -> {
+                        start.await();
+                        try {
+                            productService.createProduct(new ProductRequest(requested, "race part", "Racing",
+                                    BigDecimal.TEN, 1, null, null));
+                            return "created";
+                        } catch (DuplicateProductException ex) {
+                            return "duplicate";
+                        }
+                    }));
+                }
+                start.countDown();
+
+                int created = 0;
+                int duplicates = 0;
+                for (Future<String> outcome : outcomes) {
+                    // Any other exception (lock timeout, unmapped constraint violation) fails the test here
+                    String result = outcome.get(30, TimeUnit.SECONDS);
+                    if (result.equals("created")) {
+                        created++;
+                    } else {
+                        duplicates++;
+                    }
+                }
+
+                assertEquals(1, created, "round " + round);
+                assertEquals(THREADS - 1, duplicates, "round " + round);
+                assertTrue(productRepository.findByPartNumber(partNumber.toUpperCase()).isPresent());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,22 +1,54 @@
 package Service;
 
+import com.phasezero.catalog.cache.ProductQueryCache;
 import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.event.ProductChangedEvent;
 import com.phasezero.catalog.exception.DuplicateProductException;
+import com.phasezero.catalog.exception.InsufficientStockException;
 import com.phasezero.catalog.exception.ProductNotFoundException;
+import com.phasezero.catalog.exception.ValidationException;
+import com.phasezero.catalog.index.FullTextIndex;
+import com.phasezero.catalog.index.PartNumberFilter;
+import com.phasezero.catalog.index.PriceIndex;
+import com.phasezero.catalog.index.ProductFacetIndex;
+import com.phasezero.catalog.index.ProductFacetIndex.FacetCounts;
+import com.phasezero.catalog.index.ProductNameIndex;
+import com.phasezero.catalog.index.SuggestionIndex;
+import com.phasezero.catalog.inventory.InventoryAggregates;
+import com.phasezero.catalog.inventory.StockWriteBehind;
 import com.phasezero.catalog.repository.ProductRepository;
+import com.phasezero.catalog.requestdto.ExportSort;
+import com.phasezero.catalog.requestdto.PriceCursor;
+import com.phasezero.catalog.requestdto.PriceRange;
+import com.phasezero.catalog.requestdto.ProductCursor;
 import com.phasezero.catalog.requestdto.ProductRequest;
+import com.phasezero.catalog.responsedto.BatchCreateResponse;
+import com.phasezero.catalog.responsedto.BatchRowResult;
+import com.phasezero.catalog.responsedto.CursorPageResponse;
+import com.phasezero.catalog.responsedto.FacetedSearchResponse;
 import com.phasezero.catalog.responsedto.InventoryValueResponse;
 import com.phasezero.catalog.responsedto.ProductResponse;
 import com.phasezero.catalog.service.impl.ProductServiceImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -26,14 +58,61 @@ public class ProductServiceImplTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductNameIndex productNameIndex;
+
+    @Mock
+    private PartNumberFilter partNumberFilter;
+
+    @Mock
+    private ProductFacetIndex productFacetIndex;
+
+    @Mock
+    private PriceIndex priceIndex;
+
+    @Mock
+    private FullTextIndex fullTextIndex;
+
+    @Mock
+    private SuggestionIndex suggestionIndex;
+
+    @Mock
+    private InventoryAggregates inventoryAggregates;
+
+    @Mock
+    private StockWriteBehind stockWriteBehind;
+
+    @Mock
+    private ProductQueryCache productQueryCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Validator validator;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
     private Product product;
+    private ProductResponse productResponse;
 
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
+        when(transactionTemplate.execute(any())).thenAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        // No caching and no buffered deltas
+        when(productQueryCache.byCategory(anyString(), any())).thenAnswer(
+                invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        when(productQueryCache.byPrice(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        when(stockWriteBehind.withPending(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
 
         product = Product.builder()
                 .id(1L)
@@ -43,6 +122,15 @@ public class ProductServiceImplTest {
                 .price(BigDecimal.valueOf(100))
                 .stock(5)
                 .build();
+
+        productResponse = ProductResponse.builder()
+                .id(1L)
+                .partNumber("ABC123")
+                .PartName("test product")
+                .category("Electronics")
+                .price(BigDecimal.valueOf(100))
+                .stock(5)
+                .build();
     }
 
     // -------------------------------
@@ -55,13 +143,52 @@ public class ProductServiceImplTest {
                 BigDecimal.valueOf(100), 5, "Sony", "Nice"
         );
 
-        when(productRepository.existsByPartNumber("ABC123")).thenReturn(false);
-        when(productRepository.save(any(Product.class))).thenReturn(product);
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(product);
 
         ProductResponse response = productService.createProduct(request);
 
         assertEquals("ABC123", response.getPartNumber());
-        verify(productRepository, times(1)).save(any(Product.class));
+        verify(productRepository, times(1)).saveAndFlush(any(Product.class));
+        verify(productRepository, never()).existsByPartNumber(anyString());
+        verify(eventPublisher).publishEvent(any(ProductChangedEvent.class));
+    }
+
+    // -------------------------------
+    // STOCK
+    // -------------------------------
+    @Test
+    void testAdjustStock_publishesPreviousStock() {
+        when(productRepository.adjustStock(eq(1L), eq(-2), any(LocalDateTime.class))).thenReturn(1);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        ProductResponse response = productService.adjustStock(1L, -2);
+
+        assertEquals(5, response.getStock());
+        ArgumentCaptor<ProductChangedEvent> event = ArgumentCaptor.forClass(ProductChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(ProductChangedEvent.ChangeType.STOCK_ADJUSTED, event.getValue().getType());
+        assertEquals(7, event.getValue().getPrevious().getStock());
+    }
+
+    @Test
+    void testAdjustStock_rejectedUpdate() {
+        when(productRepository.adjustStock(anyLong(), anyInt(), any(LocalDateTime.class))).thenReturn(0);
+        when(productRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(InsufficientStockException.class, () -> productService.adjustStock(1L, -6));
+        assertThrows(ProductNotFoundException.class, () -> productService.adjustStock(2L, -1));
+        assertThrows(ValidationException.class, () -> productService.adjustStock(1L, 0));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testAdjustStock_writeBehind() {
+        when(stockWriteBehind.isEnabled()).thenReturn(true);
+        when(stockWriteBehind.adjust(1L, -2)).thenReturn(productResponse.toBuilder().stock(3).build());
+
+        assertEquals(3, productService.adjustStock(1L, -2).getStock());
+        verify(productRepository, never()).adjustStock(anyLong(), anyInt(), any(LocalDateTime.class));
+        verifyNoInteractions(transactionTemplate);
     }
 
     @Test
@@ -71,12 +198,83 @@ public class ProductServiceImplTest {
                 BigDecimal.valueOf(100), 5, null, null
         );
 
-        when(productRepository.existsByPartNumber("ABC123")).thenReturn(true);
+        when(productRepository.saveAndFlush(any(Product.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new ConstraintViolationException("Unique index violation", null, "PUBLIC.UK_PRODUCT_PART_NUMBER_INDEX_F")));
 
-        assertThrows(DuplicateProductException.class,
+        DuplicateProductException ex = assertThrows(DuplicateProductException.class,
                 () -> productService.createProduct(request));
 
-        verify(productRepository, never()).save(any());
+        assertTrue(ex.getMessage().contains("ABC123"));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testCreateProduct_otherConstraintViolationPropagates() {
+        ProductRequest request = new ProductRequest(
+                "ABC123", "test", "Electronics",
+                BigDecimal.valueOf(100), 5, null, null
+        );
+        DataIntegrityViolationException failure = new DataIntegrityViolationException(
+                "could not execute statement",
+                new ConstraintViolationException("Check constraint violation", null, "CK_PRODUCT_STOCK"));
+        when(productRepository.saveAndFlush(any(Product.class))).thenThrow(failure);
+
+        assertSame(failure, assertThrows(DataIntegrityViolationException.class,
+                () -> productService.createProduct(request)));
+    }
+
+    // -------------------------------
+    // BATCH CREATE
+    // -------------------------------
+    @Test
+    void testCreateProducts_reportsPerRow() {
+        List<ProductRequest> requests = List.of(
+                new ProductRequest("new-1", "oil filter", "Filters", BigDecimal.TEN, 5, null, null),
+                new ProductRequest("EXIST-1", "air filter", "Filters", BigDecimal.TEN, 5, null, null),
+                new ProductRequest("NEW-1", "oil filter", "Filters", BigDecimal.TEN, 5, null, null)
+        );
+        when(partNumberFilter.mightContain(anyString())).thenReturn(true);
+        when(productRepository.findExistingPartNumbers(anyList())).thenReturn(List.of("EXIST-1"));
+        // Product#normalizeData normally runs on persist
+        doAnswer(invocation -> {
+            Product persisted = invocation.getArgument(0);
+            persisted.setPartNumber(persisted.getPartNumber().toUpperCase());
+            return null;
+        }).when(entityManager).persist(any(Product.class));
+
+        BatchCreateResponse response = productService.createProducts(requests);
+
+        assertEquals(3, response.getRequested());
+        assertEquals(1, response.getCreated());
+        assertEquals(BatchRowResult.Status.CREATED, response.getResults().get(0).getStatus());
+        assertEquals(BatchRowResult.Status.DUPLICATE, response.getResults().get(1).getStatus());
+        assertEquals(BatchRowResult.Status.DUPLICATE, response.getResults().get(2).getStatus());
+        verify(productRepository, times(1)).findExistingPartNumbers(anyList());
+        verify(productRepository, never()).existsByPartNumber(anyString());
+        verify(entityManager, times(1)).persist(any(Product.class));
+        verify(eventPublisher, times(1)).publishEvent(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    void testCreateProducts_filterMissesSkipLookup() {
+        List<ProductRequest> requests = List.of(
+                new ProductRequest("NEW-1", "oil filter", "Filters", BigDecimal.TEN, 5, null, null),
+                new ProductRequest("NEW-2", "air filter", "Filters", BigDecimal.TEN, 5, null, null)
+        );
+        when(partNumberFilter.isReady()).thenReturn(true);
+        when(partNumberFilter.mightContain(anyString())).thenReturn(false);
+
+        BatchCreateResponse response = productService.createProducts(requests);
+
+        assertEquals(2, response.getCreated());
+        verify(productRepository, never()).findExistingPartNumbers(anyList());
+        verify(partNumberFilter).recordFalsePositives(0);
+    }
+
+    @Test
+    void testCreateProducts_emptyBatch() {
+        assertThrows(ValidationException.class, () -> productService.createProducts(List.of()));
     }
 
     // -------------------------------
@@ -85,9 +283,9 @@ public class ProductServiceImplTest {
     @Test
     void testGetAllProducts_success() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Product> page = new PageImpl<>(List.of(product));
+        Page<ProductResponse> page = new PageImpl<>(List.of(productResponse));
 
-        when(productRepository.findAll(pageable)).thenReturn(page);
+        when(productRepository.findAllResponses(pageable)).thenReturn(page);
 
         Page<ProductResponse> response = productService.getAllProducts(pageable);
 
@@ -95,34 +293,165 @@ public class ProductServiceImplTest {
         assertEquals("ABC123", response.getContent().get(0).getPartNumber());
     }
 
+    // -------------------------------
+    // CURSOR PAGINATION
+    // -------------------------------
+    @Test
+    void testGetProductsByCursor_firstPageHasNext() {
+        ProductResponse second = productResponse.toBuilder().id(2L).createdAt(LocalDateTime.of(2024, 1, 1, 9, 0)).build();
+        productResponse.setCreatedAt(LocalDateTime.of(2024, 1, 1, 10, 0));
+        when(productRepository.findAllByOrderByCreatedAtDescIdDesc(Limit.of(2)))
+                .thenReturn(List.of(productResponse, second));
+
+        CursorPageResponse<ProductResponse> page = productService.getProductsByCursor(null, 1);
+
+        assertEquals(1, page.getSize());
+        assertTrue(page.isHasNext());
+        ProductCursor next = ProductCursor.decode(page.getNextCursor());
+        assertEquals(productResponse.getCreatedAt(), next.getCreatedAt());
+        assertEquals(1L, next.getId());
+    }
+
+    @Test
+    void testGetProductsByCursor_seeksPastCursor() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 10, 0);
+        String cursor = new ProductCursor(createdAt, 7L).encode();
+        when(productRepository.findPageAfter(createdAt, 7L, Limit.of(21))).thenReturn(List.of(productResponse));
+
+        CursorPageResponse<ProductResponse> page = productService.getProductsByCursor(cursor, 20);
+
+        assertEquals(1, page.getSize());
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+        verify(productRepository, never()).count();
+    }
+
+    @Test
+    void testGetProductsByCursor_invalidCursor() {
+        assertThrows(ValidationException.class, () -> productService.getProductsByCursor("not-a-cursor", 20));
+    }
+
     // -------------------------------
     // SEARCH
     // -------------------------------
     @Test
     void testSearchProductsByName_success() {
-        when(productRepository.findByPartNameContainingIgnoreCase("test"))
-                .thenReturn(List.of(product));
+        when(productRepository.findByPartNameContaining("test"))
+                .thenReturn(List.of(productResponse));
+
+        List<ProductResponse> response = productService.searchProductsByName("test");
+
+        assertEquals(1, response.size());
+    }
+
+    @Test
+    void testSearchProductsByName_usesNameIndex() {
+        when(productNameIndex.isReady()).thenReturn(true);
+        when(productNameIndex.size()).thenReturn(100);
+        when(productNameIndex.search("test")).thenReturn(List.of(1L));
+        when(productRepository.findResponsesByIdIn(List.of(1L))).thenReturn(List.of(productResponse));
 
         List<ProductResponse> response = productService.searchProductsByName("test");
 
         assertEquals(1, response.size());
+        verify(productRepository, never()).findByPartNameContaining(anyString());
     }
 
     @Test
     void testSearchProductsByName_notFound() {
-        when(productRepository.findByPartNameContainingIgnoreCase("xyz"))
+        when(productRepository.findByPartNameContaining("xyz"))
                 .thenReturn(List.of());
 
         assertThrows(ProductNotFoundException.class,
                 () -> productService.searchProductsByName("xyz"));
     }
 
+    @Test
+    void testSearchFullText_keepsIndexRanking() {
+        ProductResponse second = ProductResponse.builder().id(2L).partNumber("XYZ789").build();
+        when(fullTextIndex.isReady()).thenReturn(true);
+        when(fullTextIndex.search("Iridium plug", 10)).thenReturn(List.of(2L, 1L));
+        when(productRepository.findResponsesByIdIn(List.of(2L, 1L))).thenReturn(List.of(productResponse, second));
+
+        List<ProductResponse> response = productService.searchFullText("Iridium plug", 10);
+
+        assertEquals(List.of(2L, 1L), response.stream().map(ProductResponse::getId).toList());
+        assertThrows(ValidationException.class, () -> productService.searchFullText(" - ", 10));
+    }
+
+    @Test
+    void testSuggest_clampsLimit() {
+        when(suggestionIndex.isReady()).thenReturn(true);
+        when(suggestionIndex.suggest("PN-10", 50)).thenReturn(List.of());
+
+        assertEquals(List.of(), productService.suggest("PN-10", 1000));
+        verify(suggestionIndex).suggest("PN-10", 50);
+        assertThrows(ValidationException.class, () -> productService.suggest("  ", 10));
+    }
+
+    @Test
+    void testGetProductsByPriceRange_keepsIndexOrderAndReturnsCursor() {
+        ProductResponse cheaper = ProductResponse.builder().id(7L).price(new BigDecimal("5.00")).build();
+        when(priceIndex.isReady()).thenReturn(true);
+        when(priceIndex.range(null, new BigDecimal("50"), "Electronics", null, null, 2))
+                .thenReturn(List.of(7L, 1L));
+        // The database returns the rows in id order
+        when(productRepository.findResponsesByIdIn(List.of(7L, 1L))).thenReturn(List.of(productResponse, cheaper));
+
+        CursorPageResponse<ProductResponse> page =
+                productService.getProductsByPriceRange(null, new BigDecimal("50"), "Electronics ", null, 1);
+
+        assertEquals(List.of(cheaper), page.getContent());
+        assertTrue(page.isHasNext());
+        assertEquals(new PriceCursor(new BigDecimal("5.00"), 7L), PriceCursor.decode(page.getNextCursor()));
+        verify(productRepository, never()).findPriceRange(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testGetProductsByPriceRange_capsHugeBoundsOnIndexPath() {
+        when(priceIndex.isReady()).thenReturn(true);
+        when(priceIndex.range(any(), any(), any(), any(), any(), anyInt())).thenReturn(List.of(1L));
+        when(productRepository.findResponsesByIdIn(List.of(1L))).thenReturn(List.of(productResponse));
+
+        CursorPageResponse<ProductResponse> page = productService.getProductsByPriceRange(
+                new BigDecimal("1e999999999"), new BigDecimal("1e999999999"), null, null, 20);
+
+        assertEquals(List.of(productResponse), page.getContent());
+        verify(priceIndex).range(new BigDecimal("1E18"), new BigDecimal("1E18"), null, null, null, 21);
+    }
+
+    @Test
+    void testGetProductsByPriceRange_rejectsInvertedBounds() {
+        assertThrows(ValidationException.class, () -> productService.getProductsByPriceRange(
+                new BigDecimal("20"), new BigDecimal("10"), null, null, 20));
+    }
+
+    @Test
+    void testFacetedSearch_countsFromIndexAndLoadsOnlyThePage() {
+        List<PriceRange> ranges = PriceRange.parseList("0-100,100-");
+        when(productNameIndex.isReady()).thenReturn(true);
+        when(productNameIndex.search("test")).thenReturn(List.of(1L, 2L));
+        when(productFacetIndex.count(List.of(1L, 2L), "Electronics", null, ranges, 0, 1))
+                .thenReturn(new FacetCounts(List.of(1L), 2, Map.of("Electronics", 2L), Map.of("Sony", 2L),
+                        new long[]{0, 2}));
+        when(productRepository.findResponsesByIdIn(List.of(1L))).thenReturn(List.of(productResponse));
+
+        FacetedSearchResponse response = productService.facetedSearch("test", " Electronics ", " ", ranges, 0, 1);
+
+        assertEquals(2, response.getTotalMatches());
+        assertEquals(List.of(productResponse), response.getContent());
+        assertEquals(Map.of("Sony", 2L), response.getBrands());
+        assertNull(response.getPriceRanges().get(1).getTo());
+        assertEquals(2, response.getPriceRanges().get(1).getCount());
+        verify(productRepository, never()).findByCategory(anyString());
+    }
+
     // -------------------------------
     // CATEGORY FILTER
     // -------------------------------
     @Test
     void testFilterProductsByCategory_success() {
-        when(productRepository.findByCategory("Electronics")).thenReturn(List.of(product));
+        when(productRepository.findByCategory("Electronics")).thenReturn(List.of(productResponse));
 
         List<ProductResponse> response = productService.filterProductsByCategory("Electronics");
 
@@ -143,13 +472,29 @@ public class ProductServiceImplTest {
     @Test
     void testSortProductsByPriceAsc_success() {
         when(productRepository.findAllByOrderByPriceAsc())
-                .thenReturn(List.of(product));
+                .thenReturn(List.of(productResponse));
 
         List<ProductResponse> response = productService.sortProductsByPriceAsc();
 
         assertEquals(1, response.size());
     }
 
+    // -------------------------------
+    // NDJSON EXPORT
+    // -------------------------------
+    @Test
+    void testExportProducts_streamsProjectedRows() {
+        when(productRepository.streamAll(ExportSort.PRICE.getSort()))
+                .thenReturn(Stream.of(productResponse, productResponse));
+        List<ProductResponse> exported = new ArrayList<>();
+
+        long count = productService.exportProducts(ExportSort.PRICE, exported::add);
+
+        assertEquals(2, count);
+        assertEquals("ABC123", exported.get(0).getPartNumber());
+        verifyNoInteractions(entityManager);
+    }
+
     // -------------------------------
     // INVENTORY VALUE
     // -------------------------------
@@ -162,6 +507,21 @@ public class ProductServiceImplTest {
         assertEquals(BigDecimal.valueOf(500), response.getTotalInventoryValue());
     }
 
+    @Test
+    void testInventoryValue_servedFromAggregates() {
+        InventoryValueResponse maintained = InventoryValueResponse.builder()
+                .totalInventoryValue(BigDecimal.valueOf(500))
+                .totalProducts(1L)
+                .build();
+        when(inventoryAggregates.isReady()).thenReturn(true);
+        when(inventoryAggregates.snapshot(List.of())).thenReturn(maintained);
+
+        InventoryValueResponse response = productService.calculateTotalInventoryValue();
+
+        assertSame(maintained, response);
+        verify(productRepository, never()).calculateTotalInventoryValue();
+    }
+
     @Test
     void testInventoryValue_nullCase() {
         when(productRepository.calculateTotalInventoryValue()).thenReturn(null);
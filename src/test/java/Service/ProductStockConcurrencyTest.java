@@ -0,0 +1,80 @@
+package Service;
+
+import com.phasezero.catalog.PhaseZeroCatalogServiceApplication;
+import com.phasezero.catalog.exception.InsufficientStockException;
+import com.phasezero.catalog.repository.ProductRepository;
+import com.phasezero.catalog.requestdto.ProductRequest;
+import com.phasezero.catalog.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many threads take stock from one SKU at once, asking for more in total than there is; exactly
+ * the available units must be handed out, every other caller must get an
+ * {@link InsufficientStockException}, and the stock must end at zero, never below.
+ */
+@SpringBootTest(classes = PhaseZeroCatalogServiceApplication.class,
+        properties = "spring.datasource.url=jdbc:h2:mem:stock-race;DB_CLOSE_DELAY=-1")
+public class ProductStockConcurrencyTest {
+
+    private static final int THREADS = 64;
+    private static final int ATTEMPTS_PER_THREAD = 3;
+    private static final int STOCK = 100;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void testConcurrentTakes_neverOversell() throws Exception {
+        Long id = productService.createProduct(new ProductRequest("hot-sku", "hot part", "Racing",
+                BigDecimal.TEN, STOCK, null, null)).getId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> outcomes = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                outcomes.add(executor.submit(() -> {
+                    start.await();
+                    int taken = 0;
+                    for (int attempt = 0; attempt < ATTEMPTS_PER_THREAD; attempt++) {
+                        try {
+                            productService.adjustStock(id, -1);
+                            taken++;
+                        } catch (InsufficientStockException ex) {
+                            // sold out
+                        }
+                    }
+                    return taken;
+                }));
+            }
+            start.countDown();
+
+            int taken = 0;
+            for (Future<Integer> outcome : outcomes) {
+                // Any other exception (lock timeout, constraint violation) fails the test here
+                taken += outcome.get(60, TimeUnit.SECONDS);
+            }
+
+            assertEquals(STOCK, taken);
+            assertEquals(0, productRepository.findById(id).orElseThrow().getStock());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package benchmark;
+
+import com.phasezero.catalog.PhaseZeroCatalogServiceApplication;
+import com.phasezero.catalog.index.FullTextIndex;
+import com.phasezero.catalog.index.PartNumberFilter;
+import com.phasezero.catalog.index.PriceIndex;
+import com.phasezero.catalog.index.ProductFacetIndex;
+import com.phasezero.catalog.index.ProductNameIndex;
+import com.phasezero.catalog.index.SuggestionIndex;
+import com.phasezero.catalog.inventory.InventoryAggregates;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Boots the catalog service against a private in-memory H2 database and seeds it with a
+ * deterministic synthetic catalog, so benchmarks can compare code paths at realistic sizes.
+ */
+public final class BenchmarkCatalog {
+
+    static final String[] ADJECTIVES = {"heavy duty", "premium", "compact", "high flow", "sealed", "reinforced", "standard"};
+    static final String[] PARTS = {"oil filter", "air filter", "brake pad", "spark plug", "fuel pump", "water pump",
+            "timing belt", "wiper blade", "radiator hose", "clutch plate", "wheel bearing", "shock absorber", "alternator"};
+    static final String[] CATEGORIES = {"Filters", "Brakes", "Ignition", "Engine", "Cooling", "Suspension", "Electrical"};
+    static final String[] BRANDS = {"Bosch", "Mobil", "Brembo", "MANN", "NGK", "Denso", "Valeo", "SKF"};
+    static final String[] MATERIALS = {"ceramic", "iridium", "platinum", "copper", "steel", "aluminium", "rubber",
+            "synthetic", "carbon", "nitrile", "cast iron"};
+    static final String[] FEATURES = {"long life", "low dust", "quiet operation", "corrosion resistant",
+            "OEM fit", "high temperature", "pre-lubricated"};
+
+    private static final int SEED_BATCH_SIZE = 5_000;
+
+    private BenchmarkCatalog() {
+    }
+
+    /** Boots without a web server; extra arguments (e.g. {@code --catalog.stock.write-behind.enabled=true}) are passed through. */
+    public static ConfigurableApplicationContext start(int rows, String... args) {
+        return start(rows, WebApplicationType.NONE, args);
+    }
+
+    /**
+     * Boots with the embedded web server on a random port, for benchmarks that go through HTTP.
+     * Extra arguments (e.g. {@code --spring.profiles.active=virtual-threads}) are passed through.
+     */
+    public static ConfigurableApplicationContext startServer(int rows, String... args) {
+        return start(rows, WebApplicationType.SERVLET, args);
+    }
+
+    public static int port(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    private static ConfigurableApplicationContext start(int rows, WebApplicationType type, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.com.phasezero.catalog=WARN",
+                "--logging.level.org.hibernate.SQL=WARN"));
+        args.addAll(List.of(extraArgs));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(PhaseZeroCatalogServiceApplication.class)
+                .web(type)
+                // passed as arguments so they take precedence over application.properties
+                .run(args.toArray(String[]::new));
+
+        seed(context.getBean(JdbcTemplate.class), rows);
+        // In-process read structures were built from the empty table at startup
+        context.getBean(ProductNameIndex.class).rebuild();
+        context.getBean(ProductFacetIndex.class).rebuild();
+        context.getBean(PriceIndex.class).rebuild();
+        context.getBean(FullTextIndex.class).rebuild();
+        context.getBean(SuggestionIndex.class).rebuild();
+        context.getBean(InventoryAggregates.class).rebuild();
+        context.getBean(PartNumberFilter.class).rebuild();
+        return context;
+    }
+
+    static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        String sql = "INSERT INTO products (id, part_number, part_name, category, price, stock, brand, description, "
+                + "created_at, updated_at) VALUES (NEXT VALUE FOR product_seq, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        // One row per second of history, so createdAt ordering is realistic
+        LocalDateTime start = LocalDateTime.now().minusSeconds(rows);
+
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{
+                    "BN-" + i,
+                    partName(i),
+                    CATEGORIES[i % CATEGORIES.length],
+                    BigDecimal.valueOf(100 + (i * 7919L) % 99_900, 2),
+                    i % 500,
+                    BRANDS[i % BRANDS.length],
+                    description(i),
+                    Timestamp.valueOf(start.plusSeconds(i)),
+                    Timestamp.valueOf(start.plusSeconds(i))
+            });
+            if (batch.size() == SEED_BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+
+    static String partName(int i) {
+        return ADJECTIVES[i % ADJECTIVES.length] + " " + PARTS[i % PARTS.length] + " m" + (i % 9973);
+    }
+
+    // Strides differ from partName's, so materials and features spread over every part type
+    static String description(int i) {
+        return MATERIALS[(i / 3) % MATERIALS.length] + " construction, " + FEATURES[(i / 5) % FEATURES.length]
+                + ", synthetic benchmark part";
+    }
+}
@@ -0,0 +1,205 @@
+package benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and outcomes of one measured run, per scenario. Responses are recorded into
+ * HdrHistogram {@link Recorder}s in microseconds from any thread; {@link #interval} moves what was
+ * recorded since the last call into the run totals, prints a progress line and appends the interval
+ * histograms, tagged by scenario, to an HdrHistogram log for later plotting or merging.
+ * <p>
+ * {@link #write} stores the run's settings and per-scenario summary as JSON, and {@link #compare}
+ * prints the change against such a file from an earlier run.
+ */
+final class LoadReport {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Map<String, Stats> scenarios = new LinkedHashMap<>();
+    private final HistogramLogWriter log;
+    private final long start = System.currentTimeMillis();
+    private long lastInterval = start;
+
+    LoadReport(List<LoadScenarios.Scenario> scenarios, File logFile) throws FileNotFoundException {
+        for (LoadScenarios.Scenario scenario : scenarios) {
+            this.scenarios.put(scenario.name, new Stats());
+        }
+        if (logFile != null) {
+            logFile.getParentFile().mkdirs();
+            log = new HistogramLogWriter(logFile);
+            log.outputLogFormatVersion();
+            log.outputStartTime(start);
+            log.setBaseTime(start);
+            log.outputLegend();
+        } else {
+            log = null;
+        }
+    }
+
+    void record(LoadScenarios.Scenario scenario, int status, long latencyNanos) {
+        Stats stats = scenarios.get(scenario.name);
+        stats.statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+        if (scenario.expectedStatuses.contains(status)) {
+            stats.recorder.recordValue(Math.max(1, latencyNanos / 1_000));
+        } else {
+            stats.errors.increment();
+        }
+    }
+
+    void failed(LoadScenarios.Scenario scenario) {
+        scenarios.get(scenario.name).errors.increment();
+    }
+
+    // Open model only: the arrival found max-in-flight requests outstanding and was not sent
+    void refused(LoadScenarios.Scenario scenario) {
+        scenarios.get(scenario.name).refused.increment();
+    }
+
+    /** Folds the latest interval into the totals and prints it; call from one thread. */
+    void interval(boolean print) {
+        long now = System.currentTimeMillis();
+        Histogram merged = new Histogram(SIGNIFICANT_DIGITS);
+        long errors = 0;
+        for (Map.Entry<String, Stats> entry : scenarios.entrySet()) {
+            Stats stats = entry.getValue();
+            Histogram interval = stats.recorder.getIntervalHistogram();
+            stats.total.add(interval);
+            merged.add(interval);
+            long totalErrors = stats.errors.sum();
+            errors += totalErrors - stats.reportedErrors;
+            stats.reportedErrors = totalErrors;
+            if (log != null && interval.getTotalCount() > 0) {
+                interval.setTag(entry.getKey());
+                log.outputIntervalHistogram(interval);
+            }
+        }
+        if (print) {
+            double seconds = Math.max(1, now - lastInterval) / 1000.0;
+            System.out.printf("%6.0fs  req/s=%-8.0f p50=%-8.2fms p99=%-8.2fms max=%-8.2fms errors=%d%n",
+                    (now - start) / 1000.0, merged.getTotalCount() / seconds,
+                    millis(merged.getValueAtPercentile(50)), millis(merged.getValueAtPercentile(99)),
+                    millis(merged.getMaxValue()), errors);
+        }
+        lastInterval = now;
+    }
+
+    void write(File file, Map<String, Object> settings, double elapsedSeconds) throws IOException {
+        Map<String, Object> scenarioSummaries = new LinkedHashMap<>();
+        Histogram all = new Histogram(SIGNIFICANT_DIGITS);
+        long errors = 0;
+        long refused = 0;
+        for (Map.Entry<String, Stats> entry : scenarios.entrySet()) {
+            Stats stats = entry.getValue();
+            all.add(stats.total);
+            errors += stats.errors.sum();
+            refused += stats.refused.sum();
+            Map<String, Object> summary = summary(stats.total, stats.errors.sum(), stats.refused.sum(), elapsedSeconds);
+            Map<Integer, Long> statuses = new TreeMap<>();
+            stats.statuses.forEach((status, count) -> statuses.put(status, count.sum()));
+            summary.put("statuses", statuses);
+            scenarioSummaries.put(entry.getKey(), summary);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("finishedAt", Instant.now().toString());
+        report.put("settings", settings);
+        report.put("total", summary(all, errors, refused, elapsedSeconds));
+        report.put("scenarios", scenarioSummaries);
+        file.getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+        if (log != null) {
+            log.close();
+        }
+
+        System.out.printf("%n%-12s %10s %10s %9s %9s %9s %9s %9s %7s%n",
+                "scenario", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+        scenarioSummaries.forEach((name, summary) -> printRow(name, summary));
+        printRow("total", report.get("total"));
+    }
+
+    /** Prints throughput and latency changes of each scenario against an earlier report. */
+    static void compare(File current, File baseline) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode now = mapper.readTree(current);
+        JsonNode before = mapper.readTree(baseline);
+        if (!now.get("settings").equals(before.get("settings"))) {
+            System.out.println("Note: settings differ from the baseline " + baseline.getPath());
+        }
+        System.out.printf("%n%-12s %18s %18s %18s%n", "vs baseline", "req/s", "p50 ms", "p99 ms");
+        compareRow("total", now.get("total"), before.get("total"));
+        now.get("scenarios").properties().forEach(entry ->
+                compareRow(entry.getKey(), entry.getValue(), before.path("scenarios").get(entry.getKey())));
+    }
+
+    private static Map<String, Object> summary(Histogram histogram, long errors, long refused, double elapsedSeconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", histogram.getTotalCount());
+        summary.put("errors", errors);
+        summary.put("refused", refused);
+        summary.put("throughputPerSecond", round(histogram.getTotalCount() / elapsedSeconds));
+        summary.put("meanMs", round(histogram.getMean() / 1000));
+        summary.put("p50Ms", round(millis(histogram.getValueAtPercentile(50))));
+        summary.put("p90Ms", round(millis(histogram.getValueAtPercentile(90))));
+        summary.put("p99Ms", round(millis(histogram.getValueAtPercentile(99))));
+        summary.put("p999Ms", round(millis(histogram.getValueAtPercentile(99.9))));
+        summary.put("maxMs", round(millis(histogram.getMaxValue())));
+        return summary;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void printRow(String name, Object summary) {
+        Map<String, Object> s = (Map<String, Object>) summary;
+        System.out.printf("%-12s %10d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d%n", name, s.get("requests"),
+                s.get("throughputPerSecond"), s.get("p50Ms"), s.get("p90Ms"), s.get("p99Ms"), s.get("p999Ms"),
+                s.get("maxMs"), s.get("errors"));
+    }
+
+    private static void compareRow(String name, JsonNode now, JsonNode before) {
+        if (before == null || before.isMissingNode()) {
+            System.out.printf("%-12s %18s%n", name, "(not in baseline)");
+            return;
+        }
+        System.out.printf("%-12s %18s %18s %18s%n", name, change(now, before, "throughputPerSecond"),
+                change(now, before, "p50Ms"), change(now, before, "p99Ms"));
+    }
+
+    private static String change(JsonNode now, JsonNode before, String field) {
+        double current = now.get(field).asDouble();
+        double previous = before.get(field).asDouble();
+        String percent = previous == 0 ? "n/a" : String.format("%+.1f%%", (current - previous) * 100 / previous);
+        return String.format("%.2f (%s)", current, percent);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static final class Stats {
+        private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+        private final Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder refused = new LongAdder();
+        private long reportedErrors;
+    }
+}
@@ -0,0 +1,205 @@
+package benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.seed.SyntheticProducts;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * One scenario per {@code ProductController} endpoint, each building its next request from the
+ * synthetic catalog the target was seeded with ({@code --catalog.seed.source=synthetic} and the same
+ * rows and seed), so queries hit real products and ids {@code 1..rows} exist. Popular products are
+ * picked far more often than the rest, as in a storefront.
+ * <p>
+ * Requests only depend on the caller's random generator, so a run with the same seed, mix and
+ * model replays the same request sequence per client.
+ */
+final class LoadScenarios {
+
+    // Default mix: mostly reads, a steady trickle of writes, the full-catalog endpoints rarely
+    static final String DEFAULT_MIX = "list=15,cursor=10,price-range=10,search=8,ranked=10,suggest=15,facets=8,"
+            + "filter=3,sort=0.5,inventory=3,export=0.1,changes=0.1,create=4,batch=1,stock=7";
+
+    private static final String BASE = "/api/v1/products";
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+    private static final int BATCH_SIZE = 20;
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final String baseUrl;
+    private final SyntheticProducts products;
+    private final long rows;
+    private final String runId;
+    // New products continue the synthetic sequence after the seeded ones, with run-unique part numbers
+    private final AtomicLong created = new AtomicLong();
+    private final Map<String, Scenario> all = new LinkedHashMap<>();
+
+    LoadScenarios(String baseUrl, SyntheticProducts products, long rows, String runId) {
+        this.baseUrl = baseUrl;
+        this.products = products;
+        this.rows = rows;
+        this.runId = runId;
+
+        define("list", Set.of(200), (r, p) -> get(BASE + "?page=" + (int) (50 * Math.pow(r.nextDouble(), 4)) + "&size=20"));
+        define("cursor", Set.of(200), (r, p) -> get(BASE + "/cursor?size=20"));
+        define("price-range", Set.of(200), (r, p) -> {
+            double price = p.getPrice().doubleValue();
+            String query = "?minPrice=" + Math.floor(price * 0.8) + "&maxPrice=" + Math.ceil(price * 1.2) + "&size=20";
+            return get(BASE + "/price-range" + query + (r.nextBoolean() ? "&category=" + encode(p.getCategory()) : ""));
+        });
+        define("search", Set.of(200), (r, p) -> get(BASE + "/search?name=" + encode(p.getPartName())));
+        define("ranked", Set.of(200), (r, p) -> get(BASE + "/search/ranked?limit=20&q="
+                + encode(lastWord(p.getPartName()) + " " + p.getBrand())));
+        define("suggest", Set.of(200), (r, p) -> {
+            String source = r.nextBoolean() ? p.getPartNumber() : p.getPartName();
+            return get(BASE + "/suggest?prefix=" + encode(source.substring(0, Math.min(source.length(), 3 + r.nextInt(4)))));
+        });
+        define("facets", Set.of(200), (r, p) -> get(BASE + "/facets?name=" + encode(lastWord(p.getPartName()))
+                + (r.nextInt(3) == 0 ? "&category=" + encode(p.getCategory()) : "")));
+        define("filter", Set.of(200), (r, p) -> get(BASE + "/filter?category=" + encode(p.getCategory())));
+        define("sort", Set.of(200), (r, p) -> get(BASE + "/sort"));
+        define("inventory", Set.of(200), (r, p) -> get(BASE + "/inventory/value"));
+        define("export", Set.of(200), (r, p) -> get(BASE + "/export"));
+        // Timed to the response headers; the harness closes the stream there
+        define("changes", Set.of(200), (r, p) -> get(BASE + "/changes"));
+        define("create", Set.of(201), (r, p) -> send("POST", BASE, request(newProduct())));
+        define("batch", Set.of(201, 207), (r, p) -> {
+            List<Map<String, Object>> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                batch.add(request(newProduct()));
+            }
+            return send("POST", BASE + "/batch", batch);
+        });
+        // Mostly single-unit sales, sometimes a restock; a sale of an out-of-stock product is a valid 409
+        define("stock", Set.of(200, 409), (r, p) -> send("PATCH", BASE + "/" + (index(r) + 1) + "/stock",
+                Map.of("delta", r.nextInt(10) == 0 ? 20 : -1)));
+    }
+
+    /** Parses {@code name=weight,...}; scenarios left out or weighted 0 are not sent. */
+    Mix mix(String spec) {
+        List<Scenario> scenarios = new ArrayList<>();
+        List<Double> cumulative = new ArrayList<>();
+        double total = 0;
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split("=");
+            Scenario scenario = all.get(parts[0].trim());
+            if (scenario == null || parts.length != 2) {
+                throw new IllegalArgumentException("Unknown mix entry '" + entry + "', scenarios are " + all.keySet());
+            }
+            double weight = Double.parseDouble(parts[1].trim());
+            if (weight > 0) {
+                total += weight;
+                scenarios.add(scenario);
+                cumulative.add(total);
+            }
+        }
+        if (scenarios.isEmpty()) {
+            throw new IllegalArgumentException("The mix sends no requests: " + spec);
+        }
+        return new Mix(scenarios, cumulative.stream().mapToDouble(Double::doubleValue).toArray());
+    }
+
+    private void define(String name, Set<Integer> expected, BiFunction<SplittableRandom, Product, HttpRequest> next) {
+        all.put(name, new Scenario(name, expected, random -> next.apply(random, products.product(index(random)))));
+    }
+
+    // Index of a seeded product, the low ones far more popular
+    private long index(SplittableRandom random) {
+        return Math.min(rows - 1, (long) (rows * Math.pow(random.nextDouble(), 3)));
+    }
+
+    private Product newProduct() {
+        long n = created.getAndIncrement();
+        return products.product(rows + n).toBuilder()
+                .partNumber("LT" + runId + "-" + n)
+                .build();
+    }
+
+    private static Map<String, Object> request(Product product) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("partNumber", product.getPartNumber());
+        body.put("name", product.getPartName());
+        body.put("category", product.getCategory());
+        body.put("price", product.getPrice());
+        body.put("stock", product.getStock());
+        body.put("brand", product.getBrand());
+        body.put("description", product.getDescription());
+        return body;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT).GET().build();
+    }
+
+    private HttpRequest send(String method, String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(body)))
+                    .build();
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String lastWord(String text) {
+        return text.substring(text.lastIndexOf(' ') + 1);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    static final class Scenario {
+        final String name;
+        final Set<Integer> expectedStatuses;
+        final Function<SplittableRandom, HttpRequest> next;
+
+        Scenario(String name, Set<Integer> expectedStatuses,
+                 Function<SplittableRandom, HttpRequest> next) {
+            this.name = name;
+            this.expectedStatuses = expectedStatuses;
+            this.next = next;
+        }
+
+        boolean streams() {
+            return name.equals("changes");
+        }
+    }
+
+    // Weighted choice between the scenarios of a run
+    static final class Mix {
+        final List<Scenario> scenarios;
+        private final double[] cumulative;
+
+        Mix(List<Scenario> scenarios, double[] cumulative) {
+            this.scenarios = scenarios;
+            this.cumulative = cumulative;
+        }
+
+        Scenario pick(SplittableRandom random) {
+            double point = random.nextDouble() * cumulative[cumulative.length - 1];
+            for (int i = 0; i < cumulative.length; i++) {
+                if (point < cumulative[i]) {
+                    return scenarios.get(i);
+                }
+            }
+            return scenarios.get(scenarios.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package benchmark;
+
+import com.phasezero.catalog.requestdto.ProductRequest;
+import com.phasezero.catalog.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows inserted per second: one {@code createProduct} call (and transaction) per row versus a
+ * single {@code createProducts} call using the set-based duplicate check and JDBC batching.
+ * Scores are reported per row thanks to {@link OperationsPerInvocation}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProductBatchInsertBenchmark {
+
+    static final int ROWS = 5_000;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkCatalog.start(0);
+        productService = context.getBean(ProductService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int singleInserts() {
+        List<ProductRequest> requests = nextRequests();
+        for (ProductRequest request : requests) {
+            productService.createProduct(request);
+        }
+        return requests.size();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int batchInsert() {
+        return productService.createProducts(nextRequests()).getCreated();
+    }
+
+    private List<ProductRequest> nextRequests() {
+        int run = invocation++;
+        List<ProductRequest> requests = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            requests.add(new ProductRequest(
+                    "BATCH-" + run + "-" + i,
+                    BenchmarkCatalog.partName(i),
+                    BenchmarkCatalog.CATEGORIES[i % BenchmarkCatalog.CATEGORIES.length],
+                    BigDecimal.valueOf(1999, 2),
+                    10,
+                    BenchmarkCatalog.BRANDS[i % BenchmarkCatalog.BRANDS.length],
+                    null));
+        }
+        return requests;
+    }
+}
@@ -0,0 +1,95 @@
+package benchmark;
+
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.exception.DuplicateProductException;
+import com.phasezero.catalog.repository.ProductRepository;
+import com.phasezero.catalog.requestdto.ProductRequest;
+import com.phasezero.catalog.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-product create: the previous check-then-insert ({@code existsByPartNumber} followed by
+ * the insert, two round trips) versus {@code createProduct}, which inserts directly and lets the
+ * unique constraint reject duplicates. Both are measured for new part numbers and for duplicates,
+ * where the direct insert pays for a failed statement and a rollback instead of a lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductCreateBenchmark {
+
+    @Param({"100000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private ProductRepository productRepository;
+    private TransactionTemplate transactionTemplate;
+    private int created;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkCatalog.start(rows);
+        productService = context.getBean(ProductService.class);
+        productRepository = context.getBean(ProductRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object checkThenInsert() {
+        return checkThenInsert(request("CHK-" + created++));
+    }
+
+    @Benchmark
+    public Object insertOnly() {
+        return productService.createProduct(request("INS-" + created++));
+    }
+
+    @Benchmark
+    public Object checkThenInsertDuplicate() {
+        return checkThenInsert(request("BN-42"));
+    }
+
+    @Benchmark
+    public Object insertOnlyDuplicate() {
+        try {
+            return productService.createProduct(request("BN-42"));
+        } catch (DuplicateProductException ex) {
+            return ex;
+        }
+    }
+
+    // The create path as it was before the constraint took over duplicate detection
+    private Object checkThenInsert(ProductRequest request) {
+        return transactionTemplate.execute(status -> {
+            if (productRepository.existsByPartNumber(request.getPartNumber().toUpperCase())) {
+                return new DuplicateProductException(request.getPartNumber());
+            }
+            return productRepository.saveAndFlush(Product.builder()
+                    .partNumber(request.getPartNumber())
+                    .partName(request.getName())
+                    .category(request.getCategory())
+                    .price(request.getPrice())
+                    .stock(request.getStock())
+                    .build());
+        });
+    }
+
+    private static ProductRequest request(String partNumber) {
+        return new ProductRequest(partNumber, "benchmark part", "Filters", BigDecimal.valueOf(1999, 2), 10, null, null);
+    }
+}
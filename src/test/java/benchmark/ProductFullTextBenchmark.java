@@ -0,0 +1,50 @@
+package benchmark;
+
+import com.phasezero.catalog.index.FullTextIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency distribution of ranked full-text queries against {@link FullTextIndex} holding one
+ * million synthetic products (names, brands and descriptions from {@link BenchmarkCatalog}).
+ * The index is filled directly, without the application or the database, so only the query is
+ * measured: posting-list merge, BM25 scoring of every match and the bounded top-K heap.
+ * <p>
+ * "m4242" is selective (about 100 matches); "iridium" matches one product in eleven and
+ * "ceramic brake pad" well over a third of the catalog, which is the worst case for scoring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ProductFullTextBenchmark {
+
+    @Param({"1000000"})
+    private int products;
+
+    @Param({"m4242", "iridium", "ceramic brake pad"})
+    private String query;
+
+    @Param({"10", "100"})
+    private int limit;
+
+    private FullTextIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new FullTextIndex(null);
+        for (int i = 0; i < products; i++) {
+            index.put((long) i, BenchmarkCatalog.partName(i), BenchmarkCatalog.BRANDS[i % BenchmarkCatalog.BRANDS.length],
+                    BenchmarkCatalog.description(i));
+        }
+    }
+
+    @Benchmark
+    public List<Long> search() {
+        return index.search(query, limit);
+    }
+}
@@ -0,0 +1,235 @@
+package benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load against {@code /api/v1/products} and {@code /search}, comparing the
+ * platform-thread and virtual-thread execution modes at increasing numbers of concurrent clients.
+ * Each client sends its next request as soon as the previous one completes; throughput and
+ * latency percentiles are reported per mode, endpoint and client count.
+ * <p>
+ * Not a JMH benchmark: JMH measures a method on a fixed set of threads, whereas this needs
+ * thousands of in-flight requests. Run with
+ * {@code mvn -Pload test-compile exec:exec -Dload.args="--clients 100,1000,10000 --duration 30"}.
+ * <p>
+ * By default each mode boots its own in-process server, so client and server share the CPU. For
+ * numbers that matter, start the service separately (with and without
+ * {@code --spring.profiles.active=virtual-threads}) and point the harness at it with
+ * {@code --target http://host:8080 --modes external}. Virtual-thread mode needs Java 21+ and is
+ * skipped on older runtimes.
+ */
+public final class ProductLoadBenchmark {
+
+    private static final List<String> ENDPOINTS = List.of(
+            "/api/v1/products?page=0&size=20",
+            "/api/v1/products/search?name=m42");
+
+    private ProductLoadBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parse(args);
+        List<Integer> clientCounts = Arrays.stream(options.getOrDefault("clients", "100,1000,10000").split(","))
+                .map(String::trim).map(Integer::parseInt).toList();
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "20")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "5")));
+        int rows = Integer.parseInt(options.getOrDefault("rows", "100000"));
+        String target = options.get("target");
+        List<String> modes = List.of(options.getOrDefault("modes", target != null ? "external" : "platform,virtual")
+                .split(","));
+        File output = new File(options.getOrDefault("output", "target/load-result.json"));
+
+        List<Result> results = new ArrayList<>();
+        for (String mode : modes) {
+            if (mode.equals("virtual") && Runtime.version().feature() < 21) {
+                System.out.printf("Skipping virtual mode: requires Java 21+, running on %d%n", Runtime.version().feature());
+                continue;
+            }
+
+            ConfigurableApplicationContext context = null;
+            String baseUrl = target;
+            if (baseUrl == null) {
+                context = mode.equals("virtual")
+                        ? BenchmarkCatalog.startServer(rows, "--spring.profiles.active=virtual-threads")
+                        : BenchmarkCatalog.startServer(rows);
+                baseUrl = "http://localhost:" + BenchmarkCatalog.port(context);
+            }
+
+            try {
+                for (String endpoint : ENDPOINTS) {
+                    for (int clients : clientCounts) {
+                        run(baseUrl + endpoint, clients, warmup);
+                        Result result = run(baseUrl + endpoint, clients, duration);
+                        result.mode = mode;
+                        result.endpoint = endpoint;
+                        results.add(result);
+                        System.out.println(result);
+                    }
+                }
+            } finally {
+                if (context != null) {
+                    context.close();
+                }
+            }
+        }
+
+        output.getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output, results);
+        System.out.println("Results written to " + output.getPath());
+    }
+
+    private static Result run(String url, int clients, Duration duration) {
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(executor)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET().build();
+
+            long deadline = System.nanoTime() + duration.toNanos();
+            AtomicLong errors = new AtomicLong();
+            List<Client> running = new ArrayList<>(clients);
+            long start = System.nanoTime();
+            for (int i = 0; i < clients; i++) {
+                Client client = new Client(httpClient, request, deadline, errors);
+                running.add(client);
+                client.next();
+            }
+            CompletableFuture.allOf(running.stream().map(c -> c.done).toArray(CompletableFuture[]::new)).join();
+            long elapsed = System.nanoTime() - start;
+
+            Latencies latencies = new Latencies();
+            running.forEach(c -> latencies.addAll(c.latencies));
+            return new Result(clients, latencies, errors.get(), elapsed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option value, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    // One simulated user: sends the next request as soon as the previous one completes
+    private static final class Client {
+        private final HttpClient httpClient;
+        private final HttpRequest request;
+        private final long deadline;
+        private final AtomicLong errors;
+        private final Latencies latencies = new Latencies();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Client(HttpClient httpClient, HttpRequest request, long deadline, AtomicLong errors) {
+            this.httpClient = httpClient;
+            this.request = request;
+            this.deadline = deadline;
+            this.errors = errors;
+        }
+
+        void next() {
+            if (System.nanoTime() >= deadline) {
+                done.complete(null);
+                return;
+            }
+            long sent = System.nanoTime();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+                if (failure != null || response.statusCode() != 200) {
+                    errors.incrementAndGet();
+                } else {
+                    latencies.add(System.nanoTime() - sent);
+                }
+                next();
+            });
+        }
+    }
+
+    // Growable array of nanosecond latencies; each instance is written by one client at a time
+    private static final class Latencies {
+        private long[] values = new long[256];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(Latencies other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    public static final class Result {
+        public String mode;
+        public String endpoint;
+        public final int clients;
+        public final long requests;
+        public final long errors;
+        public final double throughputPerSecond;
+        public final double p50Ms;
+        public final double p99Ms;
+        public final double maxMs;
+
+        Result(int clients, Latencies latencies, long errors, long elapsedNanos) {
+            long[] sorted = latencies.sorted();
+            this.clients = clients;
+            this.requests = sorted.length;
+            this.errors = errors;
+            this.throughputPerSecond = sorted.length / (elapsedNanos / 1e9);
+            this.p50Ms = percentile(sorted, 0.50);
+            this.p99Ms = percentile(sorted, 0.99);
+            this.maxMs = sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6;
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-8s %-36s clients=%-6d req/s=%-9.0f p50=%-8.2fms p99=%-8.2fms max=%-8.2fms errors=%d",
+                    mode, endpoint, clients, throughputPerSecond, p50Ms, p99Ms, maxMs, errors);
+        }
+    }
+}
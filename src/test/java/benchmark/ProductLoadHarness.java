@@ -0,0 +1,307 @@
+package benchmark;
+
+import com.phasezero.catalog.seed.SyntheticProducts;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Reproducible HTTP load against every {@code ProductController} endpoint, with a request mix and
+ * a synthetic catalog that only depend on the options (see {@link LoadScenarios}). Run with
+ * {@code mvn -Pload-test test-compile exec:exec -Dload-test.args="--model open --rate 500"}.
+ * <p>
+ * Two workload models:
+ * <ul>
+ *   <li>{@code closed} - {@code --clients} users, each sending its next request when the previous
+ *       one completes (after an optional exponential {@code --think-ms}); latency is measured from
+ *       send. Throughput is whatever the service sustains for that many users.</li>
+ *   <li>{@code open} - Poisson arrivals at {@code --rate} requests per second regardless of how the
+ *       service keeps up; latency is measured from each request's scheduled arrival, so queueing
+ *       behind a stall is counted (no coordinated omission). Arrivals beyond
+ *       {@code --max-in-flight} outstanding requests are counted as refused, not sent.</li>
+ * </ul>
+ * Without {@code --target} the harness boots the service in-process, seeded with
+ * {@code --rows} synthetic products from {@code --seed}; client and server then share the CPU. A
+ * separately started instance must be seeded the same way:
+ * {@code --catalog.seed.source=synthetic --catalog.seed.rows=<rows> --catalog.seed.random-seed=<seed>}.
+ * <p>
+ * After a {@code --warmup} phase that is not recorded, progress is printed every
+ * {@code --interval} seconds. The run writes {@code --output} (JSON summary per scenario: requests,
+ * errors, throughput, mean and p50/p90/p99/p99.9/max latency) and the interval histograms next to
+ * it as an HdrHistogram log ({@code .hlog}); {@code --baseline} prints the change against the JSON
+ * of an earlier run.
+ */
+public final class ProductLoadHarness {
+
+    private ProductLoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = ProductLoadBenchmark.parse(args);
+        String model = options.getOrDefault("model", "closed");
+        if (!model.equals("closed") && !model.equals("open")) {
+            throw new IllegalArgumentException("--model must be closed or open, got " + model);
+        }
+        int rows = Integer.parseInt(options.getOrDefault("rows", "100000"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        int clients = Integer.parseInt(options.getOrDefault("clients", "50"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "200"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "1000"));
+        long thinkMillis = Long.parseLong(options.getOrDefault("think-ms", "0"));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "15")));
+        Duration interval = Duration.ofSeconds(Long.parseLong(options.getOrDefault("interval", "5")));
+        String mixSpec = options.getOrDefault("mix", LoadScenarios.DEFAULT_MIX);
+        File output = new File(options.getOrDefault("output", "target/load-test/report.json"));
+        String target = options.get("target");
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("model", model);
+        if (model.equals("closed")) {
+            settings.put("clients", clients);
+            settings.put("thinkMs", thinkMillis);
+        } else {
+            settings.put("ratePerSecond", rate);
+            settings.put("maxInFlight", maxInFlight);
+        }
+        settings.put("durationSeconds", duration.toSeconds());
+        settings.put("rows", rows);
+        settings.put("seed", seed);
+        settings.put("mix", mixSpec);
+        settings.put("target", target != null ? target : "in-process");
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = target;
+        if (baseUrl == null) {
+            System.out.printf("Starting the service with %d synthetic products...%n", rows);
+            context = BenchmarkCatalog.startServer(0, "--catalog.seed.source=synthetic",
+                    "--catalog.seed.rows=" + rows, "--catalog.seed.random-seed=" + seed);
+            baseUrl = "http://localhost:" + BenchmarkCatalog.port(context);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(executor)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            // Part numbers of created products must not collide with earlier runs against the same instance
+            String runId = Long.toString(System.currentTimeMillis(), 36).toUpperCase();
+            LoadScenarios.Mix mix = new LoadScenarios(baseUrl, new SyntheticProducts(seed), rows, runId).mix(mixSpec);
+            Driver driver = model.equals("closed")
+                    ? new ClosedDriver(httpClient, mix, seed, clients, thinkMillis)
+                    : new OpenDriver(httpClient, mix, seed, rate, maxInFlight);
+
+            if (!warmup.isZero()) {
+                System.out.printf("Warming up for %ds...%n", warmup.toSeconds());
+                driver.run(new LoadReport(mix.scenarios, null), warmup, interval, false);
+            }
+            System.out.printf("Measuring %s model for %ds against %s%n", model, duration.toSeconds(), baseUrl);
+            File log = new File(output.getParentFile(), output.getName().replaceFirst("\\.json$", "") + ".hlog");
+            LoadReport report = new LoadReport(mix.scenarios, log);
+            double elapsed = driver.run(report, duration, interval, true);
+            report.write(output, settings, elapsed);
+            System.out.printf("%nReport written to %s, interval histograms to %s%n", output.getPath(), log.getPath());
+
+            if (options.containsKey("baseline")) {
+                LoadReport.compare(output, new File(options.get("baseline")));
+            }
+        } finally {
+            executor.shutdownNow();
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    // Sends one request and records its outcome against the given start time
+    private static CompletableFuture<Void> send(HttpClient httpClient, LoadScenarios.Scenario scenario,
+                                                HttpRequest request, long startNanos, LoadReport report) {
+        if (scenario.streams()) {
+            // Never-ending stream: completes with the headers, then the subscription is dropped
+            return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                    .handle((response, failure) -> {
+                        long latency = System.nanoTime() - startNanos;
+                        if (failure != null) {
+                            report.failed(scenario);
+                            return null;
+                        }
+                        report.record(scenario, response.statusCode(), latency);
+                        try {
+                            response.body().close();
+                        } catch (IOException ignored) {
+                            // The connection is dropped either way
+                        }
+                        return null;
+                    });
+        }
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, failure) -> {
+                    long latency = System.nanoTime() - startNanos;
+                    if (failure != null) {
+                        report.failed(scenario);
+                    } else {
+                        report.record(scenario, response.statusCode(), latency);
+                    }
+                    return null;
+                });
+    }
+
+    private interface Driver {
+        /** Runs the load for {@code duration}, reporting every {@code interval}; returns the elapsed seconds. */
+        double run(LoadReport report, Duration duration, Duration interval, boolean print) throws InterruptedException;
+    }
+
+    // Reports on the calling thread until the load completes
+    private static void awaitReporting(CompletableFuture<Void> done, LoadReport report, Duration interval,
+                                       boolean print) throws InterruptedException {
+        while (true) {
+            try {
+                done.get(interval.toMillis(), TimeUnit.MILLISECONDS);
+                break;
+            } catch (TimeoutException ex) {
+                report.interval(print);
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException(ex.getCause());
+            }
+        }
+        report.interval(print);
+    }
+
+    private static final class ClosedDriver implements Driver {
+        private final HttpClient httpClient;
+        private final LoadScenarios.Mix mix;
+        private final SplittableRandom[] randoms;
+        private final long thinkMillis;
+
+        ClosedDriver(HttpClient httpClient, LoadScenarios.Mix mix, long seed, int clients, long thinkMillis) {
+            this.httpClient = httpClient;
+            this.mix = mix;
+            this.thinkMillis = thinkMillis;
+            // One stream per client, continued across warmup and measurement
+            SplittableRandom root = new SplittableRandom(seed);
+            this.randoms = new SplittableRandom[clients];
+            for (int i = 0; i < clients; i++) {
+                randoms[i] = root.split();
+            }
+        }
+
+        @Override
+        public double run(LoadReport report, Duration duration, Duration interval, boolean print)
+                throws InterruptedException {
+            long start = System.nanoTime();
+            long deadline = start + duration.toNanos();
+            List<CompletableFuture<Void>> running = new ArrayList<>(randoms.length);
+            for (SplittableRandom random : randoms) {
+                CompletableFuture<Void> done = new CompletableFuture<>();
+                running.add(done);
+                next(random, report, deadline, done);
+            }
+            awaitReporting(CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)), report, interval, print);
+            // Every client stops at the deadline, after its last response
+            return (System.nanoTime() - start) / 1e9;
+        }
+
+        private void next(SplittableRandom random, LoadReport report, long deadline, CompletableFuture<Void> done) {
+            if (System.nanoTime() >= deadline) {
+                done.complete(null);
+                return;
+            }
+            LoadScenarios.Scenario scenario = mix.pick(random);
+            HttpRequest request = scenario.next.apply(random);
+            send(httpClient, scenario, request, System.nanoTime(), report).whenComplete((ignored, failure) -> {
+                if (thinkMillis <= 0) {
+                    next(random, report, deadline, done);
+                    return;
+                }
+                long think = (long) (-thinkMillis * Math.log(1 - random.nextDouble()));
+                CompletableFuture.delayedExecutor(think, TimeUnit.MILLISECONDS)
+                        .execute(() -> next(random, report, deadline, done));
+            });
+        }
+    }
+
+    private static final class OpenDriver implements Driver {
+        private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+
+        private final HttpClient httpClient;
+        private final LoadScenarios.Mix mix;
+        private final SplittableRandom random;
+        private final double meanGapNanos;
+        private final int maxInFlight;
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        OpenDriver(HttpClient httpClient, LoadScenarios.Mix mix, long seed, double rate, int maxInFlight) {
+            if (rate <= 0) {
+                throw new IllegalArgumentException("--rate must be positive, got " + rate);
+            }
+            this.httpClient = httpClient;
+            this.mix = mix;
+            this.random = new SplittableRandom(seed);
+            this.meanGapNanos = 1e9 / rate;
+            this.maxInFlight = maxInFlight;
+        }
+
+        @Override
+        public double run(LoadReport report, Duration duration, Duration interval, boolean print)
+                throws InterruptedException {
+            long start = System.nanoTime();
+            long deadline = start + duration.toNanos();
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            Thread arrivals = new Thread(() -> {
+                // Arrival times follow the schedule, not the sends, so a slow send does not thin out the load
+                double scheduled = start;
+                while (true) {
+                    scheduled += -meanGapNanos * Math.log(1 - random.nextDouble());
+                    long arrival = (long) scheduled;
+                    if (arrival >= deadline) {
+                        break;
+                    }
+                    long wait = arrival - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    LoadScenarios.Scenario scenario = mix.pick(random);
+                    HttpRequest request = scenario.next.apply(random);
+                    if (inFlight.incrementAndGet() > maxInFlight) {
+                        inFlight.decrementAndGet();
+                        report.refused(scenario);
+                        continue;
+                    }
+                    send(httpClient, scenario, request, arrival, report)
+                            .whenComplete((ignored, failure) -> inFlight.decrementAndGet());
+                }
+                // Let outstanding requests finish so they are counted in this phase
+                long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+                while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+                }
+                done.complete(null);
+            }, "load-arrivals");
+            arrivals.setDaemon(true);
+            arrivals.start();
+            awaitReporting(done, report, interval, print);
+            // Requests drained after the deadline were scheduled within it
+            return duration.toNanos() / 1e9;
+        }
+    }
+}
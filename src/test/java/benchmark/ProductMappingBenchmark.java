@@ -0,0 +1,122 @@
+package benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.mapper.ProductMapper;
+import com.phasezero.catalog.responsedto.ProductResponse;
+import com.phasezero.catalog.responsedto.RestApiResponse;
+import com.phasezero.catalog.service.impl.ProductServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU-only cost of turning a page of entities into a response: {@link ProductMapper#toResponse}
+ * versus the service's own {@code convertToProductResponse}, and Jackson serialization of the
+ * {@code RestApiResponse<Page<ProductResponse>>} returned by {@code GET /api/v1/products}.
+ * <p>
+ * The ObjectMapper comes from Boot's Jackson auto-configuration, so it carries the same modules
+ * and features as the one used by Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductMappingBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private ProductMapper productMapper;
+    private MethodHandle convertToProductResponse;
+    private ProductServiceImpl productService;
+    private List<Product> products;
+    private RestApiResponse<Page<ProductResponse>> pageResponse;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        context = new SpringApplicationBuilder(JacksonAutoConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.main.banner-mode=off", "--logging.level.root=WARN");
+        objectMapper = context.getBean(ObjectMapper.class);
+        productMapper = new ProductMapper();
+
+        // The conversion only reads the entity, so the service needs none of its collaborators
+        Constructor<?> constructor = ProductServiceImpl.class.getConstructors()[0];
+        productService = (ProductServiceImpl) constructor.newInstance(new Object[constructor.getParameterCount()]);
+        Method convert = ProductServiceImpl.class.getDeclaredMethod("convertToProductResponse", Product.class);
+        convert.setAccessible(true);
+        convertToProductResponse = MethodHandles.lookup().unreflect(convert);
+
+        LocalDateTime now = LocalDateTime.now();
+        products = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            products.add(Product.builder()
+                    .id((long) i)
+                    .partNumber("BN-" + i)
+                    .partName(BenchmarkCatalog.partName(i))
+                    .category(BenchmarkCatalog.CATEGORIES[i % BenchmarkCatalog.CATEGORIES.length])
+                    .price(BigDecimal.valueOf(100 + i, 2))
+                    .stock(i)
+                    .brand(BenchmarkCatalog.BRANDS[i % BenchmarkCatalog.BRANDS.length])
+                    .description("Synthetic benchmark part " + i)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+
+        List<ProductResponse> content = products.stream().map(productMapper::toResponse).toList();
+        pageResponse = RestApiResponse.<Page<ProductResponse>>builder()
+                .status("success")
+                .message("Products retrieved successfully")
+                .data(new PageImpl<>(content, PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "createdAt")),
+                        100_000))
+                .path("/api/v1/products")
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void mapperToResponse(Blackhole blackhole) {
+        for (Product product : products) {
+            blackhole.consume(productMapper.toResponse(product));
+        }
+    }
+
+    @Benchmark
+    public void serviceConvertToProductResponse(Blackhole blackhole) throws Throwable {
+        for (Product product : products) {
+            blackhole.consume((ProductResponse) convertToProductResponse.invoke(productService, product));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(pageResponse);
+    }
+}
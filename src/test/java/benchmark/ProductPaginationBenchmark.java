@@ -0,0 +1,73 @@
+package benchmark;
+
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.repository.ProductRepository;
+import com.phasezero.catalog.requestdto.ProductCursor;
+import com.phasezero.catalog.responsedto.CursorPageResponse;
+import com.phasezero.catalog.responsedto.ProductResponse;
+import com.phasezero.catalog.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of page 1 versus page 5000 (20 rows per page, createdAt DESC) for offset pagination
+ * through {@code getAllProducts} and keyset pagination through {@code getProductsByCursor}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductPaginationBenchmark {
+
+    static final int PAGE_SIZE = 20;
+    static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    @Param({"200000"})
+    private int rows;
+
+    @Param({"1", "5000"})
+    private int page;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private Pageable pageable;
+    private String cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkCatalog.start(rows);
+        productService = context.getBean(ProductService.class);
+        pageable = PageRequest.of(page - 1, PAGE_SIZE, NEWEST_FIRST);
+
+        if (page > 1) {
+            // The cursor a client would hold after reading page - 1
+            Product last = context.getBean(ProductRepository.class)
+                    .findAll(PageRequest.of((page - 1) * PAGE_SIZE - 1, 1, NEWEST_FIRST))
+                    .getContent().get(0);
+            cursor = new ProductCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<ProductResponse> offset() {
+        return productService.getAllProducts(pageable);
+    }
+
+    @Benchmark
+    public CursorPageResponse<ProductResponse> keyset() {
+        return productService.getProductsByCursor(cursor, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,99 @@
+package benchmark;
+
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.mapper.ProductMapper;
+import com.phasezero.catalog.repository.ProductRepository;
+import com.phasezero.catalog.responsedto.ProductResponse;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * List endpoints read two ways: managed {@link Product} entities in a read-write transaction,
+ * copied into {@link ProductResponse} afterwards (the previous read path), versus constructor
+ * projections straight into the DTO in a read-only transaction (the current one).
+ * <p>
+ * Run with the GC profiler to see the allocation saved per request:
+ * {@code -Djmh.args="ProductProjectionBenchmark -prof gc"} and compare {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductProjectionBenchmark {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt");
+
+    @Param({"100000"})
+    private int rows;
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private ProductMapper productMapper;
+    private EntityManager entityManager;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private Pageable pageable;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkCatalog.start(rows);
+        productRepository = context.getBean(ProductRepository.class);
+        productMapper = context.getBean(ProductMapper.class);
+        entityManager = context.getBean(EntityManager.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        pageable = PageRequest.of(10, pageSize, NEWEST_FIRST);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<ProductResponse> pageEntities() {
+        return readWrite.execute(status -> productRepository.findAll(pageable).map(productMapper::toResponse));
+    }
+
+    @Benchmark
+    public Page<ProductResponse> pageProjection() {
+        return readOnly.execute(status -> productRepository.findAllResponses(pageable));
+    }
+
+    // One category is about a seventh of the catalog, the largest list the cached endpoints build
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<ProductResponse> categoryEntities() {
+        return readWrite.execute(status -> entityManager
+                .createQuery("SELECT p FROM Product p WHERE p.category = :category", Product.class)
+                .setParameter("category", "Brakes")
+                .getResultStream()
+                .map(productMapper::toResponse)
+                .toList());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<ProductResponse> categoryProjection() {
+        return readOnly.execute(status -> productRepository.findByCategory("Brakes"));
+    }
+}
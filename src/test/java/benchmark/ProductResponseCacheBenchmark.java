@@ -0,0 +1,116 @@
+package benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phasezero.catalog.cache.CatalogVersion;
+import com.phasezero.catalog.cache.ResponseBodyCache;
+import com.phasezero.catalog.cache.ResponseBodyCache.EncodedBody;
+import com.phasezero.catalog.responsedto.ProductResponse;
+import com.phasezero.catalog.responsedto.RestApiResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response bodies per second on one thread (so, per core) for a category listing: Jackson
+ * serialization of the {@code RestApiResponse} envelope on every request, as before, versus
+ * {@link ResponseBodyCache} splicing a fresh timestamp into the cached bytes. The gzip variants
+ * compare deflating every response with sending the pre-compressed member.
+ * <p>
+ * Only the body is measured; for the end-to-end effect run {@code ProductLoadBenchmark} against
+ * {@code /api/v1/products/filter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductResponseCacheBenchmark {
+
+    @Param({"50", "500"})
+    private int listingSize;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private ResponseBodyCache responseBodyCache;
+    private List<ProductResponse> products;
+    private EncodedBody encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(JacksonAutoConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.main.banner-mode=off", "--logging.level.root=WARN");
+        objectMapper = context.getBean(ObjectMapper.class);
+        responseBodyCache = new ResponseBodyCache(objectMapper, new CatalogVersion(), new SimpleMeterRegistry(),
+                64 << 20, true, 1024);
+
+        LocalDateTime now = LocalDateTime.now();
+        products = new ArrayList<>(listingSize);
+        for (int i = 0; i < listingSize; i++) {
+            products.add(ProductResponse.builder()
+                    .id((long) i)
+                    .partNumber("BN-" + i)
+                    .PartName(BenchmarkCatalog.partName(i))
+                    .category(BenchmarkCatalog.CATEGORIES[0])
+                    .price(BigDecimal.valueOf(100 + i, 2))
+                    .stock(i)
+                    .brand(BenchmarkCatalog.BRANDS[i % BenchmarkCatalog.BRANDS.length])
+                    .description("Synthetic benchmark part " + i)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        encoded = responseBodyCache.get("bench", this::envelope);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] jacksonPerRequest() throws IOException {
+        return objectMapper.writeValueAsBytes(envelope());
+    }
+
+    @Benchmark
+    public byte[] cachedBytes() {
+        return responseBodyCache.render(encoded, false);
+    }
+
+    @Benchmark
+    public byte[] jacksonGzipPerRequest() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            objectMapper.writeValue(out, envelope());
+        }
+        return buffer.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] cachedGzipBytes() {
+        return responseBodyCache.render(encoded, true);
+    }
+
+    private RestApiResponse<List<ProductResponse>> envelope() {
+        return RestApiResponse.<List<ProductResponse>>builder()
+                .status("success")
+                .message("Products found")
+                .data(products)
+                .path("/api/v1/products/filter")
+                .build();
+    }
+}
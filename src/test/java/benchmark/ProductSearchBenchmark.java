@@ -0,0 +1,59 @@
+package benchmark;
+
+import com.phasezero.catalog.repository.ProductRepository;
+import com.phasezero.catalog.responsedto.ProductResponse;
+import com.phasezero.catalog.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Substring search over {@code partName}: the {@code part_name like %x%} JPA query
+ * versus {@code searchProductsByName}, which intersects trigram posting lists and fetches
+ * the matches by primary key. Both sides project rows straight into {@link ProductResponse}.
+ * <p>
+ * "m4242" is selective (about one row per 10k) and is served from the index; "filter" matches
+ * roughly 2 in 13 rows, which the service deliberately hands back to the table scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductSearchBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    @Param({"filter", "m4242"})
+    private String term;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private ProductService productService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkCatalog.start(rows);
+        productRepository = context.getBean(ProductRepository.class);
+        productService = context.getBean(ProductService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ProductResponse> jpaContaining() {
+        return productRepository.findByPartNameContaining(term);
+    }
+
+    @Benchmark
+    public List<ProductResponse> ngramIndex() {
+        return productService.searchProductsByName(term);
+    }
+}
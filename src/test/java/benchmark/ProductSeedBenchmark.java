@@ -0,0 +1,93 @@
+package benchmark;
+
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.repository.ProductRepository;
+import com.phasezero.catalog.seed.CatalogSeeder;
+import com.phasezero.catalog.seed.SyntheticProducts;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to seed an empty catalog with {@code rows} synthetic products: one {@code save} per product
+ * (the former {@code DataInitializer} pattern) versus {@link CatalogSeeder}'s JDBC batches and its
+ * H2 {@code CSVREAD} import of the same products.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ProductSeedBenchmark {
+
+    @Param({"20000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private CatalogSeeder catalogSeeder;
+    private ProductRepository productRepository;
+    private JdbcTemplate jdbcTemplate;
+    private SyntheticProducts products;
+    private Path csv;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkCatalog.start(0, "--catalog.seed.source=none");
+        catalogSeeder = context.getBean(CatalogSeeder.class);
+        productRepository = context.getBean(ProductRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        products = new SyntheticProducts(42);
+
+        csv = Files.createTempFile("catalog-seed", ".csv");
+        try (Writer writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write("part_number,part_name,category,price,stock,brand,description\n");
+            for (Iterator<Product> it = products.stream(rows).iterator(); it.hasNext(); ) {
+                Product p = it.next();
+                writer.write(String.join(",", p.getPartNumber(), p.getPartName(), p.getCategory(),
+                        p.getPrice().toPlainString(), p.getStock().toString(), p.getBrand(), quoted(p.getDescription())));
+                writer.write('\n');
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void emptyTable() {
+        jdbcTemplate.execute("TRUNCATE TABLE products");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        Files.deleteIfExists(csv);
+    }
+
+    @Benchmark
+    public long saveEach() {
+        products.stream(rows).forEach(productRepository::save);
+        return productRepository.count();
+    }
+
+    @Benchmark
+    public long batchedInserts() {
+        return catalogSeeder.load(products.stream(rows));
+    }
+
+    @Benchmark
+    public long csvImport() {
+        return catalogSeeder.loadCsv(csv);
+    }
+
+    // Descriptions contain commas
+    private static String quoted(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,117 @@
+package benchmark;
+
+import com.phasezero.catalog.cache.ProductQueryCache;
+import com.phasezero.catalog.requestdto.ProductRequest;
+import com.phasezero.catalog.responsedto.CursorPageResponse;
+import com.phasezero.catalog.responsedto.InventoryValueResponse;
+import com.phasezero.catalog.responsedto.ProductResponse;
+import com.phasezero.catalog.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end cost of the {@link ProductService} operations behind the REST endpoints, against
+ * H2 seeded with {@code rows} products. Sizes can be overridden from the command line, e.g.
+ * {@code -Djmh.args="ProductServiceBenchmark -p rows=50000"}.
+ * <p>
+ * Filter and sort are measured both as served (from the result cache) and uncached, with the
+ * cache cleared before each call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private Cache categoryCache;
+    private Cache priceCache;
+    private int created;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkCatalog.start(rows);
+        productService = context.getBean(ProductService.class);
+        CacheManager cacheManager = context.getBean(CacheManager.class);
+        categoryCache = cacheManager.getCache(ProductQueryCache.BY_CATEGORY);
+        priceCache = cacheManager.getCache(ProductQueryCache.BY_PRICE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProductResponse createProduct() {
+        int i = created++;
+        return productService.createProduct(new ProductRequest(
+                "SVC-" + i,
+                BenchmarkCatalog.partName(i),
+                BenchmarkCatalog.CATEGORIES[i % BenchmarkCatalog.CATEGORIES.length],
+                BigDecimal.valueOf(1999, 2),
+                10,
+                BenchmarkCatalog.BRANDS[i % BenchmarkCatalog.BRANDS.length],
+                null));
+    }
+
+    @Benchmark
+    public List<ProductResponse> searchSelective() {
+        return productService.searchProductsByName("m4242");
+    }
+
+    @Benchmark
+    public List<ProductResponse> searchBroad() {
+        return productService.searchProductsByName("filter");
+    }
+
+    @Benchmark
+    public List<ProductResponse> filterCached() {
+        return productService.filterProductsByCategory("Brakes");
+    }
+
+    @Benchmark
+    public List<ProductResponse> filterUncached() {
+        categoryCache.clear();
+        return productService.filterProductsByCategory("Brakes");
+    }
+
+    @Benchmark
+    public List<ProductResponse> sortCached() {
+        return productService.sortProductsByPriceAsc();
+    }
+
+    @Benchmark
+    public List<ProductResponse> sortUncached() {
+        priceCache.clear();
+        return productService.sortProductsByPriceAsc();
+    }
+
+    @Benchmark
+    public CursorPageResponse<ProductResponse> cheapest20() {
+        return productService.getProductsByPriceRange(null, null, null, null, 20);
+    }
+
+    @Benchmark
+    public CursorPageResponse<ProductResponse> priceRangeInCategory() {
+        return productService.getProductsByPriceRange(new BigDecimal("10.00"), new BigDecimal("20.00"), "Brakes",
+                null, 20);
+    }
+
+    @Benchmark
+    public InventoryValueResponse inventoryValue() {
+        return productService.calculateTotalInventoryValue();
+    }
+}
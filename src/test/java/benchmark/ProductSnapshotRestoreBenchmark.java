@@ -0,0 +1,67 @@
+package benchmark;
+
+import com.phasezero.catalog.persistence.CatalogPersistence;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold-start reload of the catalog from the persistence directory: {@code restore} empties the
+ * products table and loads it back from the memory-mapped snapshot; {@code snapshot} writes that
+ * snapshot from the table, as background compaction does. The journal is empty in both cases.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ProductSnapshotRestoreBenchmark {
+
+    @Param({"200000"})
+    public int rows;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private CatalogPersistence persistence;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("catalog-snapshot-bench");
+        context = BenchmarkCatalog.start(rows, "--catalog.persistence.enabled=true",
+                "--catalog.persistence.directory=" + directory);
+        persistence = context.getBean(CatalogPersistence.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        persistence.compact();
+    }
+
+    @Setup(Level.Invocation)
+    public void emptyTable(org.openjdk.jmh.infra.BenchmarkParams params) {
+        if (params.getBenchmark().endsWith("restore")) {
+            jdbcTemplate.execute("TRUNCATE TABLE products");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public long restore() throws IOException {
+        return persistence.restore();
+    }
+
+    @Benchmark
+    public long snapshot() throws IOException {
+        return persistence.compact();
+    }
+}
@@ -0,0 +1,94 @@
+package benchmark;
+
+import com.phasezero.catalog.entity.Product;
+import com.phasezero.catalog.event.ProductChangedEvent;
+import com.phasezero.catalog.exception.InsufficientStockException;
+import com.phasezero.catalog.repository.ProductRepository;
+import com.phasezero.catalog.service.ProductService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 64 threads adjusting the stock of one hot SKU: {@code adjustStock}'s single conditional
+ * {@code UPDATE} versus a load-modify-save that takes the row lock with {@code SELECT ... FOR
+ * UPDATE}, the safe form of the naive approach. Both publish the same change event, so the
+ * difference is how long each adjustment holds the row lock. Each thread alternates taking and
+ * returning a unit, so the stock stays put however long the run.
+ * <p>
+ * Threads also queue for the connection pool (10 connections by default), as they would under
+ * real order traffic. The row lock only becomes the bottleneck when several cores run
+ * transactions at once; on one or two cores both variants are CPU-bound and score alike. The
+ * Spring and Hibernate path takes a long time to reach steady state, hence the long warmup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 3)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class ProductStockContentionBenchmark {
+
+    private static final int HOT_STOCK = 1_000_000;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private EntityManager entityManager;
+    private ApplicationEventPublisher eventPublisher;
+    private TransactionTemplate transactionTemplate;
+    private Long hotId;
+
+    @State(Scope.Thread)
+    public static class Direction {
+        int delta = -1;
+
+        int next() {
+            delta = -delta;
+            return -delta;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkCatalog.start(10_000);
+        productService = context.getBean(ProductService.class);
+        entityManager = context.getBean(EntityManager.class);
+        eventPublisher = context;
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        hotId = context.getBean(ProductRepository.class).findByPartNumber("BN-0").orElseThrow().getId();
+        context.getBean(JdbcTemplate.class).update("UPDATE products SET stock = ? WHERE id = ?", HOT_STOCK, hotId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object conditionalUpdate(Direction direction) {
+        return productService.adjustStock(hotId, direction.next());
+    }
+
+    @Benchmark
+    public Object lockedLoadModifySave(Direction direction) {
+        int delta = direction.next();
+        return transactionTemplate.execute(status -> {
+            Product product = entityManager.find(Product.class, hotId, LockModeType.PESSIMISTIC_WRITE);
+            if (product.getStock() + delta < 0) {
+                throw new InsufficientStockException("Insufficient stock for product " + hotId);
+            }
+            Product previous = product.toBuilder().build();
+            product.setStock(product.getStock() + delta);
+            eventPublisher.publishEvent(ProductChangedEvent.stockAdjusted(product, previous));
+            return product;
+        });
+    }
+}
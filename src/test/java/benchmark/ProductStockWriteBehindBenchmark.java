@@ -0,0 +1,70 @@
+package benchmark;
+
+import com.phasezero.catalog.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sustained stock deltas per second from order-system-like traffic: 16 threads adjusting random
+ * products among the 1,000 hottest, one conditional {@code UPDATE} transaction per delta versus the
+ * write-behind buffer, which coalesces the deltas per product and writes them in batches every
+ * 100 ms (or once 1,000 products are waiting). Each thread alternates taking and returning a unit.
+ * The write-behind score includes the flushes, which run on the scheduler thread or, past the size
+ * threshold, on the calling thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class ProductStockWriteBehindBenchmark {
+
+    private static final int HOT_PRODUCTS = 1_000;
+    private static final int HOT_STOCK = 1_000_000;
+
+    @Param({"false", "true"})
+    public boolean writeBehind;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private Long[] hotIds;
+
+    @State(Scope.Thread)
+    public static class Direction {
+        int delta = -1;
+
+        int next() {
+            delta = -delta;
+            return -delta;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkCatalog.start(100_000, "--catalog.stock.write-behind.enabled=" + writeBehind);
+        productService = context.getBean(ProductService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM products ORDER BY id LIMIT " + HOT_PRODUCTS, Long.class);
+        jdbcTemplate.update("UPDATE products SET stock = ? WHERE id <= ?", HOT_STOCK, ids.get(ids.size() - 1));
+        hotIds = ids.toArray(Long[]::new);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        // Closing stops the write-behind buffer, which flushes what is still pending
+        context.close();
+    }
+
+    @Benchmark
+    public Object adjustStock(Direction direction) {
+        Long id = hotIds[ThreadLocalRandom.current().nextInt(hotIds.length)];
+        return productService.adjustStock(id, direction.next());
+    }
+}
@@ -0,0 +1,49 @@
+package benchmark;
+
+import com.phasezero.catalog.index.SuggestionIndex;
+import com.phasezero.catalog.responsedto.SuggestionResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency distribution of one autocomplete keystroke against {@link SuggestionIndex} holding the
+ * part numbers and names of one million synthetic products. The index is filled through
+ * {@code put}, so the sorted array has gone through the same overlay merges as under live inserts.
+ * <p>
+ * "BN-4242" narrows to a dozen part numbers, "bn-" and "heavy duty" match hundreds of thousands
+ * of values of which only the first {@code limit} are read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ProductSuggestBenchmark {
+
+    @Param({"1000000"})
+    private int products;
+
+    @Param({"BN-4242", "bn-", "heavy duty o"})
+    private String prefix;
+
+    @Param({"10"})
+    private int limit;
+
+    private SuggestionIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new SuggestionIndex(null);
+        for (int i = 0; i < products; i++) {
+            index.put((long) i, "BN-" + i, BenchmarkCatalog.partName(i));
+        }
+    }
+
+    @Benchmark
+    public List<SuggestionResponse> suggest() {
+        return index.suggest(prefix, limit);
+    }
+}